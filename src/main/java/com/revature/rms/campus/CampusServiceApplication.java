@@ -1,5 +1,6 @@
 package com.revature.rms.campus;
 
+import com.revature.rms.campus.aspects.ActiveFilterAspect;
 import com.revature.rms.campus.entities.*;
 import com.revature.rms.campus.repositories.CampusRepository;
 import com.revature.rms.campus.services.BuildingService;
@@ -15,6 +16,8 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.netflix.eureka.EnableEurekaClient;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
 import springfox.documentation.builders.ApiInfoBuilder;
 import springfox.documentation.builders.PathSelectors;
 import springfox.documentation.builders.RequestHandlerSelectors;
@@ -26,6 +29,10 @@ import java.util.ArrayList;
 
 @EnableEurekaClient
 @EnableSwagger2
+@EnableScheduling
+// transactions start after ShardAspect picks their shard and before ActiveFilterAspect runs, so that aspect sees
+// the transaction's session
+@EnableTransactionManagement(proxyTargetClass = true, order = ActiveFilterAspect.ORDER - 1)
 @SpringBootApplication
 @OpenAPIDefinition(info =
 	@Info(title = "Campus API", version = "1.0", description = "Documentation Campus API v1.0")
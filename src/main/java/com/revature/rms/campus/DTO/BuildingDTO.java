@@ -3,10 +3,13 @@ package com.revature.rms.campus.DTO;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.revature.rms.campus.entities.*;
 import com.revature.rms.core.metadata.*;
+import lombok.Data;
 
 import javax.persistence.*;
+import java.util.ArrayList;
 import java.util.List;
 
+@Data
 public class BuildingDTO {
 
     private int id;
@@ -21,7 +24,7 @@ public class BuildingDTO {
 
     private List<Amenity> amenities;
 
-    private List<Room> rooms;
+    private List<RoomDTO> rooms;
 
     private ResourceMetadata resourceMetadata;
 
@@ -30,7 +33,7 @@ public class BuildingDTO {
     public BuildingDTO() {
     }
 
-    public BuildingDTO(String name, String abbrName, Address physicalAddress, int trainingLead, List<Amenity> amenities, List<Room> rooms, ResourceMetadata resourceMetadata, int campusId) {
+    public BuildingDTO(String name, String abbrName, Address physicalAddress, int trainingLead, List<Amenity> amenities, List<RoomDTO> rooms, ResourceMetadata resourceMetadata, int campusId) {
         this.name = name;
         this.abbrName = abbrName;
         this.physicalAddress = physicalAddress;
@@ -41,7 +44,7 @@ public class BuildingDTO {
         this.campusId = campusId;
     }
 
-    public BuildingDTO(int id, String name, String abbrName, Address physicalAddress, int trainingLead, List<Amenity> amenities, List<Room> rooms, ResourceMetadata resourceMetadata, int campusId) {
+    public BuildingDTO(int id, String name, String abbrName, Address physicalAddress, int trainingLead, List<Amenity> amenities, List<RoomDTO> rooms, ResourceMetadata resourceMetadata, int campusId) {
         this.id = id;
         this.name = name;
         this.abbrName = abbrName;
@@ -63,4 +66,20 @@ public class BuildingDTO {
         this.resourceMetadata = resourceMetadata;
         this.campusId = campusId;
     }
+
+    /**
+     * Constructor expression used by BuildingRepository to read buildings straight into DTOs. The amenities
+     * and rooms are left empty and filled in afterwards with one query per collection for the whole list.
+     */
+    public BuildingDTO(int id, String name, String abbrName, Address physicalAddress, int trainingLead, ResourceMetadata resourceMetadata, Integer campusId) {
+        this.id = id;
+        this.name = name;
+        this.abbrName = abbrName;
+        this.physicalAddress = physicalAddress;
+        this.trainingLead = trainingLead;
+        this.amenities = new ArrayList<>();
+        this.rooms = new ArrayList<>();
+        this.resourceMetadata = resourceMetadata;
+        this.campusId = (campusId == null) ? 0 : campusId;
+    }
 }
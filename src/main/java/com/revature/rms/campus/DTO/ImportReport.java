@@ -0,0 +1,62 @@
+package com.revature.rms.campus.DTO;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk import. Rows are written in chunks that are committed as they go, so the counts reflect what
+ * was persisted even when some rows were rejected. Each rejected row is listed with its position in the upload: a
+ * JSON pointer such as "/0/buildings/2/rooms/15" for JSON uploads, or "line 42" for CSV uploads.
+ */
+@Data
+public class ImportReport {
+
+    /**
+     * Largest number of row errors listed in a report. Further errors are still counted in rejected.
+     */
+    public static final int MAX_ERRORS = 1000;
+
+    private int campuses;
+
+    private int buildings;
+
+    private int rooms;
+
+    /**
+     * Rows that were not written, either because they were invalid or because their parent was rejected.
+     */
+    private int rejected;
+
+    private List<RowError> errors = new ArrayList<>();
+
+    /**
+     * reject method: Records a row that was not written.
+     *
+     * @param row position of the row in the upload
+     * @param message why the row was rejected
+     */
+    public void reject(String row, String message) {
+        rejected++;
+        if (errors.size() < MAX_ERRORS) {
+            errors.add(new RowError(row, message));
+        }
+    }
+
+    @Data
+    public static class RowError {
+
+        private String row;
+
+        private String message;
+
+        public RowError() {
+        }
+
+        public RowError(String row, String message) {
+            this.row = row;
+            this.message = message;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.revature.rms.campus.DTO;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * One page of a keyset (seek) paginated list. The rows are ordered by id, and nextCursor holds the id
+ * of the last row on this page, which is passed back as the cursor parameter ("after" for lists in
+ * ascending order, "before" for newest-first histories) to fetch the next page.
+ * nextCursor is null once the last page has been reached.
+ *
+ * @param <T> the type of the rows on the page
+ */
+@Data
+public class KeysetPage<T> {
+
+    /**
+     * Largest page size a client may request.
+     */
+    public static final int MAX_LIMIT = 500;
+
+    private List<T> content;
+
+    private int limit;
+
+    private Integer nextCursor;
+
+    public KeysetPage() {
+    }
+
+    public KeysetPage(List<T> content, int limit, Integer nextCursor) {
+        this.content = content;
+        this.limit = limit;
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * of method: Builds a page from rows that were fetched with a limit of one more than the page size.
+     * The extra row is only used to tell whether another page exists and is dropped from the content.
+     *
+     * @param rows rows fetched with a limit of limit + 1, in cursor order
+     * @param limit the requested page size
+     * @param idOf function returning the id of a row
+     * @param <T> the type of the rows on the page
+     * @return the page with its next cursor
+     */
+    public static <T> KeysetPage<T> of(List<T> rows, int limit, ToIntFunction<T> idOf) {
+        if (rows.size() <= limit) {
+            return new KeysetPage<>(rows, limit, null);
+        }
+        List<T> content = new ArrayList<>(rows.subList(0, limit));
+        return new KeysetPage<>(content, limit, idOf.applyAsInt(content.get(limit - 1)));
+    }
+}
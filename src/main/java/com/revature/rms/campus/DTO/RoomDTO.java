@@ -1,10 +1,12 @@
 package com.revature.rms.campus.DTO;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import com.revature.rms.campus.entities.Room;
 import com.revature.rms.campus.entities.RoomStatus;
 import lombok.Data;
 import com.revature.rms.core.metadata.*;
 
+import java.util.ArrayList;
 import java.util.List;
 
 @Data
@@ -18,6 +20,10 @@ public class RoomDTO {
 
     private boolean active;
 
+    /**
+     * Serialized under the same name as Room.currentStatus, so the list endpoints keep their JSON shape.
+     */
+    @JsonProperty("currentStatus")
     private List<RoomStatus> roomStatus;
 
     private int batchId;
@@ -54,6 +60,22 @@ public class RoomDTO {
         this.building_id = building_id;
     }
 
+    /**
+     * Constructor expression used by RoomRepository to read rooms straight into DTOs. The work orders come
+     * with the room row; the statuses are left empty and filled in afterwards with one query for the whole list.
+     */
+    public RoomDTO(int id, String roomNumber, int maxOccupancy, int batchId, List<Integer> workOrders, ResourceMetadata resourceMetadata, Integer buildingId) {
+        this.id = id;
+        this.roomNumber = roomNumber;
+        this.maxOccupancy = maxOccupancy;
+        this.active = resourceMetadata != null && resourceMetadata.isCurrentlyActive();
+        this.roomStatus = new ArrayList<>();
+        this.batchId = batchId;
+        this.workOrders = (workOrders == null) ? new ArrayList<>() : workOrders;
+        this.resourceMetadata = resourceMetadata;
+        this.building_id = (buildingId == null) ? 0 : buildingId;
+    }
+
     public RoomDTO(Room room) {
         this.id = room.getId();
         this.roomNumber = room.getRoomNumber();
@@ -0,0 +1,45 @@
+package com.revature.rms.campus.DTO;
+
+import lombok.Data;
+
+import java.time.Instant;
+
+/**
+ * One room status as written to the columnar status export, with the room, building and campus it belongs to
+ * flattened into plain ids. Read straight from the database with a constructor expression, for live and archived
+ * statuses alike.
+ */
+@Data
+public class RoomStatusExportRow {
+
+    private int statusId;
+
+    private Integer roomId;
+
+    private Integer buildingId;
+
+    private Integer campusId;
+
+    private Instant submittedAt;
+
+    private boolean whiteBoardCleaned;
+
+    private boolean chairsOrdered;
+
+    private int submitterId;
+
+    public RoomStatusExportRow() {
+    }
+
+    public RoomStatusExportRow(int statusId, Integer roomId, Integer buildingId, Integer campusId, Instant submittedAt,
+                               boolean whiteBoardCleaned, boolean chairsOrdered, int submitterId) {
+        this.statusId = statusId;
+        this.roomId = roomId;
+        this.buildingId = buildingId;
+        this.campusId = campusId;
+        this.submittedAt = submittedAt;
+        this.whiteBoardCleaned = whiteBoardCleaned;
+        this.chairsOrdered = chairsOrdered;
+        this.submitterId = submitterId;
+    }
+}
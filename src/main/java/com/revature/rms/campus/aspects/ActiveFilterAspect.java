@@ -0,0 +1,63 @@
+package com.revature.rms.campus.aspects;
+
+import com.revature.rms.campus.services.ActiveFilter;
+import com.revature.rms.campus.services.IncludeInactive;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.hibernate.Session;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+/**
+ * Enables the "activeOnly" Hibernate filter around read-only service methods, so their queries leave out
+ * deactivated campuses, buildings and rooms in the database rather than returning them for the client to drop.
+ * The aspect runs inside the transaction advice (see CampusServiceApplication) so that it acts on the
+ * transaction's session, and puts the filter back as it found it, since a read-only method may join a
+ * read-write transaction. Loading by id is not filtered.
+ */
+@Aspect
+@Component
+@Order(ActiveFilterAspect.ORDER)
+public class ActiveFilterAspect {
+
+    public static final int ORDER = 0;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Around("within(com.revature.rms.campus.services..*) && @annotation(transactional)")
+    public Object filterInactive(ProceedingJoinPoint joinPoint, Transactional transactional) throws Throwable {
+        if (!transactional.readOnly()) {
+            return joinPoint.proceed();
+        }
+
+        boolean activeOnly = !ActiveFilter.isIncludingInactive()
+                && !((MethodSignature) joinPoint.getSignature()).getMethod().isAnnotationPresent(IncludeInactive.class);
+        Session session = entityManager.unwrap(Session.class);
+        boolean enabled = session.getEnabledFilter(ActiveFilter.NAME) != null;
+        if (activeOnly == enabled) {
+            return joinPoint.proceed();
+        }
+
+        toggle(session, activeOnly);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            toggle(session, enabled);
+        }
+    }
+
+    private static void toggle(Session session, boolean enable) {
+        if (enable) {
+            session.enableFilter(ActiveFilter.NAME);
+        } else {
+            session.disableFilter(ActiveFilter.NAME);
+        }
+    }
+}
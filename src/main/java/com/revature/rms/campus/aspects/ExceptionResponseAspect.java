@@ -1,10 +1,37 @@
 package com.revature.rms.campus.aspects;
 
+import com.revature.rms.campus.exceptions.VersionConflictException;
 import com.revature.rms.core.aspects.CoreExceptionResponseAspect;
+import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Component;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 @Component
 @RestControllerAdvice
 public class ExceptionResponseAspect extends CoreExceptionResponseAspect {
+
+    /**
+     * handleVersionConflict method: Answers an update made against a stale version, whether caught by a
+     * conditional UPDATE or by Hibernate's own version check, with 409 Conflict.
+     *
+     * @param e the conflict
+     * @return the error body
+     */
+    @ExceptionHandler({VersionConflictException.class, ObjectOptimisticLockingFailureException.class})
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public Map<String, Object> handleVersionConflict(RuntimeException e) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("status", HttpStatus.CONFLICT.value());
+        body.put("message", (e instanceof VersionConflictException) ? e.getMessage()
+                : "The resource was modified by someone else, reload it and try again");
+        body.put("timestamp", LocalDateTime.now().toString());
+        return body;
+    }
 }
@@ -0,0 +1,168 @@
+package com.revature.rms.campus.aspects;
+
+import com.revature.rms.campus.DTO.KeysetPage;
+import com.revature.rms.campus.config.ShardDirectory;
+import com.revature.rms.campus.services.FanOut;
+import com.revature.rms.campus.services.Shard;
+import com.revature.rms.campus.services.Sharded;
+import com.revature.rms.core.exceptions.*;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Binds the thread to a shard around the @Sharded and @FanOut service methods when sharding is configured (see
+ * ShardingConfig). It runs outside the transaction advice (see CampusServiceApplication), so each transaction
+ * starts on the shard it belongs to. A call made while a shard is already bound stays on it, so the services a
+ * sharded method calls run in its transaction.
+ */
+@Aspect
+@Component
+@Order(ShardAspect.ORDER)
+@ConditionalOnProperty(prefix = "rms.datasource", name = "shards[0].jdbc-url")
+public class ShardAspect {
+
+    public static final int ORDER = ActiveFilterAspect.ORDER - 2;
+
+    private final ShardDirectory shardDirectory;
+
+    @PersistenceUnit
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    public ShardAspect(ShardDirectory shardDirectory) {
+        this.shardDirectory = shardDirectory;
+    }
+
+    @Around("@annotation(sharded)")
+    public Object route(ProceedingJoinPoint joinPoint, Sharded sharded) throws Throwable {
+        Object[] args = joinPoint.getArgs();
+        if (Shard.current() != null || args.length == 0) {
+            return joinPoint.proceed();
+        }
+
+        if (!(args[0] instanceof List)) {
+            return proceedOn(shardDirectory.shardOf(sharded.value(), args[0]), joinPoint, args);
+        }
+
+        Map<Integer, List<Object>> byShard = new LinkedHashMap<>();
+        for (Object resource : (List<?>) args[0]) {
+            byShard.computeIfAbsent(shardDirectory.shardOf(sharded.value(), resource), shard -> new ArrayList<>()).add(resource);
+        }
+        if (byShard.size() <= 1) {
+            return proceedOn(byShard.isEmpty() ? 0 : byShard.keySet().iterator().next(), joinPoint, args);
+        }
+        // one transaction per shard, so a list spanning shards is not written atomically
+        Object merged = null;
+        for (Map.Entry<Integer, List<Object>> part : byShard.entrySet()) {
+            Object[] partArgs = args.clone();
+            partArgs[0] = part.getValue();
+            merged = merge(merged, proceedOn(part.getKey(), joinPoint, partArgs));
+        }
+        return merged;
+    }
+
+    @Around("@annotation(fanOut)")
+    public Object fanOut(ProceedingJoinPoint joinPoint, FanOut fanOut) throws Throwable {
+        if (Shard.current() != null) {
+            return joinPoint.proceed();
+        }
+
+        Object merged = null;
+        ResourceNotFoundException notFound = null;
+        for (int shard = 0; shard < shardDirectory.getShardCount(); shard++) {
+            Object result;
+            try {
+                result = proceedOn(shard, joinPoint, joinPoint.getArgs());
+            } catch (ResourceNotFoundException e) {
+                notFound = e;
+                continue;
+            }
+            if (isSingle(result) && isFound(merged)) {
+                continue;
+            }
+            merged = merge(merged, result);
+        }
+        if (merged == null && notFound != null) {
+            throw notFound;
+        }
+        return merged;
+    }
+
+    private static Object proceedOn(int shard, ProceedingJoinPoint joinPoint, Object[] args) throws Throwable {
+        Integer previous = Shard.set(shard);
+        try {
+            return joinPoint.proceed(args);
+        } finally {
+            Shard.set(previous);
+        }
+    }
+
+    private static boolean isSingle(Object result) {
+        return !(result instanceof List || result instanceof Map || result instanceof Number || result instanceof KeysetPage);
+    }
+
+    private static boolean isFound(Object result) {
+        return result instanceof Optional ? ((Optional<?>) result).isPresent() : result != null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object merge(Object merged, Object result) {
+        if (merged == null || (merged instanceof Optional && !((Optional<?>) merged).isPresent())) {
+            return result;
+        }
+        if (result instanceof List) {
+            List<Object> all = new ArrayList<>((List<Object>) merged);
+            all.addAll((List<Object>) result);
+            return all;
+        }
+        if (result instanceof Map) {
+            Map<Object, Object> all = new LinkedHashMap<>((Map<Object, Object>) merged);
+            ((Map<Object, Object>) result).forEach((key, value) -> all.merge(key, value, this::merge));
+            return all;
+        }
+        if (result instanceof Integer) {
+            return (Integer) merged + (Integer) result;
+        }
+        if (result instanceof Long) {
+            return (Long) merged + (Long) result;
+        }
+        if (result instanceof KeysetPage) {
+            return mergePages((KeysetPage<Object>) merged, (KeysetPage<Object>) result);
+        }
+        return merged;
+    }
+
+    /**
+     * Merges two pages of rows in ascending id order. Only the lowest ids fill the merged page, so rows left over
+     * from either side are fetched again with the next page, which starts after the last id kept.
+     */
+    private KeysetPage<Object> mergePages(KeysetPage<Object> merged, KeysetPage<Object> page) {
+        List<Object> rows = new ArrayList<>(merged.getContent());
+        rows.addAll(page.getContent());
+        rows.sort(Comparator.comparingInt(this::idOf));
+
+        int limit = page.getLimit();
+        boolean more = merged.getNextCursor() != null || page.getNextCursor() != null || rows.size() > limit;
+        List<Object> content = new ArrayList<>(rows.subList(0, Math.min(limit, rows.size())));
+        Integer nextCursor = (more && !content.isEmpty()) ? idOf(content.get(content.size() - 1)) : null;
+        return new KeysetPage<>(content, limit, nextCursor);
+    }
+
+    private int idOf(Object entity) {
+        return (Integer) entityManagerFactory.getPersistenceUnitUtil().getIdentifier(entity);
+    }
+}
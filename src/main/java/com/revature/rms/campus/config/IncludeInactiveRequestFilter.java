@@ -0,0 +1,32 @@
+package com.revature.rms.campus.config;
+
+import com.revature.rms.campus.services.ActiveFilter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Reads the includeInactive query parameter of every request. With ?includeInactive=true the request sees
+ * deactivated campuses, buildings and rooms as well; otherwise only active ones (see ActiveFilter).
+ */
+@Component
+public class IncludeInactiveRequestFilter extends OncePerRequestFilter {
+
+    static final String PARAMETER = "includeInactive";
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean previous = ActiveFilter.setIncludingInactive(Boolean.parseBoolean(request.getParameter(PARAMETER)));
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ActiveFilter.setIncludingInactive(previous);
+        }
+    }
+}
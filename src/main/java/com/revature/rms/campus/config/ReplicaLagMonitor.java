@@ -0,0 +1,61 @@
+package com.revature.rms.campus.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Decides whether the replica may serve reads. On every check the configured lag query is run on the
+ * replica; it must return the replication lag in seconds (for PostgreSQL, e.g.
+ * "select coalesce(extract(epoch from now() - pg_last_xact_replay_timestamp()), 0)"). Reads go to the
+ * primary while the lag is above the limit or the replica cannot be reached. Without a lag query only
+ * reachability is checked, which is all the local H2 stand-ins can offer.
+ */
+public class ReplicaLagMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private final JdbcTemplate replica;
+
+    private final String lagQuery;
+
+    private final Duration maxLag;
+
+    private volatile boolean replicaUsable = true;
+
+    public ReplicaLagMonitor(DataSource replica, String lagQuery, Duration maxLag) {
+        this.replica = new JdbcTemplate(replica);
+        this.lagQuery = StringUtils.hasText(lagQuery) ? lagQuery : "select 0";
+        this.maxLag = maxLag;
+    }
+
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+
+    @Scheduled(fixedDelayString = "${rms.datasource.replica.lag-check-interval:PT5S}")
+    public void check() {
+        boolean usable;
+        try {
+            Double lagSeconds = replica.queryForObject(lagQuery, Double.class);
+            usable = lagSeconds != null && lagSeconds * 1000 <= maxLag.toMillis();
+            if (!usable && replicaUsable) {
+                logger.warn("Replica is {}s behind (limit {}), sending reads to the primary", lagSeconds, maxLag);
+            }
+        } catch (RuntimeException e) {
+            usable = false;
+            if (replicaUsable) {
+                logger.warn("Replica cannot be reached, sending reads to the primary", e);
+            }
+        }
+        if (usable && !replicaUsable) {
+            logger.info("Replica has caught up, sending reads to the replica again");
+        }
+        replicaUsable = usable;
+    }
+}
@@ -0,0 +1,64 @@
+package com.revature.rms.campus.config;
+
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Sends connections for @Transactional(readOnly = true) transactions to the replica pool and everything
+ * else to the primary. The read-only flag is only known once the transaction has started, so this must
+ * sit behind a LazyConnectionDataSourceProxy (see DataSourceRoutingConfig) that defers fetching the
+ * physical connection until the first statement. Reads fall back to the primary whenever the replica
+ * is reported unusable, e.g. because it lags too far behind.
+ *
+ * A session whose reads are served by the replica may still read the second-level cache, but never puts
+ * what it loads into it (CacheMode.GET). Bulk JPQL updates, such as the cascading deactivations and the
+ * updateDetails statements of the repositories, evict whole entity regions, and a replica up to max-lag behind could otherwise
+ * re-cache the old rows for the full one-hour TTL of ehcache.xml. The regions are filled again by the next
+ * load on the primary.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Route { PRIMARY, REPLICA }
+
+    private final BooleanSupplier replicaUsable;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, BooleanSupplier replicaUsable) {
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(Route.PRIMARY, primary);
+        targets.put(Route.REPLICA, replica);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        this.replicaUsable = replicaUsable;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        boolean readOnly = TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        if (readOnly && replicaUsable.getAsBoolean()) {
+            stopCachePuts();
+            return Route.REPLICA;
+        }
+        return Route.PRIMARY;
+    }
+
+    /**
+     * Switches the sessions of the current transaction to CacheMode.GET. Sessions are transaction scoped, since
+     * Open Session In View is off, so the mode never outlives the transaction that was routed to the replica.
+     */
+    private static void stopCachePuts() {
+        for (Object resource : TransactionSynchronizationManager.getResourceMap().values()) {
+            if (resource instanceof EntityManagerHolder) {
+                ((EntityManagerHolder) resource).getEntityManager().unwrap(Session.class).setCacheMode(CacheMode.GET);
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.revature.rms.campus.config;
+
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * Publishes the regions of the Hibernate second-level cache as cache.* meters (gets by hit/miss, puts,
+ * evictions and removals, tagged with the region name) on the actuator metrics endpoint. Actuator only
+ * binds Spring-managed caches on its own; the per-region request counts Hibernate keeps itself are
+ * published separately as hibernate.second.level.cache.* meters through generate_statistics.
+ */
+@Configuration
+public class SecondLevelCacheMetrics {
+
+    @Bean
+    public MeterBinder secondLevelCacheMeterBinder(EntityManagerFactory entityManagerFactory) {
+        return registry -> {
+            RegionFactory regionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getCache().getRegionFactory();
+            if (!(regionFactory instanceof JCacheRegionFactory)) {
+                return;
+            }
+            CacheManager cacheManager = ((JCacheRegionFactory) regionFactory).getCacheManager();
+            for (String region : cacheManager.getCacheNames()) {
+                JCacheMetrics.monitor(registry, cacheManager.getCache(region), Tags.of("cacheManager", "hibernate"));
+            }
+        };
+    }
+}
@@ -0,0 +1,107 @@
+package com.revature.rms.campus.config;
+
+import com.revature.rms.campus.entities.Building;
+import com.revature.rms.campus.entities.Campus;
+import com.revature.rms.campus.entities.Room;
+import com.revature.rms.campus.entities.RoomStatus;
+import com.revature.rms.campus.services.Shard;
+import com.revature.rms.campus.services.Sharded;
+import org.springframework.data.repository.CrudRepository;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Knows which shard holds a campus and everything under it. A new campus is placed by the hash of its name, so
+ * that the unique campus name is still checked on a single shard. Buildings, rooms and statuses are written to
+ * the shard of their campus. An existing resource is found by asking each shard whether it has the id, which is
+ * unambiguous because the sequences of each shard count within a block of their own (see ShardingConfig), and the
+ * answer is remembered, since resources never move between shards and are only ever deactivated.
+ */
+public class ShardDirectory {
+
+    private final int shardCount;
+
+    private final Map<Sharded.Key, CrudRepository<?, Integer>> repositories;
+
+    private final Map<Sharded.Key, Map<Integer, Integer>> located = new EnumMap<>(Sharded.Key.class);
+
+    public ShardDirectory(int shardCount, Map<Sharded.Key, CrudRepository<?, Integer>> repositories) {
+        this.shardCount = shardCount;
+        this.repositories = repositories;
+        for (Sharded.Key key : Sharded.Key.values()) {
+            located.put(key, new ConcurrentHashMap<>());
+        }
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    /**
+     * shardOf method: Finds the shard for the resource a @Sharded method was called with.
+     *
+     * @param key the kind of resource
+     * @param resource the id of the resource, or the entity itself
+     * @return the shard, 0 when the resource is not stored on any shard
+     */
+    public int shardOf(Sharded.Key key, Object resource) {
+        if (resource instanceof Integer) {
+            return locate(key, (Integer) resource);
+        }
+        if (resource instanceof Campus) {
+            Campus campus = (Campus) resource;
+            return (campus.getId() != 0) ? locate(key, campus.getId()) : place(campus.getName());
+        }
+        if (resource instanceof Building) {
+            Building building = (Building) resource;
+            if (building.getId() != 0) {
+                return locate(key, building.getId());
+            }
+            return (building.getCampus() == null) ? 0 : shardOf(Sharded.Key.CAMPUS, building.getCampus());
+        }
+        if (resource instanceof Room) {
+            Room room = (Room) resource;
+            if (room.getId() != 0) {
+                return locate(key, room.getId());
+            }
+            return (room.getBuilding() == null) ? 0 : shardOf(Sharded.Key.BUILDING, room.getBuilding());
+        }
+        if (resource instanceof RoomStatus) {
+            RoomStatus status = (RoomStatus) resource;
+            if (status.getId() != 0) {
+                return locate(key, status.getId());
+            }
+            return (status.getRoom() == null) ? 0 : shardOf(Sharded.Key.ROOM, status.getRoom());
+        }
+        return 0;
+    }
+
+    /**
+     * place method: Picks the shard for a new campus.
+     *
+     * @param name name of the campus
+     * @return the shard
+     */
+    public int place(String name) {
+        return (name == null) ? 0 : Math.floorMod(name.hashCode(), shardCount);
+    }
+
+    private int locate(Sharded.Key key, int id) {
+        Integer shard = located.get(key).get(id);
+        if (shard != null) {
+            return shard;
+        }
+
+        CrudRepository<?, Integer> repository = repositories.get(key);
+        for (int i = 0; i < shardCount; i++) {
+            if (Shard.on(i, () -> repository.existsById(id))) {
+                located.get(key).put(id, i);
+                return i;
+            }
+        }
+        // the service method reports the missing resource itself
+        return 0;
+    }
+}
@@ -0,0 +1,52 @@
+package com.revature.rms.campus.config;
+
+import com.revature.rms.campus.services.Shard;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sends connections to the shard the current thread is bound to (see Shard), and to shard 0 when it is bound to
+ * none. Like ReplicaRoutingDataSource it sits behind a LazyConnectionDataSourceProxy, so the shard is only
+ * looked up when the transaction runs its first statement. Owns the shard pools and closes them on shutdown.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private final List<? extends DataSource> shards;
+
+    public ShardRoutingDataSource(List<? extends DataSource> shards) {
+        Map<Object, Object> targets = new HashMap<>();
+        for (int i = 0; i < shards.size(); i++) {
+            targets.put(i, shards.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(shards.get(0));
+        this.shards = shards;
+    }
+
+    public int getShardCount() {
+        return shards.size();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Integer shard = Shard.current();
+        if (shard != null && (shard < 0 || shard >= shards.size())) {
+            throw new IllegalStateException("There is no shard " + shard + ", only " + shards.size());
+        }
+        return (shard == null) ? 0 : shard;
+    }
+
+    @Override
+    public void close() {
+        for (DataSource shard : shards) {
+            if (shard instanceof HikariDataSource) {
+                ((HikariDataSource) shard).close();
+            }
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.revature.rms.campus.config;
+
+import com.revature.rms.campus.repositories.BuildingRepository;
+import com.revature.rms.campus.repositories.CampusRepository;
+import com.revature.rms.campus.repositories.RoomRepository;
+import com.revature.rms.campus.repositories.RoomStatusRepository;
+import com.revature.rms.campus.services.Sharded;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Splits the data by campus over the datasources listed under rms.datasource.shards, once at least one is
+ * configured (the local-shards profile runs two on H2). Each campus, with its buildings, rooms, amenities and
+ * statuses, lives on one shard; ShardAspect sends the service calls for a campus to its shard and runs the
+ * listings on every shard. Without rms.datasource.shards none of this is created and Spring Boot's single
+ * datasource is used as before. Cannot be combined with a read replica (DataSourceRoutingConfig).
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "rms.datasource", name = "shards[0].jdbc-url")
+public class ShardingConfig {
+
+    /**
+     * Ids handed out by each shard's sequences, so that ids are unique across shards. Ids are ints, so there
+     * can be up to 21 shards.
+     */
+    static final long ID_BLOCK = 100_000_000;
+
+    /**
+     * First id of every sequence, as mapped on the entities.
+     */
+    private static final long INITIAL_ID = 1000;
+
+    private static final List<String> SEQUENCES = Arrays.asList("resource_seq", "address_seq", "amenity_seq",
+            "room_status_seq", "user_seq");
+
+    @Bean
+    public ShardRoutingDataSource shardRoutingDataSource(Environment environment, ObjectProvider<MeterRegistry> meterRegistry) {
+        List<HikariConfig> configs = Binder.get(environment)
+                .bind("rms.datasource.shards", Bindable.listOf(HikariConfig.class)).get();
+        if (configs.size() * ID_BLOCK > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Ids are ints, so there can be at most " + Integer.MAX_VALUE / ID_BLOCK + " shards");
+        }
+
+        List<HikariDataSource> shards = new ArrayList<>(configs.size());
+        for (int i = 0; i < configs.size(); i++) {
+            HikariConfig config = configs.get(i);
+            if (config.getPoolName() == null) {
+                config.setPoolName("shard-" + i);
+            }
+            // the pools are not beans, so their hikaricp.* meters are bound here
+            MeterRegistry registry = meterRegistry.getIfAvailable();
+            if (registry != null) {
+                config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+            }
+            HikariDataSource shard = new HikariDataSource(config);
+            initialize(shard, i);
+            shards.add(shard);
+        }
+        return new ShardRoutingDataSource(shards);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardRoutingDataSource shardRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(shardRoutingDataSource);
+    }
+
+    @Bean
+    public ShardDirectory shardDirectory(ShardRoutingDataSource shardRoutingDataSource,
+                                         CampusRepository campusRepository, BuildingRepository buildingRepository,
+                                         RoomRepository roomRepository, RoomStatusRepository roomStatusRepository) {
+        Map<Sharded.Key, CrudRepository<?, Integer>> repositories = new EnumMap<>(Sharded.Key.class);
+        repositories.put(Sharded.Key.CAMPUS, campusRepository);
+        repositories.put(Sharded.Key.BUILDING, buildingRepository);
+        repositories.put(Sharded.Key.ROOM, roomRepository);
+        repositories.put(Sharded.Key.ROOM_STATUS, roomStatusRepository);
+        return new ShardDirectory(shardRoutingDataSource.getShardCount(), repositories);
+    }
+
+    /**
+     * Turns the query cache off whatever the profile sets. Cached query results do not say which shard they came
+     * from, so a listing cached on one shard would be served on another. Entities stay cached, since their ids are
+     * unique across shards.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer shardedQueryCache() {
+        return properties -> properties.put(AvailableSettings.USE_QUERY_CACHE, "false");
+    }
+
+    /**
+     * Creates the schema on an empty shard from the prebuilt db/schema.sql (H2 syntax, see application-seed.yml)
+     * and moves its sequences into the shard's block of ids. A shard that already has tables is left alone.
+     */
+    static void initialize(DataSource shard, int index) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(shard);
+        Integer tables = jdbcTemplate.queryForObject(
+                "select count(*) from information_schema.tables where lower(table_name) = 'campus'", Integer.class);
+        if (tables != null && tables > 0) {
+            return;
+        }
+
+        new ResourceDatabasePopulator(new ClassPathResource("db/schema.sql")).execute(shard);
+        for (String sequence : SEQUENCES) {
+            jdbcTemplate.execute("alter sequence " + sequence + " restart with " + (index * ID_BLOCK + INITIAL_ID));
+        }
+    }
+}
@@ -4,9 +4,16 @@ package com.revature.rms.campus.controllers;
 import com.revature.rms.campus.entities.Building;
 import com.revature.rms.core.exceptions.*;
 import com.revature.rms.campus.services.BuildingService;
+import com.revature.rms.campus.DTO.BuildingDTO;
+import com.revature.rms.campus.DTO.KeysetPage;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Optional;
@@ -17,9 +24,12 @@ public class BuildingController {
 
     private BuildingService buildingService;
 
+    private ObjectMapper objectMapper;
+
     @Autowired
-    public BuildingController(BuildingService buildingService) {
+    public BuildingController(BuildingService buildingService, ObjectMapper objectMapper) {
         this.buildingService = buildingService;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -42,13 +52,39 @@ public class BuildingController {
     }
 
     /**
-     * getAllBuildings method: Returns a list of all the building objects in the database.
+     * getAllBuildings method: Returns a list of all the buildings in the database, read straight into DTOs.
+     * Declares no produces, so it stays the match for Accept: */* and for requests without an Accept header.
      *
      * @return a list of buildings
      */
-    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
-    public List<Building> getAllBuildings() {
-        return buildingService.findAll();
+    @GetMapping
+    public List<BuildingDTO> getAllBuildings() {
+        return buildingService.findAllAsDTO();
+    }
+
+    /**
+     * streamAllBuildings method: Streams every building as newline-delimited JSON, one building per line, for bulk
+     * syncs. Selected with an Accept: application/x-ndjson header. The buildings are written while they are
+     * read, so memory stays flat and the first line goes out right away, whatever the number of buildings.
+     *
+     * @return a streaming response of every building
+     */
+    @GetMapping(produces = NdJson.MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> streamAllBuildings() {
+        return NdJson.<Building>response(objectMapper, buildingService::streamAll);
+    }
+
+    /**
+     * getBuildingPage method: Returns one page of buildings ordered by id. Pass the nextCursor of the previous
+     * page as the after parameter to fetch the following page.
+     *
+     * @param after id of the last building on the previous page, 0 for the first page
+     * @param limit number of buildings on the page
+     * @return a page of buildings with the cursor for the next page
+     */
+    @GetMapping(params = "limit", produces = MediaType.APPLICATION_JSON_VALUE)
+    public KeysetPage<Building> getBuildingPage(@RequestParam(defaultValue = "0") int after, @RequestParam int limit) {
+        return buildingService.findPage(after, limit);
     }
 
     /**
@@ -101,16 +137,46 @@ public class BuildingController {
 
     }
 
+    /**
+     * getActiveBuildingByOwnerId method: Retrieves a list of Building owned by a specific app user,
+     * filtered by their currentlyActive flag
+     *
+     * @param id ID of the app user
+     * @param active true for active buildings, false for deactivated ones
+     * @return List of buildings
+     */
+    @GetMapping(value = "/owners/id/{id}", params = "active", produces = MediaType.APPLICATION_JSON_VALUE)
+    public List<Building> getActiveBuildingByOwnerId(@PathVariable Integer id, @RequestParam boolean active){
+
+        return buildingService.findAllBuildingsByOwnerId(id, active);
+
+    }
+
     /**
      * updateBuilding method: The building object is inputted and changes are saved.
      *
      * @param building newly updated building object
+     * @param ifMatch optional version the building must still have, e.g. "3"; a stale version is answered with 409 Conflict
      * @return updated/modified building object
      */
 
     @PutMapping(consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
-    public Building updateBuilding(@RequestBody Building building) {
-        return buildingService.update(building);
+    public Building updateBuilding(@RequestBody Building building, @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return buildingService.update(building, IfMatch.version(ifMatch));
+    }
+
+    /**
+     * patchBuilding method: Applies a JSON Merge Patch (RFC 7386) to the building with the given id. Only the fields
+     * present in the patch are changed, and a patch that changes nothing does not touch the database.
+     *
+     * @param id id of the building
+     * @param patch merge patch document, e.g. {"trainingLead": 12}
+     * @param ifMatch optional version the building must still have; a stale version is answered with 409 Conflict
+     * @return the patched building
+     */
+    @PatchMapping(value = "/id/{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE}, produces = MediaType.APPLICATION_JSON_VALUE)
+    public Building patchBuilding(@PathVariable int id, @RequestBody JsonNode patch, @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return buildingService.patch(id, patch, IfMatch.version(ifMatch));
     }
 
     /**
@@ -1,12 +1,18 @@
 package com.revature.rms.campus.controllers;
 
 import com.revature.rms.campus.entities.*;
+import com.revature.rms.campus.services.CampusImportService;
 import com.revature.rms.campus.services.CampusService;
 import com.revature.rms.core.exceptions.*;
+import com.revature.rms.campus.DTO.ImportReport;
+import com.revature.rms.campus.DTO.KeysetPage;
+import com.fasterxml.jackson.databind.JsonNode;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -15,9 +21,12 @@ public class CampusController {
 
     private CampusService campusService;
 
+    private CampusImportService campusImportService;
+
     @Autowired
-    public CampusController(CampusService campusService) {
+    public CampusController(CampusService campusService, CampusImportService campusImportService) {
         this.campusService = campusService;
+        this.campusImportService = campusImportService;
     }
 
     /**
@@ -39,6 +48,32 @@ public class CampusController {
 
     }
 
+    /**
+     * importCampuses method: Imports a JSON array of whole campus trees, with buildings nested under each campus
+     * and rooms under each building. The body is read as a stream and written in chunks, so rows written before a
+     * rejected row stay written; the report lists every rejected row by its JSON pointer.
+     *
+     * @param body the JSON array of campuses
+     * @return what was written and which rows were rejected
+     */
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ImportReport importCampuses(InputStream body) {
+        return campusImportService.importJson(body);
+    }
+
+    /**
+     * importRooms method: Imports rooms of existing buildings from CSV, one room per line under a header of
+     * building,roomNumber,maxOccupancy,batchId and optionally workOrders (ids separated by semicolons). The report
+     * lists every rejected row by its line number.
+     *
+     * @param body the CSV upload, encoded as UTF-8
+     * @return what was written and which rows were rejected
+     */
+    @PostMapping(value = "/import", consumes = "text/csv", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ImportReport importRooms(InputStream body) {
+        return campusImportService.importCsv(body);
+    }
+
     /**
      * getAllCampus method: Returns a list of all the campus objects in the database.
      *
@@ -47,6 +82,19 @@ public class CampusController {
     @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
     public List<Campus> getAllCampuses() { return campusService.findAll(); }
 
+    /**
+     * getCampusPage method: Returns one page of campuses ordered by id. Pass the nextCursor of the previous
+     * page as the after parameter to fetch the following page.
+     *
+     * @param after id of the last campus on the previous page, 0 for the first page
+     * @param limit number of campuses on the page
+     * @return a page of campuses with the cursor for the next page
+     */
+    @GetMapping(params = "limit", produces = MediaType.APPLICATION_JSON_VALUE)
+    public KeysetPage<Campus> getCampusPage(@RequestParam(defaultValue = "0") int after, @RequestParam int limit) {
+        return campusService.findPage(after, limit);
+    }
+
     /**
      * getCampusById method: Returns a campus object when the id int matches a record in the database.
      *
@@ -134,15 +182,45 @@ public class CampusController {
         return campusService.findByResourceOwnerId(id);
     }
 
+    /**
+     * getActiveByResourceOwnerId method: Retrieves list of campuses that a specific app user owns,
+     * filtered by their currentlyActive flag
+     *
+     * @param id ID of the app user
+     * @param active true for active campuses, false for deactivated ones
+     * @return List of campuses
+     */
+    @GetMapping(value = "/owners/id/{id}", params = "active", produces = MediaType.APPLICATION_JSON_VALUE)
+    public List<Campus> getActiveByResourceOwnerId(@PathVariable int id, @RequestParam boolean active){
+        return campusService.findByResourceOwnerId(id, active);
+    }
+
 
     /**
      * updateCampus method: The campus object is inputted and changes are saved.
      *
      * @param campus newly updated campus object
+     * @param ifMatch optional version the campus must still have, e.g. "3"; a stale version is answered with 409 Conflict
      * @return updated/modified campus object
      */
     @PutMapping(consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
-    public Campus updateCampus(@RequestBody Campus campus) { return campusService.update(campus); }
+    public Campus updateCampus(@RequestBody Campus campus, @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return campusService.update(campus, IfMatch.version(ifMatch));
+    }
+
+    /**
+     * patchCampus method: Applies a JSON Merge Patch (RFC 7386) to the campus with the given id. Only the fields
+     * present in the patch are changed, and a patch that changes nothing does not touch the database.
+     *
+     * @param id id of the campus
+     * @param patch merge patch document, e.g. {"abbrName": "USF"}
+     * @param ifMatch optional version the campus must still have; a stale version is answered with 409 Conflict
+     * @return the patched campus
+     */
+    @PatchMapping(value = "/id/{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE}, produces = MediaType.APPLICATION_JSON_VALUE)
+    public Campus patchCampus(@PathVariable int id, @RequestBody JsonNode patch, @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return campusService.patch(id, patch, IfMatch.version(ifMatch));
+    }
 
 
     /**
@@ -0,0 +1,46 @@
+package com.revature.rms.campus.controllers;
+
+import com.revature.rms.campus.DTO.KeysetPage;
+import com.revature.rms.campus.entities.OutboxEvent;
+import com.revature.rms.campus.services.ChangeFeedService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/campuses/changes") // service name/controller name
+public class ChangeFeedController {
+
+    private ChangeFeedService changeFeedService;
+
+    @Autowired
+    public ChangeFeedController(ChangeFeedService changeFeedService) {
+        this.changeFeedService = changeFeedService;
+    }
+
+    /**
+     * getChanges method: Returns the changes made to campuses, buildings and rooms after the given position, oldest
+     * first. Each event names the resource, its id and whether it was created, updated or deactivated. Pass the
+     * nextCursor of the previous page as the after parameter to fetch the following page; once nextCursor is null
+     * the consumer has caught up and resumes later from the position of the last event it saw.
+     *
+     * @param after position of the last event the consumer has seen, 0 to start at the beginning
+     * @param limit number of events on the page
+     * @return a page of events with the cursor for the next page
+     */
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public KeysetPage<OutboxEvent> getChanges(@RequestParam(defaultValue = "0") int after, @RequestParam(defaultValue = "100") int limit) {
+        return changeFeedService.findChanges(after, limit);
+    }
+
+    /**
+     * getHead method: Returns the position of the newest change. A new consumer notes it, reads the lists once,
+     * and then follows the changes from that position.
+     *
+     * @return the position of the newest change, 0 when there is none
+     */
+    @GetMapping(value = "/head", produces = MediaType.APPLICATION_JSON_VALUE)
+    public int getHead() {
+        return changeFeedService.findHead();
+    }
+}
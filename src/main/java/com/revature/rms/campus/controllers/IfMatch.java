@@ -0,0 +1,35 @@
+package com.revature.rms.campus.controllers;
+
+import com.revature.rms.core.exceptions.InvalidRequestException;
+
+/**
+ * Reads the expected version out of an If-Match header. The version of a resource is its "version" field,
+ * so a client sends back what it last read, e.g. If-Match: "3" (weak and unquoted forms are accepted too).
+ */
+final class IfMatch {
+
+    private IfMatch() {
+    }
+
+    /**
+     * version method: Parses an If-Match header value.
+     *
+     * @param header the header value, may be null
+     * @return the expected version, or null when the header is absent or "*" and the update is unconditional
+     */
+    static Long version(String header) {
+        if (header == null || header.trim().isEmpty() || header.trim().equals("*")) {
+            return null;
+        }
+        String tag = header.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        tag = tag.replace("\"", "");
+        try {
+            return Long.parseLong(tag);
+        } catch (NumberFormatException e) {
+            throw new InvalidRequestException("If-Match must hold the version of the resource!");
+        }
+    }
+}
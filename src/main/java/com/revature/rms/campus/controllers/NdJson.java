@@ -0,0 +1,63 @@
+package com.revature.rms.campus.controllers;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.revature.rms.campus.services.ActiveFilter;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Writes newline-delimited JSON (one object per line) as the rows are produced, for the export endpoints.
+ * The response is written from the MVC async executor, and the output is flushed after every chunk so the
+ * client receives the first rows while the rest are still being read.
+ */
+final class NdJson {
+
+    static final String MEDIA_TYPE = "application/x-ndjson";
+
+    private NdJson() {
+    }
+
+    /**
+     * response method: Builds a streaming NDJSON response.
+     *
+     * @param objectMapper mapper used to serialize each row
+     * @param source hands every chunk of rows to the given sink, e.g. roomService::streamAll
+     * @param <T> the type of the rows
+     * @return the streaming response
+     */
+    static <T> ResponseEntity<StreamingResponseBody> response(ObjectMapper objectMapper, Consumer<Consumer<List<T>>> source) {
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        // the body runs on another thread, which must see inactive resources only if the request asked for them
+        boolean includeInactive = ActiveFilter.isIncludingInactive();
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                ActiveFilter.includingInactive(includeInactive, () -> {
+                    source.accept(chunk -> {
+                        try {
+                            for (T row : chunk) {
+                                writer.writeValue(generator, row);
+                                generator.writeRaw('\n');
+                            }
+                            generator.flush();
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                    return null;
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(MEDIA_TYPE)).body(body);
+    }
+}
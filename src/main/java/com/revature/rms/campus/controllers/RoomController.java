@@ -1,25 +1,43 @@
 package com.revature.rms.campus.controllers;
 
 import com.revature.rms.campus.entities.Room;
+import com.revature.rms.campus.entities.RoomStatus;
+import com.revature.rms.campus.entities.RoomStatusDailySummary;
 import com.revature.rms.core.exceptions.*;
 import com.revature.rms.campus.services.RoomService;
+import com.revature.rms.campus.DTO.KeysetPage;
+import com.revature.rms.campus.DTO.RoomDTO;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.Instant;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @RestController
 @RequestMapping("/campuses/rooms") // service name/controller name
 public class RoomController {
 
+    static final String PARQUET_MEDIA_TYPE = "application/vnd.apache.parquet";
+
     private RoomService roomService;
 
+    private ObjectMapper objectMapper;
+
     @Autowired
-    public RoomController(RoomService roomService) {
+    public RoomController(RoomService roomService, ObjectMapper objectMapper) {
         this.roomService = roomService;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -42,12 +60,38 @@ public class RoomController {
     }
 
     /**
-     * getAllRooms method: Returns a list of all the room objects in the database.
+     * getAllRooms method: Returns a list of all the rooms in the database, read straight into DTOs. Declares no
+     * produces, so it stays the match for Accept: */* and for requests without an Accept header.
      *
      * @return a list of all the rooms
      */
-    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
-    public List<Room> getAllRooms() { return roomService.findAll(); }
+    @GetMapping
+    public List<RoomDTO> getAllRooms() { return roomService.findAllAsDTO(); }
+
+    /**
+     * streamAllRooms method: Streams every room as newline-delimited JSON, one room per line, for bulk
+     * syncs. Selected with an Accept: application/x-ndjson header. The rooms are written while they are
+     * read, so memory stays flat and the first line goes out right away, whatever the number of rooms.
+     *
+     * @return a streaming response of every room
+     */
+    @GetMapping(produces = NdJson.MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> streamAllRooms() {
+        return NdJson.<Room>response(objectMapper, roomService::streamAll);
+    }
+
+    /**
+     * getRoomPage method: Returns one page of rooms ordered by id. Pass the nextCursor of the previous
+     * page as the after parameter to fetch the following page.
+     *
+     * @param after id of the last room on the previous page, 0 for the first page
+     * @param limit number of rooms on the page
+     * @return a page of rooms with the cursor for the next page
+     */
+    @GetMapping(params = "limit", produces = MediaType.APPLICATION_JSON_VALUE)
+    public KeysetPage<Room> getRoomPage(@RequestParam(defaultValue = "0") int after, @RequestParam int limit) {
+        return roomService.findPage(after, limit);
+    }
 
 
     /**
@@ -77,6 +121,122 @@ public class RoomController {
 
     }
 
+    /**
+     * getRoomStatusHistory method: Pages through the status history of a room, newest first.
+     * Pass the nextCursor of the previous page as the before parameter to fetch older statuses.
+     *
+     * @param id roomId int value
+     * @param before id of the oldest status on the previous page, omitted for the newest page
+     * @param limit number of statuses on the page
+     * @return a page of room statuses with the cursor for the next page
+     */
+    @GetMapping(value = "/id/{id}/statuses", produces = MediaType.APPLICATION_JSON_VALUE)
+    public KeysetPage<RoomStatus> getRoomStatusHistory(@PathVariable int id, @RequestParam(required = false) Integer before,
+                                                       @RequestParam(defaultValue = "20") int limit) {
+
+        if(id <= 0){
+
+            throw new InvalidRequestException("ID cannot be less than or equal to zero!");
+
+        }
+
+        return roomService.findStatusHistory(id, before, limit);
+
+    }
+
+    /**
+     * getRoomDailySummaries method: Returns the daily status summaries of an archived room history between two
+     * days, both inclusive. Both parameters are ISO-8601 dates, e.g. 2020-06-10.
+     *
+     * @param id roomId int value
+     * @param from first day, inclusive
+     * @param to last day, inclusive
+     * @return a list of daily summaries
+     */
+    @GetMapping(value = "/id/{id}/statuses/daily", produces = MediaType.APPLICATION_JSON_VALUE)
+    public List<RoomStatusDailySummary> getRoomDailySummaries(@PathVariable int id,
+                                                              @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                              @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return roomService.findDailySummaries(id, from, to);
+    }
+
+    /**
+     * getRoomStatusesByDateRange method: Returns every room status submitted between two instants,
+     * oldest first. Both parameters are ISO-8601 date-times, e.g. 2020-06-10T00:00:00Z. Declares no produces, so
+     * it stays the match for Accept: */* and for requests without an Accept header.
+     *
+     * @param from start of the range, inclusive
+     * @param to end of the range, exclusive
+     * @return a list of room statuses
+     */
+    @GetMapping("/statuses")
+    public List<RoomStatus> getRoomStatusesByDateRange(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+                                                       @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to) {
+        return roomService.findAllStatusByDateRange(from, to);
+    }
+
+    /**
+     * exportRoomStatuses method: Downloads the whole room status history, archived and live, as one Parquet
+     * file with a column per field (status, room, building and campus ids, submittedAt, the two checks and the
+     * submitter). Selected with an Accept: application/vnd.apache.parquet header. The file is written while the
+     * statuses are read, so the download starts right away and memory stays flat.
+     *
+     * @return a streaming response of the Parquet file
+     */
+    @GetMapping(value = "/statuses", produces = PARQUET_MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> exportRoomStatuses() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(PARQUET_MEDIA_TYPE))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"room-statuses.parquet\"")
+                .body(roomService::exportStatuses);
+    }
+
+    /**
+     * getRoomsByBatch method: Returns the rooms assigned to a training batch.
+     *
+     * @param batchId id of the batch
+     * @return List of rooms
+     */
+    @GetMapping(value = "/batches/id/{batchId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public List<Room> getRoomsByBatch(@PathVariable int batchId) {
+        return roomService.findByBatchId(batchId);
+    }
+
+    /**
+     * getRoomIdsByBatches method: Maps many batches to the ids of their rooms in one call, e.g.
+     * /batches?ids=1,2,3 returns {"1": [4, 7], "3": [9]}. Batches without rooms are left out.
+     *
+     * @param ids ids of the batches, at most 500
+     * @return the room ids of each batch, keyed by batch id
+     */
+    @GetMapping(value = "/batches", params = "ids", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Map<Integer, List<Integer>> getRoomIdsByBatches(@RequestParam List<Integer> ids) {
+        return roomService.findRoomIdsByBatchIds(ids);
+    }
+
+    /**
+     * getRoomsByWorkOrder method: Returns the rooms that list a work order.
+     *
+     * @param workOrder id of the work order
+     * @return List of rooms
+     */
+    @GetMapping(value = "/work-orders/id/{workOrder}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public List<Room> getRoomsByWorkOrder(@PathVariable int workOrder) {
+        return roomService.findByWorkOrder(workOrder);
+    }
+
+    /**
+     * getRoomIdsByWorkOrders method: Maps many work orders to the ids of the rooms that list them in one call,
+     * e.g. /work-orders?ids=1,2 returns {"1": [4], "2": [4]}. Unknown work orders are left out.
+     *
+     * @param ids ids of the work orders, at most 500
+     * @return the room ids of each work order, keyed by work order id
+     */
+    @GetMapping(value = "/work-orders", params = "ids", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Map<Integer, List<Integer>> getRoomIdsByWorkOrders(@RequestParam List<Integer> ids) {
+        return roomService.findRoomIdsByWorkOrders(ids);
+    }
+
     /**
      * getRoomByOwner method: gets a list of rooms owned by a person
      *
@@ -89,19 +249,51 @@ public class RoomController {
         return roomService.findByResourceOwner(id);
     }
 
+    /**
+     * getActiveRoomByOwnerId method: gets a list of rooms owned by a person, filtered by their
+     * currentlyActive flag
+     *
+     * @param id ID of the owner
+     * @param active true for active rooms, false for deactivated ones
+     * @return List of rooms
+     */
+    @GetMapping(value = "/owners/id/{id}", params = "active", produces = MediaType.APPLICATION_JSON_VALUE)
+    public List<Room> getActiveRoomByOwnerId(@PathVariable int id, @RequestParam boolean active){
+        return roomService.findByResourceOwner(id, active);
+    }
+
 
     /**
      * updateRoom method: The room object is inputted and changes are saved.
      *
      * @param room newly updated room object
+     * @param ifMatch optional version the room must still have, e.g. "3"; a stale version is answered with 409 Conflict
      * @return updated/modified room object
      */
 
     @PutMapping(consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
-    public Room updateRoom(@RequestBody Room room) { return roomService.update(room); }
+    public Room updateRoom(@RequestBody Room room, @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return roomService.update(room, IfMatch.version(ifMatch));
+    }
+
+    /**
+     * patchRoom method: Applies a JSON Merge Patch (RFC 7386) to the room with the given id. Only the fields
+     * present in the patch are changed, and a patch that changes nothing does not touch the database.
+     *
+     * @param id id of the room
+     * @param patch merge patch document, e.g. {"maxOccupancy": 30}
+     * @param ifMatch optional version the room must still have; a stale version is answered with 409 Conflict
+     * @return the patched room
+     */
+    @PatchMapping(value = "/id/{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE}, produces = MediaType.APPLICATION_JSON_VALUE)
+    public Room patchRoom(@PathVariable int id, @RequestBody JsonNode patch, @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return roomService.patch(id, patch, IfMatch.version(ifMatch));
+    }
 
     @PutMapping(value = "/room-number", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
-    public Room updateRoomNumber(@RequestBody Room room) { return roomService.updateRoomNumber(room); }
+    public Room updateRoomNumber(@RequestBody Room room, @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return roomService.updateRoomNumber(room, IfMatch.version(ifMatch));
+    }
 
     /**
      * deleteRoomById method: The room object is deleted based on its roomId int
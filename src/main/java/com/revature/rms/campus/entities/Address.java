@@ -2,22 +2,34 @@ package com.revature.rms.campus.entities;
 
 //import lombok.AllArgsConstructor;
 //import lombok.NoArgsConstructor;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 //import org.springframework.data.mongodb.core.mapping.Document;
 
 import javax.persistence.*;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Locale;
+
 //@Document
 //commentted out bc mangodb
 //@NoArgsConstructor
 //@AllArgsConstructor
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_address_content_hash", columnNames = "content_hash"))
 @Data
 public class Address {
 
     @Id
     @Column
-    @GeneratedValue(strategy= GenerationType.IDENTITY)
+    @GeneratedValue(strategy= GenerationType.SEQUENCE, generator = "address_seq")
+    @SequenceGenerator(name = "address_seq", sequenceName = "address_seq", initialValue = 1000, allocationSize = 50)
     private int id;
 
     @Column(nullable=false)
@@ -35,6 +47,14 @@ public class Address {
     @Column(nullable=false)
     private String country;
 
+    /**
+     * Hex SHA-256 of the normalized fields, compared without case. Addresses are canonical: identical
+     * addresses share one row, which AddressService finds by this hash, so campuses and buildings never
+     * change an address in place but point at another one.
+     */
+    @JsonIgnore
+    @Column(name = "content_hash", nullable = false, length = 64)
+    private String contentHash;
 
     public Address() {
     }
@@ -55,6 +75,42 @@ public class Address {
         this.country = country;
     }
 
+    /**
+     * canonicalize method: Trims the fields and collapses runs of whitespace inside them, then derives the
+     * content hash from the result. Runs before every insert.
+     */
+    @PrePersist
+    public void canonicalize() {
+        unitStreet = normalize(unitStreet);
+        city = normalize(city);
+        state = normalize(state);
+        zip = normalize(zip);
+        country = normalize(country);
+        contentHash = hash(unitStreet, city, state, zip, country);
+    }
+
+    private static String normalize(String value) {
+        return (value == null) ? null : value.trim().replaceAll("\\s+", " ");
+    }
+
+    private static String hash(String... fields) {
+        StringBuilder key = new StringBuilder();
+        for (String field : fields) {
+            // the unit separator cannot occur in a field, so different splits of the same text never collide
+            key.append((field == null) ? "" : field.toUpperCase(Locale.ROOT)).append('\u001F');
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.toString().getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
     @Override
     public String toString() {
         return "Address{" +
@@ -3,6 +3,8 @@ package com.revature.rms.campus.entities;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 //import org.springframework.data.mongodb.core.mapping.Document;
 
 import javax.persistence.*;
@@ -11,12 +13,16 @@ import javax.persistence.*;
 //commentted out bc mangodb
 //@NoArgsConstructor
 //@AllArgsConstructor
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Entity
+@Table(indexes = @Index(name = "idx_amenity_building", columnList = "building_id"))
 @Data
 public class Amenity {
 
     @Id
-    @GeneratedValue(strategy= GenerationType.IDENTITY)
+    @GeneratedValue(strategy= GenerationType.SEQUENCE, generator = "amenity_seq")
+    @SequenceGenerator(name = "amenity_seq", sequenceName = "amenity_seq", initialValue = 1000, allocationSize = 50)
     private int id;
     
     @Enumerated(EnumType.STRING)
@@ -25,7 +31,7 @@ public class Amenity {
     @Enumerated(EnumType.STRING)
     private AmenityStatus status;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn
     @JsonIgnore
     private Building building;
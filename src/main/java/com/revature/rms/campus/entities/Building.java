@@ -4,6 +4,13 @@ package com.revature.rms.campus.entities;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 import com.revature.rms.core.metadata.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.Filter;
+import org.hibernate.annotations.FetchMode;
 
 import javax.persistence.*;
 import java.util.List;
@@ -24,7 +31,19 @@ import java.util.List;
  * Lastly, we have a constructor containing every field except for the id.
  */
 
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Entity
+@DynamicUpdate
+@NamedEntityGraph(name = "Building.detail", attributeNodes = @NamedAttributeNode("physicalAddress"))
+@Table(indexes = {
+        @Index(name = "idx_building_owner_active", columnList = "resource_owner, currently_active"),
+        @Index(name = "idx_building_active", columnList = "currently_active, id"),
+        @Index(name = "idx_building_training_lead", columnList = "training_lead"),
+        @Index(name = "idx_building_campus", columnList = "campus_id"),
+        @Index(name = "idx_building_physical_address", columnList = "physical_address_id")
+})
+@Filter(name = "activeOnly")
 @Data
 public class Building extends Resource{
 
@@ -34,7 +53,7 @@ public class Building extends Resource{
     @Column(nullable=false) //covert h2
     private String abbrName;
 
-    @OneToOne
+    @ManyToOne
     @JoinColumn(nullable=false) //covert h2
     private Address physicalAddress;
 
@@ -42,15 +61,28 @@ public class Building extends Resource{
     private int trainingLead;
 
     @OneToMany(mappedBy = "building")
+    @Fetch(FetchMode.SUBSELECT)
+    @BatchSize(size = 100)
     private List<Amenity> amenities;
 
     @OneToMany(mappedBy = "building")
+    @Fetch(FetchMode.SUBSELECT)
+    @BatchSize(size = 100)
+    @Filter(name = "activeOnly")
     private List<Room> rooms;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JsonIgnore
     private Campus campus;
 
+    /**
+     * Optimistic lock version, incremented by every update. Passing it back in an If-Match header makes an update
+     * conditional on nobody else having changed the building in between.
+     */
+    @Version
+    @Column(nullable = false)
+    private long version;
+
 
     public Building() {
     }
@@ -2,6 +2,14 @@ package com.revature.rms.campus.entities;
 
 import lombok.Data;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.Filter;
+import org.hibernate.annotations.FetchMode;
+import org.hibernate.annotations.Type;
+
 import com.revature.rms.core.metadata.*;
 
 import javax.persistence.*;
@@ -15,8 +23,20 @@ import java.util.List;
  *
  * Lastly, we have a constructor containing every field except for the id.
  */
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Data
 @Entity
+@DynamicUpdate
+@NamedEntityGraph(name = "Campus.detail", attributeNodes = @NamedAttributeNode("shippingAddress"))
+@Table(indexes = {
+        @Index(name = "idx_campus_owner_active", columnList = "resource_owner, currently_active"),
+        @Index(name = "idx_campus_active", columnList = "currently_active, id"),
+        @Index(name = "idx_campus_training_manager", columnList = "training_manager_id"),
+        @Index(name = "idx_campus_staging_manager", columnList = "staging_manager_id"),
+        @Index(name = "idx_campus_shipping_address", columnList = "shipping_address_id")
+})
+@Filter(name = "activeOnly")
 public class Campus extends Resource{
 
     @Column(nullable=false,unique=true)
@@ -25,7 +45,7 @@ public class Campus extends Resource{
     @Column(nullable=false)
     private String abbrName;
 
-    @OneToOne
+    @ManyToOne
     @JoinColumn(nullable=false)
     private Address shippingAddress;
 
@@ -39,10 +59,25 @@ public class Campus extends Resource{
     private int hrLead;
 
     @OneToMany(mappedBy = "campus")
+    @Fetch(FetchMode.SUBSELECT)
+    @Filter(name = "activeOnly")
     private List<Building> buildings;
 
-    @ElementCollection
-    private List<Integer> corporateEmployees;
+    /**
+     * Ids of the campus's corporate employees, packed into one binary column with the campus row (see
+     * PackedIntListType), so they are cached with the campus entity itself.
+     */
+    @Type(type = "com.revature.rms.campus.entities.PackedIntListType")
+    @Column(length = PackedIntListType.MAX_BYTES)
+    private IntList corporateEmployees;
+
+    /**
+     * Optimistic lock version, incremented by every update. Passing it back in an If-Match header makes an update
+     * conditional on nobody else having changed the campus in between.
+     */
+    @Version
+    @Column(nullable = false)
+    private long version;
 
     public Campus() {
     }
@@ -56,7 +91,7 @@ public class Campus extends Resource{
         this.stagingManagerId = stagingManagerId;
         this.hrLead = hrLead;
         this.buildings = buildings;
-        this.corporateEmployees = corporateEmployees;
+        this.corporateEmployees = IntList.copyOf(corporateEmployees);
     }
 
     public Campus(int id, String name, String abbrName, Address shippingAddress, int trainingManagerId, int stagingManagerId, int hrLead, List<Integer> corporateEmployees) {
@@ -67,7 +102,7 @@ public class Campus extends Resource{
         this.trainingManagerId = trainingManagerId;
         this.stagingManagerId = stagingManagerId;
         this.hrLead = hrLead;
-        this.corporateEmployees = corporateEmployees;
+        this.corporateEmployees = IntList.copyOf(corporateEmployees);
     }
 
     public Campus(int id, String name, String abbrName, Address shippingAddress, int trainingManagerId, int stagingManagerId, int hrLead, List<Integer> corporateEmployees, ResourceMetadata resourceMetadata) {
@@ -78,7 +113,7 @@ public class Campus extends Resource{
         this.trainingManagerId = trainingManagerId;
         this.stagingManagerId = stagingManagerId;
         this.hrLead = hrLead;
-        this.corporateEmployees = corporateEmployees;
+        this.corporateEmployees = IntList.copyOf(corporateEmployees);
         this.resourceMetadata = resourceMetadata;
     }
 
@@ -106,6 +141,14 @@ public class Campus extends Resource{
         this.shippingAddress = shippingAddress;
     }
 
+    public IntList getCorporateEmployees() {
+        return corporateEmployees;
+    }
+
+    public void setCorporateEmployees(List<Integer> corporateEmployees) {
+        this.corporateEmployees = IntList.copyOf(corporateEmployees);
+    }
+
     @Override
     public String toString() {
         return "Campus{" +
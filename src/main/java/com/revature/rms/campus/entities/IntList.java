@@ -0,0 +1,182 @@
+package com.revature.rms.campus.entities;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * A growable list of ints backed by a primitive int[]. It is a List&lt;Integer&gt;, so it serializes to a JSON array
+ * and works wherever a list of ids is expected, but getInt, addInt and toIntArray read and write the elements
+ * without boxing. Used for the id lists that are stored packed in a single column (see PackedIntListType).
+ * Null elements are not allowed.
+ */
+public final class IntList extends AbstractList<Integer> implements RandomAccess, Serializable {
+
+    private static final int[] EMPTY = new int[0];
+
+    private int[] elements;
+
+    private int size;
+
+    public IntList() {
+        this.elements = EMPTY;
+    }
+
+    public IntList(int capacity) {
+        this.elements = new int[capacity];
+    }
+
+    private IntList(int[] elements) {
+        this.elements = elements;
+        this.size = elements.length;
+    }
+
+    /**
+     * of method: Builds a list holding the given values.
+     *
+     * @param values the values
+     * @return a new list of the values
+     */
+    public static IntList of(int... values) {
+        return new IntList(values.clone());
+    }
+
+    /**
+     * copyOf method: Copies any list of ids into an IntList.
+     *
+     * @param values the ids, without nulls
+     * @return a new list of the ids, or null when values is null
+     */
+    public static IntList copyOf(Collection<Integer> values) {
+        if (values == null) {
+            return null;
+        }
+        if (values instanceof IntList) {
+            return new IntList(((IntList) values).toIntArray());
+        }
+
+        IntList copy = new IntList(values.size());
+        for (Integer value : values) {
+            copy.addInt(value);
+        }
+        return copy;
+    }
+
+    public int getInt(int index) {
+        checkIndex(index);
+        return elements[index];
+    }
+
+    public int setInt(int index, int value) {
+        checkIndex(index);
+        int previous = elements[index];
+        elements[index] = value;
+        return previous;
+    }
+
+    public void addInt(int value) {
+        addInt(size, value);
+    }
+
+    public void addInt(int index, int value) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        if (size == elements.length) {
+            elements = Arrays.copyOf(elements, Math.max(8, size + (size >> 1)));
+        }
+        System.arraycopy(elements, index, elements, index + 1, size - index);
+        elements[index] = value;
+        size++;
+        modCount++;
+    }
+
+    public boolean containsInt(int value) {
+        for (int i = 0; i < size; i++) {
+            if (elements[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int[] toIntArray() {
+        return Arrays.copyOf(elements, size);
+    }
+
+    @Override
+    public Integer get(int index) {
+        return getInt(index);
+    }
+
+    @Override
+    public Integer set(int index, Integer value) {
+        return setInt(index, value);
+    }
+
+    @Override
+    public void add(int index, Integer value) {
+        addInt(index, value);
+    }
+
+    @Override
+    public Integer remove(int index) {
+        checkIndex(index);
+        int removed = elements[index];
+        System.arraycopy(elements, index + 1, elements, index, size - index - 1);
+        size--;
+        modCount++;
+        return removed;
+    }
+
+    @Override
+    public boolean contains(Object value) {
+        return value instanceof Integer && containsInt((Integer) value);
+    }
+
+    @Override
+    public void clear() {
+        size = 0;
+        modCount++;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (other instanceof IntList) {
+            IntList that = (IntList) other;
+            if (size != that.size) {
+                return false;
+            }
+            for (int i = 0; i < size; i++) {
+                if (elements[i] != that.elements[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return other instanceof List && super.equals(other);
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 1;
+        for (int i = 0; i < size; i++) {
+            hash = 31 * hash + elements[i];
+        }
+        return hash;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.revature.rms.campus.entities;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Data;
+
+import javax.persistence.*;
+import java.time.Instant;
+
+/**
+ * One change to a campus, building or room. The services write it in the transaction that makes the change (a
+ * transactional outbox), so the change feed never misses a committed change nor reports a rolled back one. Events
+ * only name the resource and what happened to it; consumers read the resource itself when they need its state.
+ * Deactivating a campus or building also deactivates everything under it, without an event per resource.
+ * The position in the feed is handed out after commit by ChangeFeedService.sequence, in the order the events
+ * became visible: ids are taken before commit, and concurrent transactions can commit them out of order.
+ */
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_outbox_event_position", columnNames = "feed_position"),
+        indexes = @Index(name = "idx_outbox_event_occurred_at", columnList = "occurred_at"))
+@Data
+public class OutboxEvent {
+
+    public enum Resource { CAMPUS, BUILDING, ROOM }
+
+    public enum Action { CREATED, UPDATED, DEACTIVATED }
+
+    @Id
+    @Column
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_seq")
+    @SequenceGenerator(name = "outbox_seq", sequenceName = "outbox_seq", allocationSize = 50)
+    @JsonIgnore
+    private int id;
+
+    /**
+     * Place of the event in the change feed, null until it has been sequenced.
+     */
+    @Column(name = "feed_position")
+    private Integer position;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Resource resourceType;
+
+    @Column(nullable = false)
+    private int resourceId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Action action;
+
+    @Column(name = "occurred_at", nullable = false)
+    private Instant occurredAt;
+
+    public OutboxEvent() {
+    }
+
+    public OutboxEvent(Resource resourceType, int resourceId, Action action, Instant occurredAt) {
+        this.resourceType = resourceType;
+        this.resourceId = resourceId;
+        this.action = action;
+        this.occurredAt = occurredAt;
+    }
+}
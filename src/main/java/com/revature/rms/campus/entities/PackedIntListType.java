@@ -0,0 +1,124 @@
+package com.revature.rms.campus.entities;
+
+import org.hibernate.HibernateException;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.usertype.UserType;
+
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Hibernate type that stores an IntList in a single binary column, four big-endian bytes per id. Compared to an
+ * @ElementCollection the ids are read and written with their owner's row, with no join table, no extra query and
+ * no boxing, and a change is one column update instead of deleting and re-inserting every element. A null list is
+ * stored as SQL NULL. The column cannot be searched by id, so it suits lists that are only ever read with their
+ * owner.
+ */
+public class PackedIntListType implements UserType {
+
+    /**
+     * Column length for packed lists, room for 10000 ids.
+     */
+    public static final int MAX_BYTES = 40000;
+
+    @Override
+    public int[] sqlTypes() {
+        return new int[]{Types.VARBINARY};
+    }
+
+    @Override
+    public Class<IntList> returnedClass() {
+        return IntList.class;
+    }
+
+    @Override
+    public boolean equals(Object x, Object y) {
+        return Objects.equals(x, y);
+    }
+
+    @Override
+    public int hashCode(Object x) {
+        return Objects.hashCode(x);
+    }
+
+    @Override
+    public Object nullSafeGet(ResultSet rs, String[] names, SharedSessionContractImplementor session, Object owner) throws SQLException {
+        byte[] packed = rs.getBytes(names[0]);
+        return (packed == null) ? null : unpack(packed);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void nullSafeSet(PreparedStatement st, Object value, int index, SharedSessionContractImplementor session) throws SQLException {
+        if (value == null) {
+            st.setNull(index, Types.VARBINARY);
+        } else {
+            st.setBytes(index, pack((List<Integer>) value));
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Object deepCopy(Object value) {
+        return IntList.copyOf((List<Integer>) value);
+    }
+
+    @Override
+    public boolean isMutable() {
+        return true;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Serializable disassemble(Object value) {
+        return (value == null) ? null : pack((List<Integer>) value);
+    }
+
+    @Override
+    public Object assemble(Serializable cached, Object owner) {
+        return (cached == null) ? null : unpack((byte[]) cached);
+    }
+
+    @Override
+    public Object replace(Object original, Object target, Object owner) {
+        return deepCopy(original);
+    }
+
+    static byte[] pack(List<Integer> values) {
+        if (values.size() * Integer.BYTES > MAX_BYTES) {
+            throw new HibernateException("Cannot store more than " + MAX_BYTES / Integer.BYTES + " ids in one column");
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(values.size() * Integer.BYTES);
+        if (values instanceof IntList) {
+            IntList ints = (IntList) values;
+            for (int i = 0; i < ints.size(); i++) {
+                buffer.putInt(ints.getInt(i));
+            }
+        } else {
+            for (Integer value : values) {
+                buffer.putInt(value);
+            }
+        }
+        return buffer.array();
+    }
+
+    static IntList unpack(byte[] packed) {
+        if (packed.length % Integer.BYTES != 0) {
+            throw new HibernateException("Packed id list has " + packed.length + " bytes, which is not a whole number of ids");
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(packed);
+        IntList values = new IntList(packed.length / Integer.BYTES);
+        while (buffer.hasRemaining()) {
+            values.addInt(buffer.getInt());
+        }
+        return values;
+    }
+}
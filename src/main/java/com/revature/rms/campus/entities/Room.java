@@ -3,12 +3,26 @@ package com.revature.rms.campus.entities;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 import com.revature.rms.core.metadata.*;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.Filter;
+import org.hibernate.annotations.Type;
 
 import javax.persistence.*;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@DynamicUpdate
+@Table(indexes = {
+        @Index(name = "idx_room_owner_active", columnList = "resource_owner, currently_active"),
+        @Index(name = "idx_room_active", columnList = "currently_active, id"),
+        @Index(name = "idx_room_batch", columnList = "batch_id, id"),
+        // also serves the building_id foreign key, which is its leading column
+        @Index(name = "idx_room_building_number", columnList = "building_id, room_number"),
+        @Index(name = "idx_room_number", columnList = "room_number"),
+        @Index(name = "idx_room_max_occupancy", columnList = "max_occupancy")
+})
+@Filter(name = "activeOnly")
 @Data
 public class Room extends Resource{
 
@@ -18,26 +32,42 @@ public class Room extends Resource{
     @Column(nullable=false)
     private int maxOccupancy;
 
-    @OneToMany(fetch = FetchType.EAGER, mappedBy = "room")
+    /**
+     * The latest statuses of the room, newest first. The history grows every day, so it is not mapped as a
+     * collection; the service layer fills this in with a bounded query and pages the rest on request.
+     */
+    @Transient
     private List<RoomStatus> currentStatus;
 
     @Column(nullable=false)
     private int batchId;
 
-    @ElementCollection
-    private List<Integer> workOrders;
+    /**
+     * Ids of the room's work orders, packed into one binary column with the room row (see PackedIntListType).
+     */
+    @Type(type = "com.revature.rms.campus.entities.PackedIntListType")
+    @Column(length = PackedIntListType.MAX_BYTES)
+    private IntList workOrders;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JsonIgnore
     private Building building;
 
+    /**
+     * Optimistic lock version, incremented by every update. Passing it back in an If-Match header makes an update
+     * conditional on nobody else having changed the room in between.
+     */
+    @Version
+    @Column(nullable = false)
+    private long version;
+
     public Room() {
     }
 
     public Room(int id, String roomNumber, Integer maxOccupancy, ArrayList<RoomStatus> currentStatus, int batchId, ArrayList<Integer> workOrders) {
         this(id, roomNumber, maxOccupancy, batchId);
         this.currentStatus = currentStatus;
-        this.workOrders = workOrders;
+        this.workOrders = IntList.copyOf(workOrders);
     }
 
     public Room(int id, String roomNumber, Integer maxOccupancy, int batchId) {
@@ -91,12 +121,12 @@ public class Room extends Resource{
         this.batchId = batchId;
     }
 
-    public List<Integer> getWorkOrders() {
+    public IntList getWorkOrders() {
         return workOrders;
     }
 
     public void setWorkOrders(List<Integer> workOrders) {
-        this.workOrders = workOrders;
+        this.workOrders = IntList.copyOf(workOrders);
     }
 
     public Building getBuilding() {
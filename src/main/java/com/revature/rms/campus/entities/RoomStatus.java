@@ -8,6 +8,13 @@ import lombok.NoArgsConstructor;
 //import org.springframework.data.mongodb.core.mapping.Document;
 
 import javax.persistence.*;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
 
 
 //@Document
@@ -15,12 +22,25 @@ import javax.persistence.*;
 //@NoArgsConstructor
 //@AllArgsConstructor
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_room_status_room_history", columnList = "room_id, id"),
+        @Index(name = "idx_room_status_submitted_at", columnList = "submitted_at"),
+        @Index(name = "idx_room_status_submitter", columnList = "submitter_id"),
+        @Index(name = "idx_room_status_submitted_date_time", columnList = "submitted_date_time")
+})
 @Data
 public class RoomStatus {
 
+    private static final DateTimeFormatter[] LEGACY_DATE_FORMATS = {
+            DateTimeFormatter.ISO_LOCAL_DATE,
+            DateTimeFormatter.ofPattern("M/d/uuuu", Locale.US),
+            DateTimeFormatter.ofPattern("MMM d, uuuu", Locale.US)
+    };
+
     @Id
     @Column
-    @GeneratedValue(strategy= GenerationType.IDENTITY)
+    @GeneratedValue(strategy= GenerationType.SEQUENCE, generator = "room_status_seq")
+    @SequenceGenerator(name = "room_status_seq", sequenceName = "room_status_seq", initialValue = 1000, allocationSize = 50)
     private int id;
 
     @Column(nullable=false)
@@ -32,13 +52,20 @@ public class RoomStatus {
     @Column(nullable=false)
     private String submittedDateTime;
 
+    /**
+     * UTC instant the status was submitted at. Derived from submittedDateTime when not given, and
+     * backfilled for rows written before this column existed (see SubmittedAtBackfill).
+     */
+    @Column
+    private Instant submittedAt;
+
     @Column(nullable=false)
     private int submitterId;
 
     @Column(nullable=false)
     private String otherNotes;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JsonIgnore
     private Room room;
 
@@ -65,6 +92,47 @@ public class RoomStatus {
     }
 
 
+    @PrePersist
+    @PreUpdate
+    private void deriveSubmittedAt() {
+        if (submittedAt == null) {
+            submittedAt = parseSubmittedDateTime(submittedDateTime);
+        }
+    }
+
+    /**
+     * parseSubmittedDateTime Method: Converts a legacy free-form submittedDateTime String into a UTC instant.
+     * ISO-8601 instants and date-times are accepted, as well as the "MM/dd/yyyy" and "MMM d, yyyy" dates
+     * used by the existing data; dates without a time are taken as midnight UTC.
+     *
+     * @param submittedDateTime the String to convert
+     * @return the instant, or null when the String is empty or in none of the accepted formats
+     */
+    public static Instant parseSubmittedDateTime(String submittedDateTime) {
+        if (submittedDateTime == null || submittedDateTime.trim().isEmpty()) {
+            return null;
+        }
+        String value = submittedDateTime.trim();
+        try {
+            return Instant.parse(value);
+        } catch (DateTimeParseException e) {
+            // not an instant, try the other formats
+        }
+        try {
+            return LocalDateTime.parse(value).toInstant(ZoneOffset.UTC);
+        } catch (DateTimeParseException e) {
+            // not a date-time, try the date formats
+        }
+        for (DateTimeFormatter format : LEGACY_DATE_FORMATS) {
+            try {
+                return LocalDate.parse(value, format).atStartOfDay(ZoneOffset.UTC).toInstant();
+            } catch (DateTimeParseException e) {
+                // try the next format
+            }
+        }
+        return null;
+    }
+
     public Room getRoom() {
         return room;
     }
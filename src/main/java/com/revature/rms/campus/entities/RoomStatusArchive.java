@@ -0,0 +1,46 @@
+package com.revature.rms.campus.entities;
+
+import lombok.Data;
+
+import javax.persistence.*;
+import java.time.Instant;
+
+/**
+ * Cold copy of a RoomStatus that is older than the archive window. Rows are moved here by
+ * RoomService.archiveStatuses so that ROOM_STATUS and its indexes only hold recent history.
+ * The id is the id the status had in ROOM_STATUS, and roomId is a plain column so archived
+ * rows never join back into the live graph.
+ */
+@Entity
+@Table(indexes = @Index(name = "idx_room_status_archive_room", columnList = "room_id, submitted_at"))
+@Data
+public class RoomStatusArchive {
+
+    @Id
+    @Column
+    private int id;
+
+    @Column(nullable=false)
+    private boolean whiteBoardCleaned;
+
+    @Column(nullable=false)
+    private boolean chairsOrdered;
+
+    @Column(nullable=false)
+    private String submittedDateTime;
+
+    @Column
+    private Instant submittedAt;
+
+    @Column(nullable=false)
+    private int submitterId;
+
+    @Column(nullable=false)
+    private String otherNotes;
+
+    @Column(name = "room_id", nullable=false)
+    private int roomId;
+
+    public RoomStatusArchive() {
+    }
+}
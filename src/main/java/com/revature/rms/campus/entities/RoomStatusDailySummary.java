@@ -0,0 +1,61 @@
+package com.revature.rms.campus.entities;
+
+import lombok.Data;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Roll-up of the statuses one submitter filed for one room on one (UTC) day. Written by
+ * RoomService.archiveStatuses when the statuses are moved out of ROOM_STATUS, so historical
+ * reports read one compact row per room and day instead of the raw history.
+ */
+@Entity
+@IdClass(RoomStatusDailySummary.Key.class)
+@Data
+public class RoomStatusDailySummary {
+
+    @Id
+    @Column(name = "room_id")
+    private int roomId;
+
+    @Id
+    @Column(name = "summary_date")
+    private LocalDate summaryDate;
+
+    @Id
+    @Column(name = "submitter_id")
+    private int submitterId;
+
+    @Column(nullable=false)
+    private int statusCount;
+
+    @Column(nullable=false)
+    private int whiteBoardCleanedCount;
+
+    @Column(nullable=false)
+    private int chairsOrderedCount;
+
+    public RoomStatusDailySummary() {
+    }
+
+    @Data
+    public static class Key implements Serializable {
+
+        private int roomId;
+
+        private LocalDate summaryDate;
+
+        private int submitterId;
+
+        public Key() {
+        }
+
+        public Key(int roomId, LocalDate summaryDate, int submitterId) {
+            this.roomId = roomId;
+            this.summaryDate = summaryDate;
+            this.submitterId = submitterId;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.revature.rms.campus.entities;
+
+import lombok.Data;
+
+import javax.persistence.*;
+import java.io.Serializable;
+
+/**
+ * Reverse index from a work order to the room it belongs to. Room.workOrders is packed into a single column that
+ * the database cannot search, so RoomService writes one row here per work order whenever a room's work orders are
+ * set, and work order lookups are answered from this table's indexes instead of scanning every room.
+ */
+@Entity
+@IdClass(RoomWorkOrder.Key.class)
+// the primary key columns are ordered by Hibernate, so both lookup directions get an index of their own
+@Table(indexes = {
+        @Index(name = "idx_room_work_order_room", columnList = "room_id"),
+        @Index(name = "idx_room_work_order_work_order", columnList = "work_order, room_id")
+})
+@Data
+public class RoomWorkOrder {
+
+    @Id
+    @Column(name = "work_order")
+    private int workOrder;
+
+    @Id
+    @Column(name = "room_id")
+    private int roomId;
+
+    public RoomWorkOrder() {
+    }
+
+    public RoomWorkOrder(int workOrder, int roomId) {
+        this.workOrder = workOrder;
+        this.roomId = roomId;
+    }
+
+    @Data
+    public static class Key implements Serializable {
+
+        private int workOrder;
+
+        private int roomId;
+
+        public Key() {
+        }
+
+        public Key(int workOrder, int roomId) {
+            this.workOrder = workOrder;
+            this.roomId = roomId;
+        }
+    }
+}
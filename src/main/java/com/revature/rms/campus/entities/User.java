@@ -12,7 +12,8 @@ import javax.persistence.*;
 //@AllArgsConstructor
 public class User {
     @Id
-    @GeneratedValue(strategy= GenerationType.IDENTITY)
+    @GeneratedValue(strategy= GenerationType.SEQUENCE, generator = "user_seq")
+    @SequenceGenerator(name = "user_seq", sequenceName = "user_seq", initialValue = 1000, allocationSize = 50)
     private int id;
 
     @Column(nullable=false)
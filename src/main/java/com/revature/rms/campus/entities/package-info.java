@@ -0,0 +1,9 @@
+/**
+ * Filter that hides deactivated campuses, buildings and rooms (see ResourceMetadata.currentlyActive). It is
+ * enabled for read-only service transactions by ActiveFilterAspect, unless the request asks for
+ * ?includeInactive=true.
+ */
+@FilterDef(name = "activeOnly", defaultCondition = "currently_active = true")
+package com.revature.rms.campus.entities;
+
+import org.hibernate.annotations.FilterDef;
@@ -0,0 +1,14 @@
+package com.revature.rms.campus.exceptions;
+
+import com.revature.rms.core.exceptions.ResourcePersistenceException;
+
+/**
+ * Thrown when a conditional update names a version that the resource no longer has, because someone else
+ * updated it in the meantime. Answered with 409 Conflict by ExceptionResponseAspect.
+ */
+public class VersionConflictException extends ResourcePersistenceException {
+
+    public VersionConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,53 @@
+package com.revature.rms.campus.jobs;
+
+import com.revature.rms.campus.services.ChangeFeedService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Moves outbox events into the change feed (see ChangeFeedService.sequence) every
+ * rms.outbox.sequence-interval, and once a night removes the events older than rms.outbox.retention.
+ */
+@Component
+public class OutboxSequencer {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxSequencer.class);
+
+    private ChangeFeedService changeFeedService;
+
+    private Duration retention;
+
+    @Autowired
+    public OutboxSequencer(ChangeFeedService changeFeedService, @Value("${rms.outbox.retention:P30D}") Duration retention) {
+        this.changeFeedService = changeFeedService;
+        this.retention = retention;
+    }
+
+    @Scheduled(fixedDelayString = "${rms.outbox.sequence-interval:PT1S}")
+    public void sequence() {
+        try {
+            while (changeFeedService.sequence() >= ChangeFeedService.SEQUENCE_CHUNK_SIZE) {
+                logger.debug("Sequenced a full chunk of outbox events, continuing");
+            }
+        } catch (DataIntegrityViolationException | ConcurrencyFailureException e) {
+            // another instance sequenced at the same time; whatever is left is picked up by the next run
+            logger.debug("Outbox sequencing collided with another sequencer", e);
+        }
+    }
+
+    @Scheduled(cron = "${rms.outbox.prune-cron:0 45 2 * * *}", zone = "UTC")
+    public void prune() {
+        Instant cutoff = Instant.now().minus(retention);
+        int pruned = changeFeedService.prune(cutoff);
+        logger.info("Pruned {} outbox event(s) that occurred before {}", pruned, cutoff);
+    }
+}
@@ -0,0 +1,40 @@
+package com.revature.rms.campus.jobs;
+
+import com.revature.rms.campus.services.RoomService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Keeps ROOM_STATUS down to the recent history. Once a night every status older than the retention
+ * window is moved to the archive table and rolled up into daily summaries (see RoomService.archiveStatuses).
+ * The window and schedule are set with rms.room-status.retention and rms.room-status.archive-cron.
+ */
+@Component
+public class RoomStatusArchiver {
+
+    private static final Logger logger = LoggerFactory.getLogger(RoomStatusArchiver.class);
+
+    private RoomService roomService;
+
+    private Duration retention;
+
+    @Autowired
+    public RoomStatusArchiver(RoomService roomService, @Value("${rms.room-status.retention:P90D}") Duration retention) {
+        this.roomService = roomService;
+        this.retention = retention;
+    }
+
+    @Scheduled(cron = "${rms.room-status.archive-cron:0 30 2 * * *}", zone = "UTC")
+    public void archive() {
+        Instant cutoff = Instant.now().minus(retention);
+        int archived = roomService.archiveStatuses(cutoff);
+        logger.info("Archived {} room status(es) submitted before {}", archived, cutoff);
+    }
+}
@@ -0,0 +1,211 @@
+package com.revature.rms.campus.jobs;
+
+import com.revature.rms.campus.entities.Address;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Bulk seed mode (see application-seed.yml): loads one CSV file per table from rms.seed.dir, e.g.
+ * room.csv into ROOM, instead of replaying import.sql one INSERT at a time. Each file has a header row naming
+ * the columns it holds. Every file is loaded with a single INSERT ... SELECT FROM CSVREAD, H2's native bulk
+ * path, and all of them in one transaction, so a bad file leaves the database empty rather than half seeded.
+ * Tables are loaded parents first, so the foreign keys of the prebuilt schema hold throughout. Afterwards the
+ * sequences are moved past the seeded ids. The load time is logged and published as the rms.seed.load timer.
+ * <p>
+ * address.csv has no content_hash column: the loader derives it with Address.canonicalize, the same way every
+ * other insert does, because AddressService finds stored addresses by it and a hash made any other way would
+ * never match. A file that brings its own content_hash is refused.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(prefix = "rms.seed", name = "dir")
+public class SeedLoader implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(SeedLoader.class);
+
+    /**
+     * Seeded tables, parents before children.
+     */
+    static final List<String> TABLES = Arrays.asList("address", "campus", "building", "amenity", "room",
+            "room_work_order", "room_status", "room_status_archive", "room_status_daily_summary");
+
+    /**
+     * Sequences and the tables whose ids they hand out. Archived statuses keep the id they had in room_status.
+     */
+    static final Map<String, List<String>> SEQUENCES = new LinkedHashMap<>();
+
+    static {
+        SEQUENCES.put("resource_seq", Arrays.asList("campus", "building", "room"));
+        SEQUENCES.put("address_seq", Arrays.asList("address"));
+        SEQUENCES.put("amenity_seq", Arrays.asList("amenity"));
+        SEQUENCES.put("room_status_seq", Arrays.asList("room_status", "room_status_archive"));
+    }
+
+    /**
+     * First id of every sequence, as mapped on the entities.
+     */
+    private static final long INITIAL_ID = 1000;
+
+    private static final Pattern COLUMN = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Path seedDir;
+
+    @Autowired
+    public SeedLoader(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, MeterRegistry meterRegistry,
+                      @Value("${rms.seed.dir}") String seedDir) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+        this.seedDir = Paths.get(seedDir).toAbsolutePath();
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        String database = jdbcTemplate.execute((ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        if (!"H2".equals(database)) {
+            throw new IllegalStateException("Bulk seed loading needs H2's CSVREAD, but the database is " + database);
+        }
+        if (!Files.isDirectory(seedDir)) {
+            throw new IllegalStateException("Seed directory " + seedDir + " does not exist");
+        }
+
+        long start = System.nanoTime();
+        Map<String, Integer> rows = transactionTemplate.execute(status -> {
+            Map<String, Integer> loaded = new LinkedHashMap<>();
+            for (String table : TABLES) {
+                Path file = seedDir.resolve(table + ".csv");
+                if (Files.exists(file)) {
+                    loaded.put(table, load(table, file));
+                }
+            }
+            return loaded;
+        });
+        // ALTER SEQUENCE commits in H2, so it runs once every table is in
+        restartSequences();
+        long elapsed = System.nanoTime() - start;
+
+        Timer.builder("rms.seed.load").description("Time taken to bulk load the seed CSV files").register(meterRegistry)
+                .record(elapsed, TimeUnit.NANOSECONDS);
+        int total = rows.values().stream().mapToInt(Integer::intValue).sum();
+        logger.info("Seeded {} row(s) from {} in {} ms: {}", total, seedDir, TimeUnit.NANOSECONDS.toMillis(elapsed), rows);
+    }
+
+    private int load(String table, Path file) {
+        List<String> header = header(file);
+        if ("address".equals(table)) {
+            return loadAddresses(file, header);
+        }
+        String columns = String.join(", ", header);
+        return jdbcTemplate.update("insert into " + table + " (" + columns + ") select * from csvread(?, null, 'charset=UTF-8')",
+                file.toString());
+    }
+
+    /**
+     * Loads address.csv with a unique placeholder for each content_hash, then normalizes every row and replaces
+     * the placeholder with its real hash (see Address.canonicalize). Two rows of the file that are the same
+     * address once normalized break the unique hash index, so the seed is refused.
+     */
+    private int loadAddresses(Path file, List<String> header) {
+        for (String column : header) {
+            if ("content_hash".equalsIgnoreCase(column)) {
+                throw new IllegalStateException("Seed file " + file + " must not have a content_hash column, "
+                        + "it is derived from the address fields");
+            }
+        }
+        String columns = String.join(", ", header);
+        int loaded = jdbcTemplate.update("insert into address (" + columns + ", content_hash) "
+                + "select csv.*, cast(random_uuid() as varchar) from csvread(?, null, 'charset=UTF-8') csv", file.toString());
+
+        List<Object[]> canonical = jdbcTemplate.query("select id, unit_street, city, state, zip, country from address",
+                (row, i) -> {
+                    Address address = new Address(row.getInt(1), row.getString(2), row.getString(3),
+                            row.getString(4), row.getString(5), row.getString(6));
+                    address.canonicalize();
+                    return new Object[] { address.getUnitStreet(), address.getCity(), address.getState(),
+                            address.getZip(), address.getCountry(), address.getContentHash(), address.getId() };
+                });
+        try {
+            jdbcTemplate.batchUpdate("update address set unit_street = ?, city = ?, state = ?, zip = ?, country = ?, "
+                    + "content_hash = ? where id = ?", canonical);
+        } catch (DuplicateKeyException e) {
+            throw new IllegalStateException("Seed file " + file + " lists the same address more than once", e);
+        }
+        return loaded;
+    }
+
+    /**
+     * Reads the column names from the header row of a seed file. They are spliced into the INSERT, so anything
+     * that is not a plain column name is refused.
+     */
+    private static List<String> header(Path file) {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line = reader.readLine();
+            if (line == null) {
+                throw new IllegalStateException("Seed file " + file + " has no header row");
+            }
+            List<String> columns = new ArrayList<>();
+            for (String column : line.split(",")) {
+                String name = column.trim().replace("\"", "");
+                if (!COLUMN.matcher(name).matches()) {
+                    throw new IllegalStateException("Seed file " + file + " names an invalid column: " + column);
+                }
+                columns.add(name);
+            }
+            return columns;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Moves every sequence past the highest seeded id of its tables, so ids handed out afterwards cannot collide
+     * with seeded rows.
+     */
+    private void restartSequences() {
+        for (Map.Entry<String, List<String>> sequence : SEQUENCES.entrySet()) {
+            long next = INITIAL_ID;
+            for (String table : sequence.getValue()) {
+                Long max = jdbcTemplate.queryForObject("select max(id) from " + table, Long.class);
+                if (max != null) {
+                    next = Math.max(next, max + 1);
+                }
+            }
+            jdbcTemplate.execute("alter sequence " + sequence.getKey() + " restart with " + next);
+        }
+    }
+}
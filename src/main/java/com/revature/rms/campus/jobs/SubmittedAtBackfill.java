@@ -0,0 +1,56 @@
+package com.revature.rms.campus.jobs;
+
+import com.revature.rms.campus.config.ShardDirectory;
+import com.revature.rms.campus.services.RoomService;
+import com.revature.rms.campus.services.Shard;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Migrates the legacy RoomStatus.submittedDateTime Strings into the typed submittedAt column once the
+ * application has started. Each chunk runs in its own transaction, and rows that were already migrated
+ * are skipped by the query, so the job is cheap to run on every start and safe to interrupt. With sharding
+ * configured, every shard is backfilled in turn.
+ */
+@Component
+public class SubmittedAtBackfill {
+
+    private static final Logger logger = LoggerFactory.getLogger(SubmittedAtBackfill.class);
+
+    private static final int CHUNK_SIZE = 500;
+
+    private RoomService roomService;
+
+    private ShardDirectory shardDirectory;
+
+    @Autowired
+    public SubmittedAtBackfill(RoomService roomService, ObjectProvider<ShardDirectory> shardDirectory) {
+        this.roomService = roomService;
+        this.shardDirectory = shardDirectory.getIfAvailable();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        int shards = (shardDirectory == null) ? 1 : shardDirectory.getShardCount();
+        int chunks = 0;
+        for (int shard = 0; shard < shards; shard++) {
+            chunks += Shard.on(shard, this::backfillShard);
+        }
+        logger.info("RoomStatus submittedAt backfill visited {} chunk(s)", chunks);
+    }
+
+    private int backfillShard() {
+        int chunks = 0;
+        Integer cursor = 0;
+        while (cursor != null) {
+            cursor = roomService.backfillSubmittedAt(cursor, CHUNK_SIZE);
+            chunks++;
+        }
+        return chunks;
+    }
+}
@@ -4,4 +4,11 @@ import com.revature.rms.campus.entities.Address;
 import org.springframework.data.repository.CrudRepository;
 
 public interface AddressRepository extends CrudRepository<Address, Integer> {
+
+    /**
+     * findByContentHash method: Finds the canonical row of an address through the unique content hash index.
+     * @param contentHash hash of the normalized address fields, see Address.canonicalize
+     * @return the address, or null when no identical address is stored yet
+     */
+    Address findByContentHash(String contentHash);
 }
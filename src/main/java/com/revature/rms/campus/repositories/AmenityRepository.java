@@ -0,0 +1,17 @@
+package com.revature.rms.campus.repositories;
+
+import com.revature.rms.campus.entities.Amenity;
+import org.springframework.data.repository.CrudRepository;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface AmenityRepository extends CrudRepository<Amenity, Integer> {
+
+    /**
+     * findByBuildingIdIn method: Returns the amenities of every given building in a single statement.
+     * @param buildingIds building ids
+     * @return List of the amenities of the buildings
+     */
+    List<Amenity> findByBuildingIdIn(Collection<Integer> buildingIds);
+}
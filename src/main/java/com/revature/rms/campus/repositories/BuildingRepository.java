@@ -1,19 +1,54 @@
 package com.revature.rms.campus.repositories;
 
+import com.revature.rms.campus.DTO.BuildingDTO;
+import com.revature.rms.campus.entities.Address;
 import com.revature.rms.campus.entities.Building;
 //import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 @Repository
 public interface BuildingRepository extends CrudRepository<Building, Integer>{
 
+     /**
+      * findAll method: Overrides the CrudRepository default so that every building is read together with its
+      * address through the Building.detail entity graph, instead of one extra select per row. The buildings are
+      * loaded read-only, so Hibernate keeps no snapshot of them for dirty checking.
+      * @return Iterable of every building
+      */
+     @Override
+     @EntityGraph("Building.detail")
+     @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true"))
+     Iterable<Building> findAll();
+
+     /**
+      * findById method: Overrides the CrudRepository default to read the building through the Building.detail entity graph.
+      * @param id building id Integer
+      * @return Optional of the building with matching id
+      */
+     @Override
+     @EntityGraph("Building.detail")
+     Optional<Building> findById(Integer id);
+
      /**
       * findByName method: The name parameter is passed as the input.
       * A Building is returned when the input name matches a database record.
       * @param name Building name String
       * @return Building with matching name String
       */
+     @EntityGraph("Building.detail")
      Building findByName(String name);
 
      /**
@@ -22,6 +57,101 @@ public interface BuildingRepository extends CrudRepository<Building, Integer>{
       * @param id trainingLeadId id int
       * @return Building with matching id int
       */
+     @EntityGraph("Building.detail")
      Building findByTrainingLead(Integer id);
-}
 
+     /**
+      * findByResourceMetadataResourceOwner method: The resourceOwner parameter is passed as the input.
+      * A list of buildings is returned for every record owned by the given app user.
+      * @param ownerId resourceOwner id int
+      * @return List of buildings owned by the app user
+      */
+     @EntityGraph("Building.detail")
+     List<Building> findByResourceMetadataResourceOwner(int ownerId);
+
+     /**
+      * findByResourceMetadataResourceOwnerAndResourceMetadataCurrentlyActive method: The resourceOwner and
+      * currentlyActive parameters are passed as the input. Backed by the (resource_owner, currently_active) index.
+      * @param ownerId resourceOwner id int
+      * @param active currentlyActive flag
+      * @return List of buildings owned by the app user with the matching active flag
+      */
+     @EntityGraph("Building.detail")
+     List<Building> findByResourceMetadataResourceOwnerAndResourceMetadataCurrentlyActive(int ownerId, boolean active);
+
+     /**
+      * findByIdGreaterThanOrderByIdAsc method: Seeks past the given id on the primary key index and
+      * returns the next buildings in id order. Only the page size of the Pageable is used, so no OFFSET is issued.
+      * The buildings are loaded read-only.
+      * @param after id of the last building on the previous page, 0 for the first page
+      * @param pageable page size to fetch
+      * @return List of buildings with an id greater than after
+      */
+     @EntityGraph("Building.detail")
+     @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true"))
+     List<Building> findByIdGreaterThanOrderByIdAsc(int after, Pageable pageable);
+
+     /**
+      * deactivateById method: Marks a building as no longer active with a single UPDATE statement.
+      * @param id building id int
+      * @param modified lastModifiedDateTime to stamp on the building
+      * @return number of buildings updated, 0 when no building has the id
+      */
+     @Modifying(flushAutomatically = true, clearAutomatically = true)
+     @Query("update versioned Building b set b.resourceMetadata.currentlyActive = false, b.resourceMetadata.lastModifiedDateTime = :modified " +
+             "where b.id = :id")
+     int deactivateById(@Param("id") int id, @Param("modified") String modified);
+
+     /**
+      * deactivateByCampusId method: Marks every active building of a campus as no longer active with a single UPDATE statement.
+      * @param campusId campus id int
+      * @param modified lastModifiedDateTime to stamp on the buildings
+      * @return number of buildings updated
+      */
+     @Modifying(flushAutomatically = true, clearAutomatically = true)
+     @Query("update versioned Building b set b.resourceMetadata.currentlyActive = false, b.resourceMetadata.lastModifiedDateTime = :modified " +
+             "where b.campus.id = :campusId and b.resourceMetadata.currentlyActive = true")
+     int deactivateByCampusId(@Param("campusId") int campusId, @Param("modified") String modified);
+
+    /**
+     * findAllAsDTO method: Reads every building straight into a BuildingDTO with a constructor expression, so no
+     * building entity is hydrated or kept in the persistence context. The amenities and rooms of the DTOs are left empty.
+     * @return List of every building as a DTO, in id order
+     */
+    @Query("select new com.revature.rms.campus.DTO.BuildingDTO(b.id, b.name, b.abbrName, a, b.trainingLead, b.resourceMetadata, c.id) " +
+            "from Building b join b.physicalAddress a left join b.campus c order by b.id")
+    List<BuildingDTO> findAllAsDTO();
+
+    /**
+     * streamAllByOrderByIdAsc method: Streams every building, with its address, in id order from an open cursor
+     * instead of reading the whole table into a list. The JDBC driver fetches 500 rows per round trip. Must be
+     * consumed inside a transaction and closed afterwards. The buildings are loaded read-only.
+     * @return Stream of every building
+     */
+    @QueryHints({
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true")
+    })
+    @Query("select b from Building b join fetch b.physicalAddress order by b.id")
+    Stream<Building> streamAllByOrderByIdAsc();
+
+    /**
+     * updateDetails method: Overwrites the editable fields of a building with a single conditional UPDATE statement
+     * and increments its version.
+     * @param id building id int
+     * @param version version the building must still have, or a negative value to update whatever the version
+     * @param name new name
+     * @param abbrName new abbreviated name
+     * @param physicalAddress new (persisted) address
+     * @param trainingLead new training lead id
+     * @param modified lastModifiedDateTime to stamp on the building
+     * @return number of buildings updated, 0 when no building has the id or its version has moved on
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update versioned Building b set b.name = :name, b.abbrName = :abbrName, b.physicalAddress = :physicalAddress, " +
+            "b.trainingLead = :trainingLead, b.resourceMetadata.lastModifiedDateTime = :modified " +
+            "where b.id = :id and (:version < 0 or b.version = :version)")
+    int updateDetails(@Param("id") int id, @Param("version") long version, @Param("name") String name,
+                      @Param("abbrName") String abbrName, @Param("physicalAddress") Address physicalAddress,
+                      @Param("trainingLead") int trainingLead, @Param("modified") String modified);
+}
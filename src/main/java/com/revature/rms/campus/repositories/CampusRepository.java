@@ -2,35 +2,113 @@ package com.revature.rms.campus.repositories;
 
 import com.revature.rms.campus.entities.Campus;
 //import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface CampusRepository extends CrudRepository<Campus, Integer> {
 
+    /**
+     * findAll method: Overrides the CrudRepository default so that every campus is read together with its
+     * address through the Campus.detail entity graph, instead of one extra select per row. The campuses are
+     * loaded read-only, so Hibernate keeps no snapshot of them for dirty checking.
+     * @return Iterable of every campus
+     */
+    @Override
+    @EntityGraph("Campus.detail")
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true"))
+    Iterable<Campus> findAll();
+
+    /**
+     * findById method: Overrides the CrudRepository default to read the campus through the Campus.detail entity graph.
+     * @param id campus id Integer
+     * @return Optional of the campus with matching id
+     */
+    @Override
+    @EntityGraph("Campus.detail")
+    Optional<Campus> findById(Integer id);
+
     /**
      * findByName method: The name parameter is passed as the input.
      * An Campus is returned when the input name matches a database record.
      * @param name Campus name String
      * @return Campus with matching name String
      */
+    @EntityGraph("Campus.detail")
     Campus findByName(String name);
 
     /**
      * findByTrainingManagerId method: The trainingManagerId parameter is passed as the input.
      * An Campus is returned when the input id matches a database record.
+     * The result is kept in the query cache until the CAMPUS table changes.
      * @param id trainingManagerId id int
      * @return Campus with matching id int
      */
+    @EntityGraph("Campus.detail")
+    @QueryHints(@QueryHint(name = org.hibernate.annotations.QueryHints.CACHEABLE, value = "true"))
     List<Campus> findByTrainingManagerId(Integer id);
 
     /**
      * findByStagingManagerId method: The stagingManagerId parameter is passed as the input.
      * An Campus is returned when the input id matches a database record.
+     * The result is kept in the query cache until the CAMPUS table changes.
      * @param id stagingManagerId id int
      * @return Campus with matching id int
      */
+    @EntityGraph("Campus.detail")
+    @QueryHints(@QueryHint(name = org.hibernate.annotations.QueryHints.CACHEABLE, value = "true"))
     List<Campus> findByStagingManagerId(Integer id);
-}
\ No newline at end of file
+
+    /**
+     * findByResourceMetadataResourceOwner method: The resourceOwner parameter is passed as the input.
+     * A list of campuses is returned for every record owned by the given app user.
+     * @param ownerId resourceOwner id int
+     * @return List of campuses owned by the app user
+     */
+    @EntityGraph("Campus.detail")
+    List<Campus> findByResourceMetadataResourceOwner(int ownerId);
+
+    /**
+     * findByResourceMetadataResourceOwnerAndResourceMetadataCurrentlyActive method: The resourceOwner and
+     * currentlyActive parameters are passed as the input. Backed by the (resource_owner, currently_active) index.
+     * @param ownerId resourceOwner id int
+     * @param active currentlyActive flag
+     * @return List of campuses owned by the app user with the matching active flag
+     */
+    @EntityGraph("Campus.detail")
+    List<Campus> findByResourceMetadataResourceOwnerAndResourceMetadataCurrentlyActive(int ownerId, boolean active);
+
+    /**
+     * findByIdGreaterThanOrderByIdAsc method: Seeks past the given id on the primary key index and
+     * returns the next campuses in id order. Only the page size of the Pageable is used, so no OFFSET is issued.
+     * The campuses are loaded read-only.
+     * @param after id of the last campus on the previous page, 0 for the first page
+     * @param pageable page size to fetch
+     * @return List of campuses with an id greater than after
+     */
+    @EntityGraph("Campus.detail")
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true"))
+    List<Campus> findByIdGreaterThanOrderByIdAsc(int after, Pageable pageable);
+
+    /**
+     * deactivateById method: Marks a campus as no longer active with a single UPDATE statement.
+     * @param id campus id int
+     * @param modified lastModifiedDateTime to stamp on the campus
+     * @return number of campuses updated, 0 when no campus has the id
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update versioned Campus c set c.resourceMetadata.currentlyActive = false, c.resourceMetadata.lastModifiedDateTime = :modified " +
+            "where c.id = :id")
+    int deactivateById(@Param("id") int id, @Param("modified") String modified);
+}
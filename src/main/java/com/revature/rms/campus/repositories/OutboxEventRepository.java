@@ -0,0 +1,63 @@
+package com.revature.rms.campus.repositories;
+
+import com.revature.rms.campus.entities.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.time.Instant;
+import java.util.List;
+
+public interface OutboxEventRepository extends CrudRepository<OutboxEvent, Integer> {
+
+    /**
+     * findUnsequenced Method: Returns the committed events that have no feed position yet, oldest first, locked
+     * so that a second sequencer waits for them instead of numbering them too.
+     * @param pageable the first page, sized to the number of events to sequence
+     * @return the events without a position
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select e from OutboxEvent e where e.position is null order by e.id")
+    List<OutboxEvent> findUnsequenced(Pageable pageable);
+
+    /**
+     * findLastPosition Method: Returns the highest feed position handed out, read from the unique position index.
+     * @return the position, or null when no event has been sequenced
+     */
+    @Query("select max(e.position) from OutboxEvent e")
+    Integer findLastPosition();
+
+    /**
+     * findFirstPosition Method: Returns the lowest feed position still kept.
+     * @return the position, or null when no sequenced event is kept
+     */
+    @Query("select min(e.position) from OutboxEvent e")
+    Integer findFirstPosition();
+
+    /**
+     * findByPositionGreaterThanOrderByPositionAsc Method: Returns the next page of the change feed, seeking on the
+     * position index. The events are only read, so they are loaded read-only.
+     * @param after position of the last event the consumer has seen
+     * @param pageable the first page, sized to one more than the requested limit
+     * @return the events after the position, in feed order
+     */
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true"))
+    List<OutboxEvent> findByPositionGreaterThanOrderByPositionAsc(int after, Pageable pageable);
+
+    /**
+     * deleteSequencedBefore Method: Removes sequenced events that occurred before the cutoff, except the one with
+     * the highest position, which findLastPosition must keep returning.
+     * @param cutoff events that occurred before this instant are removed
+     * @return number of events removed
+     */
+    @Modifying
+    @Query("delete from OutboxEvent e where e.position is not null and e.occurredAt < :cutoff"
+            + " and e.position < (select max(o.position) from OutboxEvent o)")
+    int deleteSequencedBefore(@Param("cutoff") Instant cutoff);
+}
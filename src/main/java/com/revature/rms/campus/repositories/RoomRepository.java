@@ -1,16 +1,35 @@
 package com.revature.rms.campus.repositories;
 
+import com.revature.rms.campus.DTO.RoomDTO;
 import com.revature.rms.campus.entities.Room;
 //import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface RoomRepository extends CrudRepository<Room, Integer>{
 
+    /**
+     * findAll method: Overrides the CrudRepository default so that the rooms are loaded read-only, and Hibernate
+     * keeps no snapshot of them for dirty checking.
+     * @return Iterable of every room
+     */
+    @Override
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true"))
+    Iterable<Room> findAll();
+
     /**
      * findByRoomNumber Method: This takes in the room number as the input
      * parameter. The input room number is validated to ensure that it is not
@@ -34,4 +53,164 @@ public interface RoomRepository extends CrudRepository<Room, Integer>{
      * @return a list of all the rooms with the specified occupancy.
      */
     List<Room> findByMaxOccupancy(int occupancy);
-}
\ No newline at end of file
+
+    /**
+     * findByResourceMetadataResourceOwner method: The resourceOwner parameter is passed as the input.
+     * A list of rooms is returned for every record owned by the given app user.
+     * @param ownerId resourceOwner id int
+     * @return List of rooms owned by the app user
+     */
+    List<Room> findByResourceMetadataResourceOwner(int ownerId);
+
+    /**
+     * findByResourceMetadataResourceOwnerAndResourceMetadataCurrentlyActive method: The resourceOwner and
+     * currentlyActive parameters are passed as the input. Backed by the (resource_owner, currently_active) index.
+     * @param ownerId resourceOwner id int
+     * @param active currentlyActive flag
+     * @return List of rooms owned by the app user with the matching active flag
+     */
+    List<Room> findByResourceMetadataResourceOwnerAndResourceMetadataCurrentlyActive(int ownerId, boolean active);
+
+    /**
+     * findByIdGreaterThanOrderByIdAsc method: Seeks past the given id on the primary key index and
+     * returns the next rooms in id order. Only the page size of the Pageable is used, so no OFFSET is issued.
+     * The rooms are loaded read-only.
+     * @param after id of the last room on the previous page, 0 for the first page
+     * @param pageable page size to fetch
+     * @return List of rooms with an id greater than after
+     */
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true"))
+    List<Room> findByIdGreaterThanOrderByIdAsc(int after, Pageable pageable);
+
+    /**
+     * deactivateById method: Marks a room as no longer active with a single UPDATE statement.
+     * @param id room id int
+     * @param modified lastModifiedDateTime to stamp on the room
+     * @return number of rooms updated, 0 when no room has the id
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update versioned Room r set r.resourceMetadata.currentlyActive = false, r.resourceMetadata.lastModifiedDateTime = :modified " +
+            "where r.id = :id")
+    int deactivateById(@Param("id") int id, @Param("modified") String modified);
+
+    /**
+     * deactivateByBuildingId method: Marks every active room of a building as no longer active with a single UPDATE statement.
+     * @param buildingId building id int
+     * @param modified lastModifiedDateTime to stamp on the rooms
+     * @return number of rooms updated
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update versioned Room r set r.resourceMetadata.currentlyActive = false, r.resourceMetadata.lastModifiedDateTime = :modified " +
+            "where r.building.id = :buildingId and r.resourceMetadata.currentlyActive = true")
+    int deactivateByBuildingId(@Param("buildingId") int buildingId, @Param("modified") String modified);
+
+    /**
+     * deactivateByCampusId method: Marks every active room in every building of a campus as no longer active
+     * with a single UPDATE statement.
+     * @param campusId campus id int
+     * @param modified lastModifiedDateTime to stamp on the rooms
+     * @return number of rooms updated
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update versioned Room r set r.resourceMetadata.currentlyActive = false, r.resourceMetadata.lastModifiedDateTime = :modified " +
+            "where r.building.id in (select b.id from Building b where b.campus.id = :campusId) and r.resourceMetadata.currentlyActive = true")
+    int deactivateByCampusId(@Param("campusId") int campusId, @Param("modified") String modified);
+
+    /**
+     * findAllAsDTO method: Reads every room straight into a RoomDTO with a constructor expression, so no
+     * room entity is hydrated or kept in the persistence context. The latest statuses of the DTOs are left empty.
+     * @return List of every room as a DTO, in id order
+     */
+    @Query("select new com.revature.rms.campus.DTO.RoomDTO(r.id, r.roomNumber, r.maxOccupancy, r.batchId, r.workOrders, r.resourceMetadata, b.id) " +
+            "from Room r left join r.building b order by r.id")
+    List<RoomDTO> findAllAsDTO();
+
+    /**
+     * findAsDTOByBuildingIds method: Reads the rooms of the given buildings straight into RoomDTOs.
+     * @param buildingIds building ids
+     * @return List of the rooms of the buildings as DTOs, in id order
+     */
+    @Query("select new com.revature.rms.campus.DTO.RoomDTO(r.id, r.roomNumber, r.maxOccupancy, r.batchId, r.workOrders, r.resourceMetadata, b.id) " +
+            "from Room r join r.building b where b.id in :buildingIds order by r.id")
+    List<RoomDTO> findAsDTOByBuildingIds(@Param("buildingIds") Collection<Integer> buildingIds);
+
+    /**
+     * findByBatchIdOrderByIdAsc method: Returns the rooms assigned to a training batch, from the (batch_id, id) index.
+     * @param batchId batch id
+     * @return List of the rooms of the batch
+     */
+    List<Room> findByBatchIdOrderByIdAsc(int batchId);
+
+    /**
+     * findRoomIdsByBatchIds method: Returns the (batchId, roomId) pairs of the given batches. Both columns are
+     * in the (batch_id, id) index, so the lookup never reads the room rows.
+     * @param batchIds batch ids
+     * @return one row per room of the batches, ordered by batch and room
+     */
+    @Query("select r.batchId as batchId, r.id as roomId from Room r where r.batchId in :batchIds order by r.batchId, r.id")
+    List<BatchRoom> findRoomIdsByBatchIds(@Param("batchIds") Collection<Integer> batchIds);
+
+    /**
+     * Interface projection of one room of a batch.
+     */
+    interface BatchRoom {
+
+        int getBatchId();
+
+        int getRoomId();
+    }
+
+    /**
+     * findByWorkOrder method: Returns the rooms that list the given work order, found through the
+     * RoomWorkOrder reverse index since Room.workOrders itself is packed into one column.
+     * @param workOrder work order id
+     * @return List of the rooms with the work order
+     */
+    @Query("select r from Room r where r.id in (select w.roomId from RoomWorkOrder w where w.workOrder = :workOrder) order by r.id")
+    List<Room> findByWorkOrder(@Param("workOrder") int workOrder);
+
+    /**
+     * streamAllByOrderByIdAsc method: Streams every room in id order from an open cursor instead of reading the
+     * whole table into a list. The JDBC driver fetches 500 rows per round trip. Must be consumed inside a
+     * transaction and closed afterwards. The rooms are loaded read-only.
+     * @return Stream of every room
+     */
+    @QueryHints({
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true")
+    })
+    @Query("select r from Room r order by r.id")
+    Stream<Room> streamAllByOrderByIdAsc();
+
+    /**
+     * updateDetails method: Overwrites the editable fields of a room with a single conditional UPDATE statement
+     * and increments its version.
+     * @param id room id int
+     * @param version version the room must still have, or a negative value to update whatever the version
+     * @param roomNumber new room number
+     * @param maxOccupancy new maximum occupancy
+     * @param modified lastModifiedDateTime to stamp on the room
+     * @return number of rooms updated, 0 when no room has the id or its version has moved on
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update versioned Room r set r.roomNumber = :roomNumber, r.maxOccupancy = :maxOccupancy, " +
+            "r.resourceMetadata.lastModifiedDateTime = :modified " +
+            "where r.id = :id and (:version < 0 or r.version = :version)")
+    int updateDetails(@Param("id") int id, @Param("version") long version, @Param("roomNumber") String roomNumber,
+                      @Param("maxOccupancy") int maxOccupancy, @Param("modified") String modified);
+
+    /**
+     * updateRoomNumber method: Changes the number of a room with a single conditional UPDATE statement and
+     * increments its version.
+     * @param id room id int
+     * @param version version the room must still have, or a negative value to update whatever the version
+     * @param roomNumber new room number
+     * @param modified lastModifiedDateTime to stamp on the room
+     * @return number of rooms updated, 0 when no room has the id or its version has moved on
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update versioned Room r set r.roomNumber = :roomNumber, r.resourceMetadata.lastModifiedDateTime = :modified " +
+            "where r.id = :id and (:version < 0 or r.version = :version)")
+    int updateRoomNumber(@Param("id") int id, @Param("version") long version, @Param("roomNumber") String roomNumber,
+                         @Param("modified") String modified);
+}
@@ -0,0 +1,110 @@
+package com.revature.rms.campus.repositories;
+
+import com.revature.rms.campus.DTO.RoomStatusExportRow;
+import com.revature.rms.campus.entities.RoomStatusArchive;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+import javax.persistence.QueryHint;
+import java.time.Instant;
+import java.util.stream.Stream;
+
+/**
+ * The archive statements are plain INSERT ... SELECT and DELETE statements, so moving a day's worth of
+ * statuses is a handful of set-based statements rather than one round trip per row. They are meant to be
+ * run together, in order, in one transaction (see RoomService.archiveStatuses).
+ *
+ * Only the copy reads the cutoff on its own. The summary and delete statements work on the live statuses that
+ * were copied, found by their id in the archive, so a status that becomes eligible partway through (a backdated
+ * submission, or one that SubmittedAtBackfill has just filled in) is left for the next run instead of being
+ * summarized and deleted without ever being archived.
+ */
+public interface RoomStatusArchiveRepository extends CrudRepository<RoomStatusArchive, Integer> {
+
+    /**
+     * copyOlderThan Method: Copies every live room status submitted before the cutoff into the archive table.
+     * @param cutoff statuses submitted before this instant are copied
+     * @return the number of statuses copied
+     */
+    @Modifying
+    @Query(value = "insert into room_status_archive " +
+            "(id, white_board_cleaned, chairs_ordered, submitted_date_time, submitted_at, submitter_id, other_notes, room_id) " +
+            "select s.id, s.white_board_cleaned, s.chairs_ordered, s.submitted_date_time, s.submitted_at, s.submitter_id, s.other_notes, s.room_id " +
+            "from room_status s where s.submitted_at < :cutoff", nativeQuery = true)
+    int copyOlderThan(@Param("cutoff") Instant cutoff);
+
+    /**
+     * addToDailySummaries Method: Adds the copied live statuses submitted before the cutoff to the daily summaries
+     * that already exist for their room, day and submitter. Only matters for statuses that were submitted
+     * late for a day that had already been archived.
+     * @param cutoff statuses submitted before this instant are counted
+     * @return the number of summaries updated
+     */
+    @Modifying
+    @Query(value = "update room_status_daily_summary d set " +
+            "status_count = status_count + (select count(*) from room_status s " +
+                "where s.room_id = d.room_id and s.submitter_id = d.submitter_id " +
+                "and cast(s.submitted_at as date) = d.summary_date and s.submitted_at < :cutoff " +
+                "and exists (select 1 from room_status_archive a where a.id = s.id)), " +
+            "white_board_cleaned_count = white_board_cleaned_count + (select count(*) from room_status s " +
+                "where s.room_id = d.room_id and s.submitter_id = d.submitter_id " +
+                "and cast(s.submitted_at as date) = d.summary_date and s.submitted_at < :cutoff " +
+                "and exists (select 1 from room_status_archive a where a.id = s.id) and s.white_board_cleaned = true), " +
+            "chairs_ordered_count = chairs_ordered_count + (select count(*) from room_status s " +
+                "where s.room_id = d.room_id and s.submitter_id = d.submitter_id " +
+                "and cast(s.submitted_at as date) = d.summary_date and s.submitted_at < :cutoff " +
+                "and exists (select 1 from room_status_archive a where a.id = s.id) and s.chairs_ordered = true) " +
+            "where exists (select 1 from room_status s " +
+                "where s.room_id = d.room_id and s.submitter_id = d.submitter_id " +
+                "and cast(s.submitted_at as date) = d.summary_date and s.submitted_at < :cutoff " +
+                "and exists (select 1 from room_status_archive a where a.id = s.id))", nativeQuery = true)
+    int addToDailySummaries(@Param("cutoff") Instant cutoff);
+
+    /**
+     * insertDailySummaries Method: Rolls the copied live statuses submitted before the cutoff up into one summary
+     * per room, day and submitter, for every combination that has no summary yet.
+     * @param cutoff statuses submitted before this instant are counted
+     * @return the number of summaries inserted
+     */
+    @Modifying
+    @Query(value = "insert into room_status_daily_summary " +
+            "(room_id, summary_date, submitter_id, status_count, white_board_cleaned_count, chairs_ordered_count) " +
+            "select s.room_id, cast(s.submitted_at as date), s.submitter_id, count(*), " +
+            "sum(case when s.white_board_cleaned = true then 1 else 0 end), " +
+            "sum(case when s.chairs_ordered = true then 1 else 0 end) " +
+            "from room_status s where s.submitted_at < :cutoff " +
+            "and exists (select 1 from room_status_archive a where a.id = s.id) " +
+            "and not exists (select 1 from room_status_daily_summary d " +
+                "where d.room_id = s.room_id and d.submitter_id = s.submitter_id " +
+                "and d.summary_date = cast(s.submitted_at as date)) " +
+            "group by s.room_id, cast(s.submitted_at as date), s.submitter_id", nativeQuery = true)
+    int insertDailySummaries(@Param("cutoff") Instant cutoff);
+
+    /**
+     * deleteLiveOlderThan Method: Removes the live room statuses submitted before the cutoff that have been
+     * copied into the archive, once they have been summarized. Entities in the persistence context are cleared
+     * since they no longer exist.
+     * @param cutoff statuses submitted before this instant are deleted
+     * @return the number of statuses deleted
+     */
+    @Modifying(clearAutomatically = true)
+    @Query(value = "delete from room_status s where s.submitted_at < :cutoff " +
+            "and exists (select 1 from room_status_archive a where a.id = s.id)", nativeQuery = true)
+    int deleteLiveOlderThan(@Param("cutoff") Instant cutoff);
+
+    /**
+     * streamExportRows Method: Streams every archived room status, in id order, flattened into export rows. The
+     * room is joined back on the plain room_id column only to pick up its building and campus. The stream must be
+     * closed.
+     * @return the stream of export rows
+     */
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new com.revature.rms.campus.DTO.RoomStatusExportRow(a.id, a.roomId, b.id, c.id, a.submittedAt, " +
+            "a.whiteBoardCleaned, a.chairsOrdered, a.submitterId) " +
+            "from RoomStatusArchive a left join Room r on r.id = a.roomId left join r.building b left join b.campus c " +
+            "order by a.id")
+    Stream<RoomStatusExportRow> streamExportRows();
+}
@@ -0,0 +1,20 @@
+package com.revature.rms.campus.repositories;
+
+import com.revature.rms.campus.entities.RoomStatusDailySummary;
+import org.springframework.data.repository.CrudRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface RoomStatusDailySummaryRepository extends CrudRepository<RoomStatusDailySummary, RoomStatusDailySummary.Key> {
+
+    /**
+     * findByRoomIdAndSummaryDateBetweenOrderBySummaryDateAsc Method: Returns the daily summaries of a room
+     * between two days, both inclusive, oldest first. Served from the primary key, which leads with room_id.
+     * @param roomId id of the room
+     * @param from first day, inclusive
+     * @param to last day, inclusive
+     * @return the daily summaries of the room within the range
+     */
+    List<RoomStatusDailySummary> findByRoomIdAndSummaryDateBetweenOrderBySummaryDateAsc(int roomId, LocalDate from, LocalDate to);
+}
@@ -1,13 +1,31 @@
 package com.revature.rms.campus.repositories;
 
+import com.revature.rms.campus.DTO.RoomStatusExportRow;
 import com.revature.rms.campus.entities.RoomStatus;
 //import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 
+import javax.persistence.QueryHint;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface RoomStatusRepository extends CrudRepository<RoomStatus, Integer> {
 
+    /**
+     * findAll Method: Overrides the CrudRepository default so that the statuses are loaded read-only, and
+     * Hibernate keeps no snapshot of them for dirty checking.
+     * @return every room status
+     */
+    @Override
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true"))
+    Iterable<RoomStatus> findAll();
+
     /**
      * findAllStatusBySubmitter Method: The submitter id is inputted as
      * the search criteria. A list of room status objects that have the
@@ -17,6 +35,7 @@ public interface RoomStatusRepository extends CrudRepository<RoomStatus, Integer
      * @param id
      * @return the list of room status objects submitted by the given user id.
      */
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true"))
     List<RoomStatus> findAllBySubmitterId(int submitterId);
 
     /**
@@ -28,5 +47,63 @@ public interface RoomStatusRepository extends CrudRepository<RoomStatus, Integer
      * @param date
      * @return the list of room status objects with the specified submitted date
      */
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true"))
     List<RoomStatus> findAllBySubmittedDateTime(String date);
-}
\ No newline at end of file
+
+    /**
+     * findLatestByRoomIds Method: Returns the latest statuses of each of the given rooms, newest first,
+     * in a single statement. The statuses of the rooms are read from the (room_id, id) index, numbered
+     * newest first within each room, and cut off after the given number, so every status row is read once.
+     * Callers pass the room ids in bounded chunks (see FetchPlans.latestStatuses), never a whole table.
+     * @param roomIds ids of the rooms
+     * @param latest number of statuses to keep per room
+     * @return the latest statuses of every room, ordered by room and then newest first
+     */
+    @Query(value = "select ranked.* from (select s.*, row_number() over (partition by s.room_id order by s.id desc) as status_rank " +
+            "from room_status s where s.room_id in (:roomIds)) ranked " +
+            "where ranked.status_rank <= :latest order by ranked.room_id, ranked.id desc", nativeQuery = true)
+    List<RoomStatus> findLatestByRoomIds(@Param("roomIds") Collection<Integer> roomIds, @Param("latest") long latest);
+
+    /**
+     * findByRoomIdAndIdLessThanOrderByIdDesc Method: Seeks through the status history of a room, newest
+     * first, starting below the given status id. Backed by the (room_id, id) index.
+     * @param roomId id of the room
+     * @param before id of the oldest status on the previous page
+     * @param pageable page size to fetch
+     * @return the next statuses of the room that are older than before
+     */
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true"))
+    List<RoomStatus> findByRoomIdAndIdLessThanOrderByIdDesc(int roomId, int before, Pageable pageable);
+
+    /**
+     * findBySubmittedAtGreaterThanEqualAndSubmittedAtLessThanOrderBySubmittedAtAsc Method: Returns the room
+     * statuses submitted in the half-open range [from, to), oldest first, as a range scan of the
+     * submitted_at index.
+     * @param from start of the range, inclusive
+     * @param to end of the range, exclusive
+     * @return the list of room status objects submitted within the range
+     */
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true"))
+    List<RoomStatus> findBySubmittedAtGreaterThanEqualAndSubmittedAtLessThanOrderBySubmittedAtAsc(Instant from, Instant to);
+
+    /**
+     * findBySubmittedAtIsNullAndIdGreaterThanOrderByIdAsc Method: Returns the next room statuses that were
+     * written before submittedAt existed, in id order, so they can be backfilled a chunk at a time.
+     * @param after id of the last status of the previous chunk
+     * @param pageable chunk size to fetch
+     * @return the next room statuses without a submittedAt
+     */
+    List<RoomStatus> findBySubmittedAtIsNullAndIdGreaterThanOrderByIdAsc(int after, Pageable pageable);
+
+    /**
+     * streamExportRows Method: Streams every live room status, in id order, flattened into export rows together
+     * with the ids of its room, building and campus. The rows are DTOs, so they never enter the persistence
+     * context, and are fetched from the cursor 1000 at a time. The stream must be closed.
+     * @return the stream of export rows
+     */
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new com.revature.rms.campus.DTO.RoomStatusExportRow(s.id, r.id, b.id, c.id, s.submittedAt, " +
+            "s.whiteBoardCleaned, s.chairsOrdered, s.submitterId) " +
+            "from RoomStatus s left join s.room r left join r.building b left join b.campus c order by s.id")
+    Stream<RoomStatusExportRow> streamExportRows();
+}
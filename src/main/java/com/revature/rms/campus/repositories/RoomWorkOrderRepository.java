@@ -0,0 +1,31 @@
+package com.revature.rms.campus.repositories;
+
+import com.revature.rms.campus.entities.RoomWorkOrder;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface RoomWorkOrderRepository extends CrudRepository<RoomWorkOrder, RoomWorkOrder.Key> {
+
+    /**
+     * findByWorkOrderIn Method: Returns the (workOrder, roomId) pairs of the given work orders, read from the
+     * primary key, which leads with work_order.
+     * @param workOrders work order ids
+     * @return one row per room that lists one of the work orders
+     */
+    List<RoomWorkOrder> findByWorkOrderIn(Collection<Integer> workOrders);
+
+    /**
+     * deleteByRoomId Method: Removes the index rows of a room before its work orders are indexed again.
+     * Backed by the room_id index.
+     * @param roomId id of the room
+     * @return number of index rows removed
+     */
+    @Modifying
+    @Query("delete from RoomWorkOrder w where w.roomId = :roomId")
+    int deleteByRoomId(@Param("roomId") int roomId);
+}
@@ -0,0 +1,62 @@
+package com.revature.rms.campus.services;
+
+import java.util.function.Supplier;
+
+/**
+ * Holds, per thread, whether the current request asked for deactivated campuses, buildings and rooms too. By
+ * default read-only service methods only see active resources, through the "activeOnly" Hibernate filter that
+ * ActiveFilterAspect enables on their session; a request with ?includeInactive=true turns that off for its
+ * duration (see IncludeInactiveRequestFilter).
+ */
+public final class ActiveFilter {
+
+    /**
+     * Name of the Hibernate filter declared in the entities package.
+     */
+    public static final String NAME = "activeOnly";
+
+    private static final ThreadLocal<Boolean> INCLUDE_INACTIVE = ThreadLocal.withInitial(() -> false);
+
+    private ActiveFilter() {
+    }
+
+    /**
+     * isIncludingInactive method: Tells whether inactive resources are visible on this thread.
+     *
+     * @return true when the active-only filter is turned off
+     */
+    public static boolean isIncludingInactive() {
+        return INCLUDE_INACTIVE.get();
+    }
+
+    /**
+     * setIncludingInactive method: Sets whether inactive resources are visible on this thread. Callers restore
+     * the returned previous setting when they are done, in a finally block.
+     *
+     * @param includeInactive whether inactive resources should be returned
+     * @return the previous setting
+     */
+    public static boolean setIncludingInactive(boolean includeInactive) {
+        boolean previous = INCLUDE_INACTIVE.get();
+        INCLUDE_INACTIVE.set(includeInactive);
+        return previous;
+    }
+
+    /**
+     * includingInactive method: Runs the work with inactive resources visible or not, and restores the previous
+     * setting afterwards. Used to carry a request's setting onto the thread that writes an async response.
+     *
+     * @param includeInactive whether inactive resources should be returned
+     * @param work the work to run
+     * @param <T> the type of the result
+     * @return the result of the work
+     */
+    public static <T> T includingInactive(boolean includeInactive, Supplier<T> work) {
+        boolean previous = setIncludingInactive(includeInactive);
+        try {
+            return work.get();
+        } finally {
+            setIncludingInactive(previous);
+        }
+    }
+}
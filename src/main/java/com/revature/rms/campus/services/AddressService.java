@@ -0,0 +1,68 @@
+package com.revature.rms.campus.services;
+
+import com.revature.rms.campus.entities.Address;
+import com.revature.rms.campus.repositories.AddressRepository;
+import com.revature.rms.core.exceptions.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Resolves addresses to their canonical row, so that campuses and buildings at the same street address share
+ * one ADDRESS row instead of each inserting a copy.
+ */
+@Service
+public class AddressService {
+
+    @Autowired
+    private AddressRepository addressRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * canonical method: Returns the stored row of an address, inserting it when no identical address exists yet.
+     * The fields are normalized and hashed first (see Address.canonicalize) and the row is looked up by its hash.
+     * A new row is inserted in a transaction of its own, so that when another request inserts the same address
+     * first, the unique hash index rejects only that insert and the winner's row is read back instead: an upsert
+     * that works on any database. An address that already has an id is returned as it is.
+     *
+     * @param address the address as sent by the client
+     * @return the canonical address, or null when address is null
+     */
+    public Address canonical(Address address) {
+        if (address == null || address.getId() != 0) {
+            return address;
+        }
+
+        address.canonicalize();
+        if (isBlank(address.getUnitStreet()) || isBlank(address.getCity()) || isBlank(address.getState())
+                || isBlank(address.getZip()) || isBlank(address.getCountry())) {
+            throw new InvalidRequestException("Address must have a street, city, state, zip and country!");
+        }
+
+        Address stored = addressRepository.findByContentHash(address.getContentHash());
+        if (stored != null) {
+            return stored;
+        }
+
+        TransactionTemplate requiresNew = new TransactionTemplate(transactionManager);
+        requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        try {
+            return requiresNew.execute(status -> addressRepository.save(address));
+        } catch (DataIntegrityViolationException e) {
+            stored = addressRepository.findByContentHash(address.getContentHash());
+            if (stored == null) {
+                throw e;
+            }
+            return stored;
+        }
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isEmpty();
+    }
+}
@@ -4,15 +4,32 @@ import com.revature.rms.campus.entities.*;
 import com.revature.rms.core.metadata.*;
 import com.revature.rms.core.exceptions.*;
 
+import com.revature.rms.campus.exceptions.VersionConflictException;
+import com.revature.rms.campus.repositories.AmenityRepository;
 import com.revature.rms.campus.repositories.BuildingRepository;
+import com.revature.rms.campus.repositories.RoomRepository;
+import com.revature.rms.campus.repositories.RoomStatusRepository;
+import com.revature.rms.campus.DTO.BuildingDTO;
+import com.revature.rms.campus.DTO.KeysetPage;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * The methods in this service call to methods from the buildingRepository in order to give the basic CRUD features to
@@ -22,22 +39,60 @@ import java.util.Optional;
 @Service
 public class BuildingService {
 
+    /**
+     * Fields of a building that a merge patch may change.
+     */
+    private static final Set<String> PATCHABLE_FIELDS = new HashSet<>(Arrays.asList("name", "abbrName", "trainingLead"));
+
     @Autowired
     private BuildingRepository buildingRepository;
 
+    @Autowired
+    private RoomStatusRepository roomStatusRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private AmenityRepository amenityRepository;
+
+    @Autowired
+    private AddressService addressService;
+
+    @Autowired
+    private ChangeFeedService changeFeedService;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
     /**
-     * Save Method: Saves a new building object to the database.
+     * Save Method: Saves a new building object to the database, together with its address if that is new.
      *
      * @param building
      * @return The new saved building object
      */
     @Transactional
+    @Sharded(Sharded.Key.BUILDING)
     public Building save(Building building) {
 
         if (building == null) {
             throw new ResourcePersistenceException("Null building cannot be saved!");
         }
-        return buildingRepository.save(building);
+        // buildings at the same address share its row
+        building.setPhysicalAddress(addressService.canonical(building.getPhysicalAddress()));
+        Building persisted = buildingRepository.save(building);
+        if (building.getAmenities() != null && !building.getAmenities().isEmpty()) {
+            for (Amenity amenity : building.getAmenities()) {
+                amenity.setBuilding(persisted);
+            }
+            // ids come from a pooled sequence, so the amenities are written as one JDBC batch on flush
+            amenityRepository.saveAll(building.getAmenities());
+        }
+        changeFeedService.record(OutboxEvent.Resource.BUILDING, persisted.getId(), OutboxEvent.Action.CREATED);
+        return persisted;
     }
 
     /**
@@ -46,14 +101,67 @@ public class BuildingService {
      * @return a list of all the buildings
      */
     @Transactional(readOnly = true)
+    @FanOut
     public List<Building> findAll() {
 
         Iterable<Building> b = buildingRepository.findAll();
         List<Building> list = getListFromIterator(b);
-        return list;
+        return FetchPlans.buildings(list, roomStatusRepository);
 
     }
 
+    /**
+     * findAllAsDTO method: returns every building, with its amenities and rooms, as a BuildingDTO read
+     * straight from the query. No building or room entity is loaded into the persistence context.
+     *
+     * @return a list of all the buildings as DTOs
+     */
+    @Transactional(readOnly = true)
+    @FanOut
+    public List<BuildingDTO> findAllAsDTO() {
+        return Projections.buildings(buildingRepository.findAllAsDTO(), roomRepository, amenityRepository, roomStatusRepository);
+    }
+
+    /**
+     * streamAll method: hands every building on to the sink, in id order, a chunk of
+     * FetchPlans.STREAM_CHUNK_SIZE buildings at a time. The buildings are read from an open cursor and each
+     * chunk is cleared from the persistence context once the sink returns, so memory stays flat
+     * however many buildings there are and the first chunk is available right away.
+     *
+     * @param sink receives each chunk of fully loaded buildings; they are detached once it returns
+     */
+    @Transactional(readOnly = true)
+    @FanOut
+    public void streamAll(Consumer<List<Building>> sink) {
+        try (Stream<Building> buildings = buildingRepository.streamAllByOrderByIdAsc()) {
+            FetchPlans.inChunks(buildings, entityManager, chunk -> sink.accept(FetchPlans.buildings(chunk, roomStatusRepository)));
+        }
+    }
+
+    /**
+     * findPage method: returns one page of buildings ordered by id, starting after the given cursor.
+     * The page is found by seeking on the primary key, so deep pages cost the same as the first one.
+     *
+     * @param after id of the last building on the previous page, 0 for the first page
+     * @param limit number of buildings on the page, between 1 and KeysetPage.MAX_LIMIT
+     * @return a page of buildings with the cursor for the next page
+     */
+    @Transactional(readOnly = true)
+    @FanOut
+    public KeysetPage<Building> findPage(int after, int limit) {
+
+        if (after < 0) {
+            throw new InvalidRequestException("Cursor cannot be less than zero!");
+        }
+
+        if (limit <= 0 || limit > KeysetPage.MAX_LIMIT) {
+            throw new InvalidRequestException("Limit must be between 1 and " + KeysetPage.MAX_LIMIT + "!");
+        }
+
+        List<Building> rows = buildingRepository.findByIdGreaterThanOrderByIdAsc(after, PageRequest.of(0, limit + 1));
+        return KeysetPage.of(FetchPlans.buildings(rows, roomStatusRepository), limit, Building::getId);
+    }
+
     /**
      * findById Method: Finds a building using the buildingRepository and the
      * building's ID.
@@ -62,6 +170,7 @@ public class BuildingService {
      * @return the building object with the same building id as the input parameter.
      */
     @Transactional(readOnly = true)
+    @Sharded(Sharded.Key.BUILDING)
     public Optional<Building> findById(int id) {
 
         if (id <= 0) {
@@ -73,7 +182,7 @@ public class BuildingService {
             throw new ResourceNotFoundException("No building found by that id!");
         }
 
-        return theBuilding;
+        return theBuilding.map(building -> FetchPlans.building(building, roomStatusRepository));
     }
 
     /**
@@ -83,11 +192,13 @@ public class BuildingService {
      * @return the room object with the same room number as the input parameter.
      */
     @Transactional(readOnly = true)
+    @FanOut
     public Building findByName(String name) {
         if (name == null) {
             throw new InvalidRequestException("Null value entered for name!");
         }
-        return buildingRepository.findByName(name);
+        Building building = buildingRepository.findByName(name);
+        return (building == null) ? null : FetchPlans.building(building, roomStatusRepository);
     }
 
     /**
@@ -97,23 +208,34 @@ public class BuildingService {
      * @return List of buildings
      */
     @Transactional(readOnly = true)
+    @FanOut
     public List<Building> findAllBuildingsByOwnerId(Integer id){
+        return findAllBuildingsByOwnerId(id, null);
+    }
+
+    /**
+     * findAllBuildingsByOwnerId method: Retrieves list of Buildings owned by an app user, optionally narrowed down
+     * to active or inactive buildings.
+     *
+     * @param id ID of the app user
+     * @param active currentlyActive flag to filter by, or null for both active and inactive buildings
+     * @return List of buildings
+     */
+    @Transactional(readOnly = true)
+    @IncludeInactive
+    @FanOut
+    public List<Building> findAllBuildingsByOwnerId(Integer id, Boolean active){
 
         if(id <= 0){
             throw new InvalidRequestException("Id cannot be less than or equal to zero!");
         }
-        Iterable<Building> allBuildings = buildingRepository.findAll();
-        List<Building> buildings = new ArrayList<Building>();
-        for (Building build : allBuildings){
-            ResourceMetadata metadata = build.getResourceMetadata();
-            if(metadata.getResourceOwner() == id){
-                buildings.add(build);
-            }
-        }
+        List<Building> buildings = (active == null)
+                ? buildingRepository.findByResourceMetadataResourceOwner(id)
+                : buildingRepository.findByResourceMetadataResourceOwnerAndResourceMetadataCurrentlyActive(id, active);
         if(buildings.isEmpty()){
             throw new ResourceNotFoundException("The list of buildings is empty!");
         }
-        return buildings;
+        return FetchPlans.buildings(buildings, roomStatusRepository);
     }
 
     /**
@@ -124,41 +246,105 @@ public class BuildingService {
      * @return Updated/Modified room object
      */
     @Transactional
+    @Sharded(Sharded.Key.BUILDING)
     public Building update(Building building) {
+        return update(building, null);
+    }
+
+    /**
+     * Update Method: Overwrites the name, abbreviation, address and training lead of the building with a single
+     * conditional UPDATE statement, instead of reading the old building and saving a merged copy. The campus,
+     * amenities, rooms and metadata other than lastModifiedDateTime are kept. A new address is resolved to its
+     * canonical row first.
+     *
+     * @param building building holding the id and the new values
+     * @param expectedVersion version the building must still have, or null to update it unconditionally
+     * @return Updated/Modified building object
+     */
+    @Transactional
+    @Sharded(Sharded.Key.BUILDING)
+    public Building update(Building building, Long expectedVersion) {
 
         if (building == null) {
             throw new InvalidRequestException("Null value entered for building!");
         }
 
-        Building oldBuilding;
-        oldBuilding = buildingRepository.findById(building.getId()).get();
+        if (building.getPhysicalAddress() == null) {
+            throw new InvalidRequestException("Building address cannot be null!");
+        }
 
-        building.setCampus(oldBuilding.getCampus());
-        building.setResourceMetadata(oldBuilding.getResourceMetadata());
+        Address address = building.getPhysicalAddress();
+        if (address.getId() == 0) {
+            address = addressService.canonical(address);
+        }
 
-        building.setResourceMetadata(oldBuilding.getResourceMetadata());
+        // change the last modifier to the logged in user's id when authentication is implemented
+        int updated = buildingRepository.updateDetails(building.getId(), (expectedVersion == null) ? -1 : expectedVersion,
+                building.getName(), building.getAbbrName(), address, building.getTrainingLead(), LocalDateTime.now().toString());
 
-        building.getResourceMetadata().setLastModifiedDateTime(LocalDateTime.now().toString());
+        if (updated == 0) {
+            if (!buildingRepository.existsById(building.getId())) {
+                throw new ResourceNotFoundException("No building found by that id!");
+            }
+            throw new VersionConflictException("Building " + building.getId() + " was modified by someone else, reload it and try again!");
+        }
+        changeFeedService.record(OutboxEvent.Resource.BUILDING, building.getId(), OutboxEvent.Action.UPDATED);
+        return FetchPlans.building(buildingRepository.findById(building.getId()).get(), roomStatusRepository);
+    }
 
-        // change to the logged in user's id when authentication is implemented
-        building.getResourceMetadata().setLastModifier(oldBuilding.getResourceMetadata().getLastModifier());
+    /**
+     * patch Method: Applies a JSON Merge Patch to the building. Only the name, abbreviation and training lead can be patched. The
+     * building is only written when a sent value differs from the stored one; then Hibernate updates just the
+     * changed columns (the entity has @DynamicUpdate) and lastModifiedDateTime is stamped. A patch that changes
+     * nothing issues no UPDATE and leaves lastModifiedDateTime and the version alone.
+     *
+     * @param id id of the building
+     * @param patch the merge patch document
+     * @param expectedVersion version the building must still have, or null to patch it unconditionally
+     * @return the patched building
+     */
+    @Transactional
+    @Sharded(Sharded.Key.BUILDING)
+    public Building patch(int id, JsonNode patch, Long expectedVersion) {
+        if (id <= 0) {
+            throw new InvalidRequestException("ID cannot be less than or equal to zero!");
+        }
+
+        Building building = buildingRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("No building found by that id!"));
+        if (expectedVersion != null && building.getVersion() != expectedVersion) {
+            throw new VersionConflictException("Building " + id + " was modified by someone else, reload it and try again!");
+        }
 
-        return buildingRepository.save(building);
+        if (MergePatch.apply(objectMapper, building, patch, PATCHABLE_FIELDS)) {
+            building.getResourceMetadata().setLastModifiedDateTime(LocalDateTime.now().toString());
+            changeFeedService.record(OutboxEvent.Resource.BUILDING, id, OutboxEvent.Action.UPDATED);
+        }
+        return FetchPlans.building(building, roomStatusRepository);
     }
 
     /**
-     * Delete Method: Deletes a building by its ID in the database.
+     * Delete Method: Soft deletes a building by its ID. The building and every room in it are deactivated
+     * by two bulk UPDATE statements in one transaction, the same way CampusService.delete retires a campus.
      *
      * @param id
-     * @return The deleted building object.
      */
     @Transactional
+    @Sharded(Sharded.Key.BUILDING)
     public void delete(int id) {
 
         if (id <= 0) {
             throw new InvalidRequestException("Id cannot be less than or equal to zero!");
         }
-        buildingRepository.deleteById(id);
+
+        String modified = LocalDateTime.now().toString();
+
+        if (buildingRepository.deactivateById(id, modified) == 0) {
+            throw new ResourceNotFoundException("No building found by that id!");
+        }
+
+        roomRepository.deactivateByBuildingId(id, modified);
+        // one event for the building; consumers know its rooms went with it
+        changeFeedService.record(OutboxEvent.Resource.BUILDING, id, OutboxEvent.Action.DEACTIVATED);
     }
 
     /**
@@ -168,11 +354,12 @@ public class BuildingService {
      * @return The building object.
      */
     @Transactional(readOnly = true)
+    @FanOut
     public Building findByTrainingLeadId(int id) {
         if (id <= 0) throw new InvalidRequestException("Id cannot be less than or equal to zero!");
         Building temp = buildingRepository.findByTrainingLead(id);
         if (temp == null) throw new ResourceNotFoundException("No training lead found!");
-        else return temp;
+        else return FetchPlans.building(temp, roomStatusRepository);
     }
 
     /**
@@ -0,0 +1,467 @@
+package com.revature.rms.campus.services;
+
+import com.revature.rms.campus.entities.Building;
+import com.revature.rms.campus.entities.Campus;
+import com.revature.rms.campus.entities.Room;
+import com.revature.rms.core.exceptions.*;
+import com.revature.rms.campus.DTO.ImportReport;
+import com.revature.rms.campus.config.ShardDirectory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Loads whole campus trees, or the rooms of existing buildings, from a single upload. The upload is parsed as a
+ * stream, so only the rows of the chunk being written are held in memory. Campuses and buildings are written one
+ * by one through CampusService.save and BuildingService.save; rooms are collected into chunks of IMPORT_CHUNK_SIZE
+ * and each chunk is written in one transaction by RoomService.saveAll, where hibernate.jdbc.batch_size turns the
+ * inserts into JDBC batches. Rows that fail validation, or that the database refuses, are reported in the
+ * ImportReport instead of aborting the upload.
+ */
+@Service
+public class CampusImportService {
+
+    /**
+     * Number of rooms written per transaction.
+     */
+    static final int IMPORT_CHUNK_SIZE = 500;
+
+    /**
+     * Columns of a CSV import. Each line describes one room of an existing building, named in the building column;
+     * workOrders is an optional list of ids separated by semicolons.
+     */
+    static final List<String> CSV_COLUMNS = Arrays.asList("building", "roomNumber", "maxOccupancy", "batchId", "workOrders");
+
+    private static final List<String> REQUIRED_CSV_COLUMNS = Arrays.asList("building", "roomNumber", "maxOccupancy", "batchId");
+
+    /**
+     * Fields of an uploaded row that are ignored, since every imported row is new and gets its own id and version.
+     */
+    private static final Set<String> IGNORED_FIELDS = new HashSet<>(Arrays.asList("id", "version"));
+
+    @Autowired
+    private CampusService campusService;
+
+    @Autowired
+    private BuildingService buildingService;
+
+    @Autowired
+    private RoomService roomService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Only present when sharding is configured (see ShardingConfig).
+     */
+    @Autowired(required = false)
+    private ShardDirectory shardDirectory;
+
+    /**
+     * importJson method: Imports a JSON array of campuses, each in the same shape the campus endpoints return, with
+     * its buildings nested under "buildings" and their rooms under "rooms". A campus or building is written as soon
+     * as its nested array starts, so its own fields must come first; campus fields that follow the buildings (as
+     * corporateEmployees does in the service's own output) are applied as a merge patch afterwards. When a campus or
+     * building is rejected, everything nested in it is skipped.
+     *
+     * @param json the upload
+     * @return what was written and which rows were rejected
+     */
+    public ImportReport importJson(InputStream json) {
+        ImportReport report = new ImportReport();
+        RoomChunk rooms = new RoomChunk(report);
+        try (JsonParser parser = objectMapper.getFactory().createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new InvalidRequestException("A JSON import must be an array of campuses!");
+            }
+            forEachObject(parser, "", report, row -> importCampus(parser, row, report, rooms));
+        } catch (IOException e) {
+            report.reject("/", "The rest of the upload could not be read: " + messageOf(e));
+        }
+        rooms.flush();
+        return report;
+    }
+
+    /**
+     * importCsv method: Imports rooms from CSV. The first line is a header naming the columns, in any order, out of
+     * CSV_COLUMNS. Values may be quoted with double quotes, but a value may not span lines.
+     *
+     * @param csv the upload, encoded as UTF-8
+     * @return what was written and which rows were rejected
+     */
+    public ImportReport importCsv(InputStream csv) {
+        ImportReport report = new ImportReport();
+        RoomChunk rooms = new RoomChunk(report);
+        Map<String, Optional<Building>> buildingsByName = new HashMap<>();
+        int lineNumber = 1;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8))) {
+            List<String> columns = csvHeader(reader.readLine());
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+
+                String row = "line " + lineNumber;
+                List<String> values = splitCsvLine(line);
+                if (values.size() != columns.size()) {
+                    report.reject(row, "Expected " + columns.size() + " values but found " + values.size());
+                    continue;
+                }
+
+                ObjectNode fields = objectMapper.createObjectNode();
+                String buildingName = null;
+                for (int i = 0; i < columns.size(); i++) {
+                    String value = values.get(i).trim();
+                    if ("building".equals(columns.get(i))) {
+                        buildingName = value;
+                    } else if ("workOrders".equals(columns.get(i))) {
+                        ArrayNode workOrders = fields.putArray("workOrders");
+                        for (String workOrder : value.split(";")) {
+                            if (!workOrder.trim().isEmpty()) {
+                                workOrders.add(workOrder.trim());
+                            }
+                        }
+                    } else {
+                        fields.put(columns.get(i), value);
+                    }
+                }
+
+                Building building = buildingsByName
+                        .computeIfAbsent(buildingName, name -> Optional.ofNullable(buildingService.findByName(name)))
+                        .orElse(null);
+                if (building == null) {
+                    report.reject(row, "No building named " + buildingName + " was found!");
+                    continue;
+                }
+                rooms.add(row, fields, building);
+            }
+        } catch (IOException e) {
+            report.reject("line " + lineNumber, "The rest of the upload could not be read: " + messageOf(e));
+        }
+        rooms.flush();
+        return report;
+    }
+
+    private void importCampus(JsonParser parser, String row, ImportReport report, RoomChunk rooms) throws IOException {
+        ObjectNode fields = objectMapper.createObjectNode();
+        ObjectNode trailing = objectMapper.createObjectNode();
+        Campus campus = null;
+        boolean written = false;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if ("buildings".equals(name) && value == JsonToken.START_ARRAY && !written) {
+                campus = createCampus(fields, row, report);
+                written = true;
+                Campus parent = campus;
+                forEachObject(parser, row + "/buildings", report, buildingRow -> {
+                    if (parent == null) {
+                        skipRejectedParent(parser, buildingRow, row, report);
+                    } else {
+                        importBuilding(parser, parent, buildingRow, report, rooms);
+                    }
+                });
+            } else if (IGNORED_FIELDS.contains(name) || "buildings".equals(name)) {
+                parser.skipChildren();
+            } else {
+                (written ? trailing : fields).set(name, parser.readValueAsTree());
+            }
+        }
+
+        if (!written) {
+            createCampus(fields, row, report);
+        } else if (campus != null && trailing.size() > 0) {
+            try {
+                campusService.patch(campus.getId(), trailing, null);
+            } catch (RuntimeException e) {
+                report.reject(row, "The campus was written, but the fields after its buildings were not: " + messageOf(e));
+            }
+        }
+    }
+
+    private void importBuilding(JsonParser parser, Campus campus, String row, ImportReport report, RoomChunk rooms) throws IOException {
+        ObjectNode fields = objectMapper.createObjectNode();
+        ObjectNode trailing = objectMapper.createObjectNode();
+        Building building = null;
+        boolean written = false;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if ("rooms".equals(name) && value == JsonToken.START_ARRAY && !written) {
+                building = createBuilding(fields, campus, row, report);
+                written = true;
+                Building parent = building;
+                forEachObject(parser, row + "/rooms", report, roomRow -> {
+                    if (parent == null) {
+                        skipRejectedParent(parser, roomRow, row, report);
+                    } else {
+                        rooms.add(roomRow, parser.readValueAsTree(), parent);
+                    }
+                });
+            } else if (IGNORED_FIELDS.contains(name) || "rooms".equals(name)) {
+                parser.skipChildren();
+            } else {
+                (written ? trailing : fields).set(name, parser.readValueAsTree());
+            }
+        }
+
+        if (!written) {
+            createBuilding(fields, campus, row, report);
+        } else if (building != null && trailing.size() > 0) {
+            try {
+                buildingService.patch(building.getId(), trailing, null);
+            } catch (RuntimeException e) {
+                report.reject(row, "The building was written, but the fields after its rooms were not: " + messageOf(e));
+            }
+        }
+    }
+
+    private Campus createCampus(ObjectNode fields, String row, ImportReport report) {
+        try {
+            Campus campus = objectMapper.treeToValue(fields, Campus.class);
+            requireText(campus.getName(), "name");
+            requireText(campus.getAbbrName(), "abbrName");
+            if (campus.getShippingAddress() == null) {
+                throw new InvalidRequestException("shippingAddress is required!");
+            }
+
+            Campus persisted = campusService.save(campus);
+            report.setCampuses(report.getCampuses() + 1);
+            return persisted;
+        } catch (JsonProcessingException | RuntimeException e) {
+            report.reject(row, messageOf(e));
+            return null;
+        }
+    }
+
+    private Building createBuilding(ObjectNode fields, Campus campus, String row, ImportReport report) {
+        try {
+            Building building = objectMapper.treeToValue(fields, Building.class);
+            requireText(building.getName(), "name");
+            requireText(building.getAbbrName(), "abbrName");
+            if (building.getPhysicalAddress() == null) {
+                throw new InvalidRequestException("physicalAddress is required!");
+            }
+            building.setCampus(campus);
+
+            Building persisted = buildingService.save(building);
+            report.setBuildings(report.getBuildings() + 1);
+            return persisted;
+        } catch (JsonProcessingException | RuntimeException e) {
+            report.reject(row, messageOf(e));
+            return null;
+        }
+    }
+
+    /**
+     * Calls the reader once for every element of the array the parser is positioned on, with the parser on the
+     * element's START_OBJECT and the element's JSON pointer. Elements that are not objects are rejected.
+     */
+    private void forEachObject(JsonParser parser, String pointer, ImportReport report, ElementReader reader) throws IOException {
+        int index = 0;
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token == null) {
+                throw new JsonParseException(parser, "Unexpected end of the upload");
+            }
+
+            String row = pointer + "/" + index++;
+            if (token == JsonToken.START_OBJECT) {
+                reader.read(row);
+            } else {
+                parser.skipChildren();
+                report.reject(row, "Expected an object");
+            }
+        }
+    }
+
+    private void skipRejectedParent(JsonParser parser, String row, String parentRow, ImportReport report) throws IOException {
+        parser.skipChildren();
+        report.reject(row, "Skipped because " + parentRow + " was rejected");
+    }
+
+    private List<String> csvHeader(String header) {
+        if (header == null) {
+            throw new InvalidRequestException("A CSV import must start with a header line!");
+        }
+
+        List<String> columns = new ArrayList<>();
+        for (String column : splitCsvLine(header)) {
+            columns.add(column.trim());
+        }
+        for (String column : columns) {
+            if (!CSV_COLUMNS.contains(column)) {
+                throw new InvalidRequestException("Unknown CSV column " + column + ", expected some of " + CSV_COLUMNS);
+            }
+        }
+        if (!columns.containsAll(REQUIRED_CSV_COLUMNS)) {
+            throw new InvalidRequestException("A CSV import needs the columns " + REQUIRED_CSV_COLUMNS);
+        }
+        return columns;
+    }
+
+    /**
+     * Splits one CSV line on commas. A value wrapped in double quotes may contain commas, and a doubled quote
+     * inside it stands for one quote.
+     */
+    static List<String> splitCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        values.add(value.toString());
+        return values;
+    }
+
+    private static void requireText(String value, String field) {
+        if (value == null || value.trim().isEmpty()) {
+            throw new InvalidRequestException(field + " is required!");
+        }
+    }
+
+    private static String messageOf(Exception e) {
+        if (e instanceof JsonProcessingException) {
+            return ((JsonProcessingException) e).getOriginalMessage();
+        }
+        return NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+    }
+
+    @FunctionalInterface
+    private interface ElementReader {
+        void read(String row) throws IOException;
+    }
+
+    /**
+     * Rooms waiting to be written. Each room is validated as it is added, and the fields it was read from are kept
+     * so that, when the database refuses a chunk, the chunk's rooms can be rebuilt and written one at a time to find
+     * the rows at fault. With sharding configured a chunk is written per shard, since RoomService.saveAll would
+     * otherwise commit each shard's part on its own and a failure on one shard would leave the others written.
+     */
+    private class RoomChunk {
+
+        private final ImportReport report;
+
+        private final List<String> rows = new ArrayList<>(IMPORT_CHUNK_SIZE);
+
+        private final List<ObjectNode> fields = new ArrayList<>(IMPORT_CHUNK_SIZE);
+
+        private final List<Building> buildings = new ArrayList<>(IMPORT_CHUNK_SIZE);
+
+        RoomChunk(ImportReport report) {
+            this.report = report;
+        }
+
+        void add(String row, ObjectNode room, Building building) {
+            IGNORED_FIELDS.forEach(room::remove);
+            try {
+                Room parsed = toRoom(room, building);
+                requireText(parsed.getRoomNumber(), "roomNumber");
+                if (parsed.getMaxOccupancy() <= 0) {
+                    throw new InvalidRequestException("maxOccupancy must be greater than zero!");
+                }
+            } catch (JsonProcessingException | RuntimeException e) {
+                report.reject(row, messageOf(e));
+                return;
+            }
+
+            rows.add(row);
+            fields.add(room);
+            buildings.add(building);
+            if (rows.size() == IMPORT_CHUNK_SIZE) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (rows.isEmpty()) {
+                return;
+            }
+
+            Map<Integer, List<Integer>> byShard = new LinkedHashMap<>();
+            for (int i = 0; i < rows.size(); i++) {
+                int shard = (shardDirectory == null) ? 0 : shardDirectory.shardOf(Sharded.Key.BUILDING, buildings.get(i));
+                byShard.computeIfAbsent(shard, key -> new ArrayList<>()).add(i);
+            }
+            for (List<Integer> part : byShard.values()) {
+                write(part);
+            }
+            rows.clear();
+            fields.clear();
+            buildings.clear();
+        }
+
+        /**
+         * Writes the rooms at the given positions of the chunk, all on one shard, in one transaction.
+         */
+        private void write(List<Integer> part) {
+            try {
+                List<Room> chunk = new ArrayList<>(part.size());
+                for (int i : part) {
+                    chunk.add(toRoom(fields.get(i), buildings.get(i)));
+                }
+                roomService.saveAll(chunk);
+                report.setRooms(report.getRooms() + chunk.size());
+            } catch (JsonProcessingException | RuntimeException chunkFailure) {
+                // the whole part was rolled back; write its rooms one at a time to find the rows at fault
+                for (int i : part) {
+                    try {
+                        roomService.saveAll(Collections.singletonList(toRoom(fields.get(i), buildings.get(i))));
+                        report.setRooms(report.getRooms() + 1);
+                    } catch (JsonProcessingException | RuntimeException e) {
+                        report.reject(rows.get(i), messageOf(e));
+                    }
+                }
+            }
+        }
+
+        private Room toRoom(ObjectNode room, Building building) throws JsonProcessingException {
+            Room parsed = objectMapper.treeToValue(room, Room.class);
+            parsed.setBuilding(building);
+            return parsed;
+        }
+    }
+}
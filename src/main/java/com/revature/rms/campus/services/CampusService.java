@@ -1,33 +1,63 @@
 package com.revature.rms.campus.services;
 
 
-import com.revature.rms.campus.entities.Address;
 import com.revature.rms.campus.entities.Campus;
+import com.revature.rms.campus.entities.OutboxEvent;
 import com.revature.rms.core.metadata.*;
 import com.revature.rms.core.exceptions.*;
-import com.revature.rms.campus.repositories.AddressRepository;
+import com.revature.rms.campus.exceptions.VersionConflictException;
+import com.revature.rms.campus.repositories.BuildingRepository;
 import com.revature.rms.campus.repositories.CampusRepository;
+import com.revature.rms.campus.repositories.RoomRepository;
+import com.revature.rms.campus.repositories.RoomStatusRepository;
+import com.revature.rms.campus.DTO.KeysetPage;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
- * The methods in this service call to methods from the campusRepository, addressRepository, metadataService and metadataRepository in order to give the basic CRUD features to
+ * The methods in this service call to methods from the campusRepository, addressService, metadataService and metadataRepository in order to give the basic CRUD features to
  * the application. The methods in this service are custom as a result of TDD.
  */
 @Service
 public class CampusService {
 
+    /**
+     * Fields of a campus that a merge patch may change.
+     */
+    private static final Set<String> PATCHABLE_FIELDS = new HashSet<>(Arrays.asList("name", "abbrName", "trainingManagerId", "stagingManagerId", "hrLead", "corporateEmployees"));
+
     @Autowired
     private CampusRepository campusRepository;
 
     @Autowired
-    private AddressRepository addressRepository;
+    private AddressService addressService;
+
+    @Autowired
+    private ChangeFeedService changeFeedService;
+
+    @Autowired
+    private BuildingRepository buildingRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private RoomStatusRepository roomStatusRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
 
     /**
      *  save Method: saves a Campus object to the database.
@@ -36,6 +66,7 @@ public class CampusService {
      * @return The persisted Campus object with its specific serialized id.
      */
     @Transactional
+    @Sharded(Sharded.Key.CAMPUS)
     public Campus save(Campus campus) {
         if (campus == null) {
             throw new InvalidRequestException("Cannot save null campus!");
@@ -45,9 +76,10 @@ public class CampusService {
             throw new ResourcePersistenceException("Campus with that name already exists");
         }
 
-        Address address = addressRepository.save(campus.getShippingAddress());
-        campus.setShippingAddress(address);
+        // campuses at the same address share its row
+        campus.setShippingAddress(addressService.canonical(campus.getShippingAddress()));
         Campus persisted = campusRepository.save(campus);
+        changeFeedService.record(OutboxEvent.Resource.CAMPUS, persisted.getId(), OutboxEvent.Action.CREATED);
         return persisted;
     }
 
@@ -57,10 +89,35 @@ public class CampusService {
      * @return An arraylist of Campus Objects.
      */
     @Transactional(readOnly = true)
+    @FanOut
     public List<Campus> findAll() {
         Iterable<Campus> r = campusRepository.findAll();
         List<Campus> list = getListFromIterator(r);
-        return list;
+        return FetchPlans.campuses(list, roomStatusRepository);
+    }
+
+    /**
+     * findPage method: returns one page of campuses ordered by id, starting after the given cursor.
+     * The page is found by seeking on the primary key, so deep pages cost the same as the first one.
+     *
+     * @param after id of the last campus on the previous page, 0 for the first page
+     * @param limit number of campuses on the page, between 1 and KeysetPage.MAX_LIMIT
+     * @return a page of campuses with the cursor for the next page
+     */
+    @Transactional(readOnly = true)
+    @FanOut
+    public KeysetPage<Campus> findPage(int after, int limit) {
+
+        if (after < 0) {
+            throw new InvalidRequestException("Cursor cannot be less than zero!");
+        }
+
+        if (limit <= 0 || limit > KeysetPage.MAX_LIMIT) {
+            throw new InvalidRequestException("Limit must be between 1 and " + KeysetPage.MAX_LIMIT + "!");
+        }
+
+        List<Campus> rows = campusRepository.findByIdGreaterThanOrderByIdAsc(after, PageRequest.of(0, limit + 1));
+        return KeysetPage.of(FetchPlans.campuses(rows, roomStatusRepository), limit, Campus::getId);
     }
 
     /**
@@ -70,6 +127,7 @@ public class CampusService {
      * @return
      */
     @Transactional(readOnly = true)
+    @Sharded(Sharded.Key.CAMPUS)
     public Campus findById(int id) {
 
         if (id <= 0) {
@@ -81,7 +139,7 @@ public class CampusService {
             throw new  ResourceNotFoundException("No campus found by that ID!");
         }
 
-        return _campus.get();
+        return FetchPlans.campus(_campus.get(), roomStatusRepository);
     }
 
     /**
@@ -91,6 +149,7 @@ public class CampusService {
      * @return Returns a list of Campus Objects.
      */
     @Transactional(readOnly = true)
+    @FanOut
     public List<Campus> findByTrainingManagerId(Integer id) {
         if (id <= 0) {
             throw new InvalidRequestException("ID cannot be less than or equal to zero!");
@@ -99,7 +158,7 @@ public class CampusService {
         List<Campus> campus = campusRepository.findByTrainingManagerId(id);
 
         if (campus.size() == 0) throw new ResourceNotFoundException("No campus found with training-manager id " + id);
-        else return campus;
+        else return FetchPlans.campuses(campus, roomStatusRepository);
     }
 
     /**
@@ -109,6 +168,7 @@ public class CampusService {
      * @return Returns a list of Campus Objects.
      */
     @Transactional(readOnly = true)
+    @FanOut
     public List<Campus> findByStagingManagerId(Integer id) {
         if (id <= 0) {
             throw new InvalidRequestException("ID cannot be less than or equal to zero!");
@@ -117,7 +177,7 @@ public class CampusService {
         List<Campus> campus = campusRepository.findByStagingManagerId(id);
 
         if (campus.size() == 0) throw new ResourceNotFoundException("No campus found with staging-manager id " + id);
-        else return campus;
+        else return FetchPlans.campuses(campus, roomStatusRepository);
     }
 
     /**
@@ -127,23 +187,34 @@ public class CampusService {
      * @return List of campuses
      */
     @Transactional(readOnly = true)
+    @FanOut
     public List<Campus> findByResourceOwnerId(Integer id){
+        return findByResourceOwnerId(id, null);
+    }
+
+    /**
+     * findByResourceOwnerId method: finds a list of campuses that match the resource owner ID field of a campus object,
+     * optionally narrowed down to active or inactive campuses.
+     *
+     * @param id Id of the app user
+     * @param active currentlyActive flag to filter by, or null for both active and inactive campuses
+     * @return List of campuses
+     */
+    @Transactional(readOnly = true)
+    @IncludeInactive
+    @FanOut
+    public List<Campus> findByResourceOwnerId(Integer id, Boolean active){
 
         if(id <= 0){
             throw new InvalidRequestException("ID cannot be less than or equal to zero!");
         }
-        Iterable<Campus> allCampuses = campusRepository.findAll();
-        List<Campus> campuses = new ArrayList<Campus>();
-        for(Campus campus : allCampuses){
-            ResourceMetadata data = campus.getResourceMetadata();
-            if(data.getResourceOwner() == id){
-                campuses.add(campus);
-            }
-        }
+        List<Campus> campuses = (active == null)
+                ? campusRepository.findByResourceMetadataResourceOwner(id)
+                : campusRepository.findByResourceMetadataResourceOwnerAndResourceMetadataCurrentlyActive(id, active);
         if(campuses.isEmpty()){
             throw new ResourceNotFoundException("No campuses found for that owner!");
         }
-        return campuses;
+        return FetchPlans.campuses(campuses, roomStatusRepository);
     }
 
     /**
@@ -153,13 +224,15 @@ public class CampusService {
      * @return Returns a campus Object.
      */
     @Transactional(readOnly = true)
+    @FanOut
     public Campus findByName(String name) {
 
         if (name == null || name == "") {
             throw new InvalidRequestException("Name cannot be null or empty!");
         }
 
-        return campusRepository.findByName(name);
+        Campus campus = campusRepository.findByName(name);
+        return (campus == null) ? null : FetchPlans.campus(campus, roomStatusRepository);
     }
 
 
@@ -170,38 +243,99 @@ public class CampusService {
      * @return Returns the modified Campus Object.
      */
     @Transactional
+    @Sharded(Sharded.Key.CAMPUS)
     public Campus update(Campus campus) {
+        return update(campus, null);
+    }
+
+    /**
+     * update Method: updates fields of a campus object in the database. With an expected version the campus is
+     * only updated if it still has that version, which Hibernate checks while merging and again in the WHERE
+     * clause of the UPDATE; a stale version ends in an ObjectOptimisticLockingFailureException (409). Without
+     * one the update applies on top of the current version, read from the second-level cache.
+     *
+     * @param campus Campus object
+     * @param expectedVersion version the campus must still have, or null to update it unconditionally
+     * @return Returns the modified Campus Object.
+     */
+    @Transactional
+    @Sharded(Sharded.Key.CAMPUS)
+    public Campus update(Campus campus, Long expectedVersion) {
 
         if (campus == null) {
             throw new InvalidRequestException("Campus cannot be null!");
         }
 
-        return campusRepository.save(campus);
+        if (expectedVersion != null) {
+            campus.setVersion(expectedVersion);
+        } else {
+            Campus current = campusRepository.findById(campus.getId())
+                    .orElseThrow(() -> new ResourceNotFoundException("No campus with id " + campus.getId() + " was found!"));
+            campus.setVersion(current.getVersion());
+        }
+        campus.setShippingAddress(addressService.canonical(campus.getShippingAddress()));
+
+        Campus persisted = campusRepository.save(campus);
+        changeFeedService.record(OutboxEvent.Resource.CAMPUS, persisted.getId(), OutboxEvent.Action.UPDATED);
+        return FetchPlans.campus(persisted, roomStatusRepository);
     }
 
     /**
-     * delete Method: deletes a Campus object by its ID.
+     * patch Method: Applies a JSON Merge Patch to the campus. Only the name, abbreviation, managers, HR lead and corporate employees can be patched. The
+     * campus is only written when a sent value differs from the stored one; then Hibernate updates just the
+     * changed columns (the entity has @DynamicUpdate) and lastModifiedDateTime is stamped. A patch that changes
+     * nothing issues no UPDATE and leaves lastModifiedDateTime and the version alone.
+     *
+     * @param id id of the campus
+     * @param patch the merge patch document
+     * @param expectedVersion version the campus must still have, or null to patch it unconditionally
+     * @return the patched campus
+     */
+    @Transactional
+    @Sharded(Sharded.Key.CAMPUS)
+    public Campus patch(int id, JsonNode patch, Long expectedVersion) {
+        if (id <= 0) {
+            throw new InvalidRequestException("ID cannot be less than or equal to zero!");
+        }
+
+        Campus campus = campusRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("No campus with id " + id + " was found!"));
+        if (expectedVersion != null && campus.getVersion() != expectedVersion) {
+            throw new VersionConflictException("Campus " + id + " was modified by someone else, reload it and try again!");
+        }
+
+        if (MergePatch.apply(objectMapper, campus, patch, PATCHABLE_FIELDS)) {
+            campus.getResourceMetadata().setLastModifiedDateTime(LocalDateTime.now().toString());
+            changeFeedService.record(OutboxEvent.Resource.CAMPUS, id, OutboxEvent.Action.UPDATED);
+        }
+        return FetchPlans.campus(campus, roomStatusRepository);
+    }
+
+    /**
+     * delete Method: soft deletes a Campus by its ID. The campus, its buildings and the rooms in those buildings
+     * are all deactivated by three bulk UPDATE statements in one transaction, so the cost does not grow with the
+     * size of the campus.
      *
      * @param id int value that is used to find the Campus Object.
      * @return Returns the boolean value of true.
      */
     @Transactional
+    @Sharded(Sharded.Key.CAMPUS)
     public boolean delete(int id) {
 
         if (id <= 0) {
             throw new InvalidRequestException("ID cannot be less than or equal to zero!");
         }
 
-        Optional<Campus> campus = campusRepository.findById(id);
+        String modified = LocalDateTime.now().toString();
 
-        if (!campus.isPresent()) {
+        if (campusRepository.deactivateById(id, modified) == 0) {
             throw new ResourceNotFoundException("No campus with id " + id + " was found!");
         }
 
-        campus.get().getResourceMetadata().setCurrentlyActive(false);
-        campus.get().getResourceMetadata().setLastModifiedDateTime(LocalDateTime.now().toString());
-
-        campusRepository.save(campus.get());
+        buildingRepository.deactivateByCampusId(id, modified);
+        roomRepository.deactivateByCampusId(id, modified);
+        // one event for the campus; consumers know its buildings and rooms went with it
+        changeFeedService.record(OutboxEvent.Resource.CAMPUS, id, OutboxEvent.Action.DEACTIVATED);
         return true;
     }
 
@@ -0,0 +1,142 @@
+package com.revature.rms.campus.services;
+
+import com.revature.rms.campus.DTO.KeysetPage;
+import com.revature.rms.campus.config.ShardDirectory;
+import com.revature.rms.campus.entities.OutboxEvent;
+import com.revature.rms.campus.repositories.OutboxEventRepository;
+import com.revature.rms.core.exceptions.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Records the changes made by CampusService, BuildingService and RoomService in the outbox and serves them as an
+ * ordered change feed, so that other services can sync incrementally instead of re-reading every list. An event
+ * enters the feed once OutboxSequencer has given it a position, usually within a second of its commit.
+ * <p>
+ * With sharding configured every shard numbers its own outbox, so there is no single order to serve and the feed
+ * is refused rather than serving the changes of one shard as if they were all of them.
+ */
+@Service
+public class ChangeFeedService {
+
+    /**
+     * Number of events given a position per transaction.
+     */
+    public static final int SEQUENCE_CHUNK_SIZE = 1000;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    /**
+     * Only present when sharding is configured (see ShardingConfig).
+     */
+    @Autowired(required = false)
+    private ShardDirectory shardDirectory;
+
+    /**
+     * record method: Writes an event to the outbox. It must run in the transaction making the change, so that
+     * the event commits or rolls back with it.
+     *
+     * @param resourceType the kind of resource that changed
+     * @param resourceId id of the resource
+     * @param action what happened to it
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(OutboxEvent.Resource resourceType, int resourceId, OutboxEvent.Action action) {
+        outboxEventRepository.save(new OutboxEvent(resourceType, resourceId, action, Instant.now()));
+    }
+
+    /**
+     * sequence method: Gives the committed events that have none yet the next positions of the feed, oldest first.
+     * Positions are unique, so should two sequencers number different events at once, one of them fails and its
+     * events are numbered by the next run.
+     *
+     * @return the number of events sequenced, SEQUENCE_CHUNK_SIZE when more may be waiting
+     */
+    @Transactional
+    @FanOut
+    public int sequence() {
+        List<OutboxEvent> events = outboxEventRepository.findUnsequenced(PageRequest.of(0, SEQUENCE_CHUNK_SIZE));
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        Integer last = outboxEventRepository.findLastPosition();
+        int position = (last == null) ? 0 : last;
+        for (OutboxEvent event : events) {
+            event.setPosition(++position);
+        }
+        return events.size();
+    }
+
+    /**
+     * findChanges method: Returns the events after the given position, in feed order. Pass the nextCursor of the
+     * previous page as after to resume; nextCursor is null once the consumer has caught up, and the position of
+     * its last event is where to continue from later.
+     *
+     * @param after position of the last event the consumer has seen, 0 to start at the beginning
+     * @param limit number of events on the page, between 1 and KeysetPage.MAX_LIMIT
+     * @return a page of events with the cursor for the next page
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<OutboxEvent> findChanges(int after, int limit) {
+
+        rejectWhenSharded();
+
+        if (after < 0) {
+            throw new InvalidRequestException("Cursor cannot be less than zero!");
+        }
+
+        if (limit <= 0 || limit > KeysetPage.MAX_LIMIT) {
+            throw new InvalidRequestException("Limit must be between 1 and " + KeysetPage.MAX_LIMIT + "!");
+        }
+
+        Integer first = outboxEventRepository.findFirstPosition();
+        if (first != null && after < first - 1) {
+            throw new InvalidRequestException("Changes after position " + after + " are no longer kept, "
+                    + "read the lists again and continue from the current head!");
+        }
+
+        List<OutboxEvent> rows = outboxEventRepository.findByPositionGreaterThanOrderByPositionAsc(after, PageRequest.of(0, limit + 1));
+        return KeysetPage.of(rows, limit, OutboxEvent::getPosition);
+    }
+
+    /**
+     * findHead method: Returns the position of the newest event in the feed. A new consumer notes it before
+     * reading the lists, then follows the feed from there.
+     *
+     * @return the position, 0 when the feed is empty
+     */
+    @Transactional(readOnly = true)
+    public int findHead() {
+        rejectWhenSharded();
+        Integer last = outboxEventRepository.findLastPosition();
+        return (last == null) ? 0 : last;
+    }
+
+    /**
+     * prune method: Removes sequenced events that occurred before the cutoff. Consumers whose cursor falls before
+     * the oldest kept event are told to read the lists again. The newest sequenced event is always kept, since
+     * sequence numbers on from it and would otherwise hand out positions consumers have already passed.
+     *
+     * @param cutoff events that occurred before this instant are removed
+     * @return the number of events removed
+     */
+    @Transactional
+    @FanOut
+    public int prune(Instant cutoff) {
+        return outboxEventRepository.deleteSequencedBefore(cutoff);
+    }
+
+    private void rejectWhenSharded() {
+        if (shardDirectory != null) {
+            throw new InvalidRequestException("The change feed is not available while sharding is configured!");
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.revature.rms.campus.services;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a service method that is not tied to one campus, such as a listing or a maintenance job, so that with
+ * sharding configured it runs on every shard, each in a transaction of its own, and the results are merged (see
+ * ShardAspect): lists are concatenated, maps of lists are joined key by key, counts are added up, keyset pages are
+ * merged by id, and a single result is taken from the first shard that has one. A ResourceNotFoundException is
+ * only thrown when every shard threw one.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface FanOut {
+}
@@ -0,0 +1,143 @@
+package com.revature.rms.campus.services;
+
+import com.revature.rms.campus.entities.Building;
+import com.revature.rms.campus.entities.Campus;
+import com.revature.rms.campus.entities.Room;
+import com.revature.rms.campus.entities.RoomStatus;
+import com.revature.rms.campus.repositories.RoomStatusRepository;
+import org.hibernate.Hibernate;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Loads the parts of the Campus -> Building -> Room -> RoomStatus graph that the JSON representation walks, while the
+ * service transaction is still open. Open Session In View is turned off, so anything not loaded here would fail during
+ * serialization instead of silently issuing one query per row.
+ *
+ * The addresses come in with the root query through the named entity graphs on the repositories, and every collection
+ * on the graph is mapped with FetchMode.SUBSELECT. Touching a collection on one parent therefore loads that collection
+ * for every parent from the same query in a single statement. The latest statuses of every room on the graph are then
+ * read with one more statement, so each endpoint runs one statement per level of the tree no matter how many rows it
+ * returns. The room ids of that statement are bound ID_CHUNK_SIZE at a time, so a very long list takes one statement
+ * per chunk instead.
+ *
+ * Streamed rows are not read by a single list query, so there is no subselect to reuse for them. They are prepared a
+ * chunk at a time instead, and the collections fall back to @BatchSize loading of up to 100 parents per statement.
+ */
+final class FetchPlans {
+
+    /**
+     * Number of statuses carried in Room.currentStatus. The full history is paged through RoomService.findStatusHistory.
+     */
+    static final int LATEST_STATUSES = 5;
+
+    /**
+     * Number of streamed rows that are prepared, handed on and then cleared from the persistence context at a time.
+     * Matches the JDBC fetch size of the streaming repository queries.
+     */
+    static final int STREAM_CHUNK_SIZE = 500;
+
+    /**
+     * Largest number of room ids bound into one IN list when reading the latest statuses, so that no statement
+     * runs into the bind parameter limit of the database however many rooms a list returns.
+     */
+    static final int ID_CHUNK_SIZE = 500;
+
+    private FetchPlans() {
+    }
+
+    /**
+     * Hands the rows of an open stream on a chunk at a time, clearing the persistence context after each chunk so
+     * that memory stays flat however many rows the stream returns. The entities of a chunk are detached once the
+     * sink returns, so the sink must be done with them by then.
+     */
+    static <T> void inChunks(Stream<T> rows, EntityManager entityManager, Consumer<List<T>> chunkSink) {
+        Iterator<T> iterator = rows.iterator();
+        List<T> chunk = new ArrayList<>(STREAM_CHUNK_SIZE);
+        while (iterator.hasNext()) {
+            chunk.add(iterator.next());
+            if (chunk.size() == STREAM_CHUNK_SIZE || !iterator.hasNext()) {
+                chunkSink.accept(chunk);
+                entityManager.clear();
+                chunk = new ArrayList<>(STREAM_CHUNK_SIZE);
+            }
+        }
+    }
+
+    static Campus campus(Campus campus, RoomStatusRepository statuses) {
+        campuses(Collections.singletonList(campus), statuses);
+        return campus;
+    }
+
+    static <T extends Iterable<Campus>> T campuses(T campuses, RoomStatusRepository statuses) {
+        List<Building> buildings = new ArrayList<>();
+        for (Campus campus : campuses) {
+            if (campus.getBuildings() != null) {
+                buildings.addAll(campus.getBuildings());
+            }
+        }
+        buildings(buildings, statuses);
+        return campuses;
+    }
+
+    static Building building(Building building, RoomStatusRepository statuses) {
+        buildings(Collections.singletonList(building), statuses);
+        return building;
+    }
+
+    static <T extends Iterable<Building>> T buildings(T buildings, RoomStatusRepository statuses) {
+        List<Room> rooms = new ArrayList<>();
+        for (Building building : buildings) {
+            Hibernate.initialize(building.getAmenities());
+            if (building.getRooms() != null) {
+                rooms.addAll(building.getRooms());
+            }
+        }
+        rooms(rooms, statuses);
+        return buildings;
+    }
+
+    static Room room(Room room, RoomStatusRepository statuses) {
+        rooms(Collections.singletonList(room), statuses);
+        return room;
+    }
+
+    static <T extends Iterable<Room>> T rooms(T rooms, RoomStatusRepository statuses) {
+        Map<Integer, Room> roomsById = new LinkedHashMap<>();
+        for (Room room : rooms) {
+            room.setCurrentStatus(new ArrayList<>());
+            roomsById.put(room.getId(), room);
+        }
+
+        if (roomsById.isEmpty()) {
+            return rooms;
+        }
+
+        for (RoomStatus status : latestStatuses(roomsById.keySet(), statuses)) {
+            roomsById.get(status.getRoom().getId()).addRoomStatus(status);
+        }
+        return rooms;
+    }
+
+    /**
+     * Reads the latest statuses of the given rooms, ID_CHUNK_SIZE rooms per statement, newest first within each room.
+     */
+    static List<RoomStatus> latestStatuses(Collection<Integer> roomIds, RoomStatusRepository statuses) {
+        List<Integer> ids = new ArrayList<>(roomIds);
+        List<RoomStatus> latest = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += ID_CHUNK_SIZE) {
+            List<Integer> chunk = ids.subList(from, Math.min(from + ID_CHUNK_SIZE, ids.size()));
+            latest.addAll(statuses.findLatestByRoomIds(chunk, LATEST_STATUSES));
+        }
+        return latest;
+    }
+}
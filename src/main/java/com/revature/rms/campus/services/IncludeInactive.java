@@ -0,0 +1,15 @@
+package com.revature.rms.campus.services;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a read-only service method that always sees inactive resources, because it filters on
+ * currentlyActive itself or must export every row.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface IncludeInactive {
+}
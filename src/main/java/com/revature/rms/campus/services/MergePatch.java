@@ -0,0 +1,81 @@
+package com.revature.rms.campus.services;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.revature.rms.core.exceptions.InvalidRequestException;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Applies a JSON Merge Patch (RFC 7386) to a managed entity. Only the listed top-level fields may be patched, and
+ * since every one of them is a required column, a null (which would remove the field) is rejected. The patch is
+ * only copied onto the entity when at least one value, read as the type of its property, actually differs, so
+ * re-submitting unchanged values leaves the entity clean and Hibernate issues no UPDATE at all. With @DynamicUpdate on the entity, a real change writes just
+ * the changed columns.
+ */
+final class MergePatch {
+
+    private MergePatch() {
+    }
+
+    /**
+     * apply method: Applies the patch to the target.
+     *
+     * @param objectMapper mapper used to read the patched values
+     * @param target managed entity to patch
+     * @param patch the merge patch document
+     * @param patchable names of the fields that may be patched
+     * @return true when a value changed, false when the patch was a no-op
+     */
+    static boolean apply(ObjectMapper objectMapper, Object target, JsonNode patch, Set<String> patchable) {
+        if (patch == null || !patch.isObject()) {
+            throw new InvalidRequestException("A merge patch must be a JSON object!");
+        }
+
+        BeanWrapper current = PropertyAccessorFactory.forBeanPropertyAccess(target);
+        boolean changed = false;
+        Iterator<Map.Entry<String, JsonNode>> fields = patch.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            if (!patchable.contains(field.getKey())) {
+                throw new InvalidRequestException(field.getKey() + " cannot be patched!");
+            }
+            if (field.getValue().isNull()) {
+                throw new InvalidRequestException(field.getKey() + " cannot be removed!");
+            }
+            changed |= !Objects.equals(patchedValue(objectMapper, current, field), current.getPropertyValue(field.getKey()));
+        }
+
+        if (!changed) {
+            return false;
+        }
+
+        try {
+            objectMapper.readerForUpdating(target).readValue(patch);
+        } catch (IOException e) {
+            throw new InvalidRequestException("Merge patch does not match the resource: " + e.getMessage());
+        }
+        return true;
+    }
+
+    /**
+     * Reads a patched value as the type of the property it replaces, so that e.g. 24.0 or "24" for an int
+     * property compares equal to a stored 24, just as Jackson would bind it.
+     */
+    private static Object patchedValue(ObjectMapper objectMapper, BeanWrapper current, Map.Entry<String, JsonNode> field) {
+        JavaType type = objectMapper.constructType(
+                current.getPropertyTypeDescriptor(field.getKey()).getResolvableType().getType());
+        try {
+            return objectMapper.convertValue(field.getValue(), type);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Merge patch does not match the resource: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.revature.rms.campus.services;
+
+import com.revature.rms.campus.DTO.BuildingDTO;
+import com.revature.rms.campus.DTO.RoomDTO;
+import com.revature.rms.campus.entities.Amenity;
+import com.revature.rms.campus.entities.RoomStatus;
+import com.revature.rms.campus.repositories.AmenityRepository;
+import com.revature.rms.campus.repositories.RoomRepository;
+import com.revature.rms.campus.repositories.RoomStatusRepository;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fills in the collections of RoomDTOs and BuildingDTOs that were read with constructor expressions. Each
+ * collection is read for the whole list with one statement and attached by id, the DTO counterpart of
+ * FetchPlans, so a list endpoint runs the same fixed number of statements no matter how many rows it returns.
+ */
+final class Projections {
+
+    private Projections() {
+    }
+
+    static List<RoomDTO> rooms(List<RoomDTO> rooms, RoomStatusRepository statuses) {
+        Map<Integer, RoomDTO> roomsById = new LinkedHashMap<>();
+        for (RoomDTO room : rooms) {
+            roomsById.put(room.getId(), room);
+        }
+
+        if (roomsById.isEmpty()) {
+            return rooms;
+        }
+
+        for (RoomStatus status : FetchPlans.latestStatuses(roomsById.keySet(), statuses)) {
+            roomsById.get(status.getRoom().getId()).getRoomStatus().add(status);
+        }
+        return rooms;
+    }
+
+    static List<BuildingDTO> buildings(List<BuildingDTO> buildings, RoomRepository roomRepository,
+                                       AmenityRepository amenityRepository, RoomStatusRepository statuses) {
+        Map<Integer, BuildingDTO> buildingsById = new LinkedHashMap<>();
+        for (BuildingDTO building : buildings) {
+            buildingsById.put(building.getId(), building);
+        }
+
+        if (buildingsById.isEmpty()) {
+            return buildings;
+        }
+
+        for (Amenity amenity : amenityRepository.findByBuildingIdIn(buildingsById.keySet())) {
+            buildingsById.get(amenity.getBuilding().getId()).getAmenities().add(amenity);
+        }
+        List<RoomDTO> rooms = rooms(roomRepository.findAsDTOByBuildingIds(buildingsById.keySet()), statuses);
+        for (RoomDTO room : rooms) {
+            buildingsById.get(room.getBuilding_id()).getRooms().add(room);
+        }
+        return buildings;
+    }
+}
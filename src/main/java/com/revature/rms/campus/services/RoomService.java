@@ -1,19 +1,55 @@
 package com.revature.rms.campus.services;
 
+import com.revature.rms.campus.entities.IntList;
+import com.revature.rms.campus.entities.OutboxEvent;
 import com.revature.rms.campus.entities.Room;
 import com.revature.rms.campus.entities.RoomStatus;
+import com.revature.rms.campus.entities.RoomStatusDailySummary;
+import com.revature.rms.campus.entities.RoomWorkOrder;
 import com.revature.rms.core.metadata.*;
 import com.revature.rms.core.exceptions.*;
 import com.revature.rms.campus.repositories.RoomRepository;
+import com.revature.rms.campus.repositories.RoomStatusArchiveRepository;
+import com.revature.rms.campus.repositories.RoomStatusDailySummaryRepository;
 import com.revature.rms.campus.repositories.RoomStatusRepository;
+import com.revature.rms.campus.repositories.RoomWorkOrderRepository;
+import com.revature.rms.campus.DTO.KeysetPage;
+import com.revature.rms.campus.DTO.RoomDTO;
+import com.revature.rms.campus.DTO.RoomStatusExportRow;
+import com.revature.rms.campus.exceptions.VersionConflictException;
+import com.revature.rms.campus.config.ShardDirectory;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.parquet.hadoop.ParquetWriter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * The methods in this service call to methods from the roomRepository, roomStatusRepository, metadataService and metadataRepository in order to give the basic CRUD features to
@@ -23,12 +59,44 @@ import java.util.Optional;
 @Service
 public class RoomService {
 
+    /**
+     * Fields of a room that a merge patch may change.
+     */
+    private static final Set<String> PATCHABLE_FIELDS = new HashSet<>(Arrays.asList("roomNumber", "maxOccupancy", "batchId", "workOrders"));
+
     @Autowired
     private RoomRepository roomRepository;
 
     @Autowired
     private RoomStatusRepository roomStatusRepository;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private RoomStatusArchiveRepository roomStatusArchiveRepository;
+
+    @Autowired
+    private RoomStatusDailySummaryRepository roomStatusDailySummaryRepository;
+
+    @Autowired
+    private RoomWorkOrderRepository roomWorkOrderRepository;
+
+    @Autowired
+    private ChangeFeedService changeFeedService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Only present when sharding is configured (see ShardingConfig).
+     */
+    @Autowired(required = false)
+    private ShardDirectory shardDirectory;
+
     /**
      * Save Method: Takes in a room object as the input. It is then saved or persisted
      * to the database.
@@ -37,14 +105,57 @@ public class RoomService {
      * @return The new saved room object
      */
     @Transactional
+    @Sharded(Sharded.Key.ROOM)
     public Room save(Room room){
         if(room == null){
             throw new ResourceNotFoundException("Room cannot be null!");
         }
+        OutboxEvent.Action action = OutboxEvent.Action.CREATED;
+        if (room.getId() != 0) {
+            // save also overwrites existing rooms, whose old index rows must go first
+            roomWorkOrderRepository.deleteByRoomId(room.getId());
+            action = OutboxEvent.Action.UPDATED;
+        }
         Room persisted = roomRepository.save(room);
+        indexWorkOrders(persisted);
+        changeFeedService.record(OutboxEvent.Resource.ROOM, persisted.getId(), action);
         for (RoomStatus status: room.getCurrentStatus()) {
             status.setRoom(persisted);
-            saveStatus(status);
+        }
+        // ids come from a pooled sequence, so the statuses are written as one JDBC batch on flush
+        roomStatusRepository.saveAll(room.getCurrentStatus());
+        return persisted;
+    }
+
+    /**
+     * saveAll Method: Saves a chunk of new rooms, and any statuses they carry, in one transaction. With the
+     * configured hibernate.jdbc.batch_size the inserts are sent to the database in batches on flush.
+     *
+     * @param rooms the new rooms
+     * @return the saved rooms
+     */
+    @Transactional
+    @Sharded(Sharded.Key.ROOM)
+    public List<Room> saveAll(List<Room> rooms) {
+        if (rooms == null) {
+            throw new ResourceNotFoundException("Rooms cannot be null!");
+        }
+        List<Room> persisted = new ArrayList<>(rooms.size());
+        roomRepository.saveAll(rooms).forEach(persisted::add);
+
+        List<RoomStatus> statuses = new ArrayList<>();
+        for (Room room : persisted) {
+            indexWorkOrders(room);
+            changeFeedService.record(OutboxEvent.Resource.ROOM, room.getId(), OutboxEvent.Action.CREATED);
+            if (room.getCurrentStatus() != null) {
+                for (RoomStatus status : room.getCurrentStatus()) {
+                    status.setRoom(room);
+                    statuses.add(status);
+                }
+            }
+        }
+        if (!statuses.isEmpty()) {
+            roomStatusRepository.saveAll(statuses);
         }
         return persisted;
     }
@@ -55,10 +166,63 @@ public class RoomService {
      * @return a list of all the rooms
      */
     @Transactional(readOnly = true)
+    @FanOut
     public List<Room> findAll(){
             Iterable<Room> r = roomRepository.findAll();
             List<Room> list = getListFromIterator(r);
-            return list;
+            return FetchPlans.rooms(list, roomStatusRepository);
+    }
+
+    /**
+     * findAllAsDTO method: returns every room as a RoomDTO read straight from the query. No room entity
+     * is loaded into the persistence context, which keeps large lists cheap to read and serialize.
+     *
+     * @return a list of all the rooms as DTOs
+     */
+    @Transactional(readOnly = true)
+    @FanOut
+    public List<RoomDTO> findAllAsDTO(){
+        return Projections.rooms(roomRepository.findAllAsDTO(), roomStatusRepository);
+    }
+
+    /**
+     * streamAll method: hands every room on to the sink, in id order, a chunk of
+     * FetchPlans.STREAM_CHUNK_SIZE rooms at a time. The rooms are read from an open cursor and each
+     * chunk is cleared from the persistence context once the sink returns, so memory stays flat
+     * however many rooms there are and the first chunk is available right away.
+     *
+     * @param sink receives each chunk of fully loaded rooms; they are detached once it returns
+     */
+    @Transactional(readOnly = true)
+    @FanOut
+    public void streamAll(Consumer<List<Room>> sink) {
+        try (Stream<Room> rooms = roomRepository.streamAllByOrderByIdAsc()) {
+            FetchPlans.inChunks(rooms, entityManager, chunk -> sink.accept(FetchPlans.rooms(chunk, roomStatusRepository)));
+        }
+    }
+
+    /**
+     * findPage method: returns one page of rooms ordered by id, starting after the given cursor.
+     * The page is found by seeking on the primary key, so deep pages cost the same as the first one.
+     *
+     * @param after id of the last room on the previous page, 0 for the first page
+     * @param limit number of rooms on the page, between 1 and KeysetPage.MAX_LIMIT
+     * @return a page of rooms with the cursor for the next page
+     */
+    @Transactional(readOnly = true)
+    @FanOut
+    public KeysetPage<Room> findPage(int after, int limit) {
+
+        if (after < 0) {
+            throw new InvalidRequestException("Cursor cannot be less than zero!");
+        }
+
+        if (limit <= 0 || limit > KeysetPage.MAX_LIMIT) {
+            throw new InvalidRequestException("Limit must be between 1 and " + KeysetPage.MAX_LIMIT + "!");
+        }
+
+        List<Room> rows = roomRepository.findByIdGreaterThanOrderByIdAsc(after, PageRequest.of(0, limit + 1));
+        return KeysetPage.of(FetchPlans.rooms(rows, roomStatusRepository), limit, Room::getId);
     }
 
     /**
@@ -69,6 +233,7 @@ public class RoomService {
      * @return The specific room with the given id
      */
     @Transactional(readOnly = true)
+    @Sharded(Sharded.Key.ROOM)
     public Optional<Room> findById(int id){
         if (id <= 0) {
             throw new InvalidRequestException("ID cannot be less than or equal to zero!");
@@ -78,7 +243,7 @@ public class RoomService {
         if(!_room.isPresent()){
             throw new ResourceNotFoundException("No room found with that ID!");
         }
-        return _room;
+        return _room.map(room -> FetchPlans.room(room, roomStatusRepository));
     }
 
     /**
@@ -90,6 +255,7 @@ public class RoomService {
      * @return the room object with the same room number as the input parameter.
      */
     @Transactional(readOnly = true)
+    @FanOut
     public Optional<Room> findByRoomNumber(String roomNum){
         if (roomNum.isEmpty() || (Integer.parseInt(roomNum) <= 0)) {
             throw new InvalidRequestException("Room number cannot be less than or equal to zero!");
@@ -100,7 +266,7 @@ public class RoomService {
         if(!_room.isPresent()) {
             throw new ResourceNotFoundException("Room with that room number does not exist!");
         }
-        return _room;
+        return _room.map(room -> FetchPlans.room(room, roomStatusRepository));
     }
 
     /**
@@ -112,9 +278,10 @@ public class RoomService {
      * @return a list of all the rooms with the specified occupancy.
      */
     @Transactional(readOnly = true)
+    @FanOut
     public List<Room> findByMaxOccupancy(int occupancy){
 
-        return roomRepository.findByMaxOccupancy(occupancy);
+        return FetchPlans.rooms(roomRepository.findByMaxOccupancy(occupancy), roomStatusRepository);
     }
 
     /**
@@ -123,23 +290,34 @@ public class RoomService {
      * @param id ID of the owner
      * @return List of rooms
      */
-    @Transactional
+    @Transactional(readOnly = true)
+    @FanOut
     public List<Room> findByResourceOwner(Integer id){
+        return findByResourceOwner(id, null);
+    }
+
+    /**
+     * findByResourceOwner: Takes the ID of an appuser, and finds a list of rooms they own, optionally
+     * narrowed down to active or inactive rooms.
+     *
+     * @param id ID of the owner
+     * @param active currentlyActive flag to filter by, or null for both active and inactive rooms
+     * @return List of rooms
+     */
+    @Transactional(readOnly = true)
+    @IncludeInactive
+    @FanOut
+    public List<Room> findByResourceOwner(Integer id, Boolean active){
         if(id <= 0){
             throw new InvalidRequestException("ID cannot be less than or equal to zero!");
         }
-        Iterable<Room> allRooms = roomRepository.findAll();
-        List<Room> rooms = new ArrayList<Room>();
-        for(Room room : allRooms){
-            ResourceMetadata data = room.getResourceMetadata();
-            if(data.getResourceOwner() == id){
-                rooms.add(room);
-            }
-        }
+        List<Room> rooms = (active == null)
+                ? roomRepository.findByResourceMetadataResourceOwner(id)
+                : roomRepository.findByResourceMetadataResourceOwnerAndResourceMetadataCurrentlyActive(id, active);
         if(rooms.isEmpty()){
             throw new ResourceNotFoundException("No room found by that resource owner!");
         }
-        return rooms;
+        return FetchPlans.rooms(rooms, roomStatusRepository);
     }
 
     /**
@@ -150,48 +328,109 @@ public class RoomService {
      * @return Updated/Modified room object
      */
     @Transactional
+    @Sharded(Sharded.Key.ROOM)
     public Room update(Room room){
-        Room oldRoom;
-        oldRoom = roomRepository.findById(room.getId()).get();
-
-
-        room.setBuilding(oldRoom.getBuilding());
-        room.setCurrentStatus(oldRoom.getCurrentStatus()); // TODO append list of RoomStatuses by updated room's roomstatus
-        room.setWorkOrders(oldRoom.getWorkOrders());
-        room.setResourceMetadata(oldRoom.getResourceMetadata());
-        room.setBatchId(oldRoom.getBatchId());
+        return update(room, null);
+    }
 
-        room.getResourceMetadata().setLastModifiedDateTime(LocalDateTime.now().toString());
-        room.getResourceMetadata().setResourceCreator(oldRoom.getResourceMetadata().getResourceCreator());
-        room.getResourceMetadata().setResourceCreationDateTime(oldRoom.getResourceMetadata().getResourceCreationDateTime());
-        room.getResourceMetadata().setLastModifier(oldRoom.getResourceMetadata().getLastModifier());
-        room.getResourceMetadata().setResourceOwner(oldRoom.getResourceMetadata().getResourceOwner());
-        room.getResourceMetadata().setCurrentlyActive(oldRoom.getResourceMetadata().isCurrentlyActive());
+    /**
+     * Update Method: Overwrites the room number and maximum occupancy of the room with a single
+     * conditional UPDATE statement, instead of reading the old room and saving a merged copy. The
+     * building, statuses, work orders, batch and metadata other than lastModifiedDateTime are kept.
+     *
+     * @param room room holding the id and the new values
+     * @param expectedVersion version the room must still have, or null to update it unconditionally
+     * @return Updated/Modified room object
+     */
+    @Transactional
+    @Sharded(Sharded.Key.ROOM)
+    public Room update(Room room, Long expectedVersion){
+        if (room == null) {
+            throw new InvalidRequestException("Room cannot be null!");
+        }
 
-        return roomRepository.save(room);
+        int updated = roomRepository.updateDetails(room.getId(), anyVersionIfNull(expectedVersion), room.getRoomNumber(),
+                room.getMaxOccupancy(), LocalDateTime.now().toString());
+        return afterConditionalUpdate(room.getId(), updated);
     }
 
     @Transactional
+    @Sharded(Sharded.Key.ROOM)
     public Room updateRoomNumber(Room room) {
+        return updateRoomNumber(room, null);
+    }
 
-        Room oldRoom;
-        oldRoom = roomRepository.findById(room.getId()).get();
+    /**
+     * updateRoomNumber Method: Changes only the number of the room, with a single conditional UPDATE statement.
+     *
+     * @param room room holding the id and the new room number
+     * @param expectedVersion version the room must still have, or null to update it unconditionally
+     * @return Updated/Modified room object
+     */
+    @Transactional
+    @Sharded(Sharded.Key.ROOM)
+    public Room updateRoomNumber(Room room, Long expectedVersion) {
+        if (room == null) {
+            throw new InvalidRequestException("Room cannot be null!");
+        }
 
-        room.setMaxOccupancy(oldRoom.getMaxOccupancy());
-        room.setCurrentStatus(oldRoom.getCurrentStatus()); // TODO append list of RoomStatuses by updated room's roomstatus
-        room.setBatchId(oldRoom.getBatchId());
-        room.setWorkOrders(oldRoom.getWorkOrders());
-        room.setBuilding(oldRoom.getBuilding());
+        int updated = roomRepository.updateRoomNumber(room.getId(), anyVersionIfNull(expectedVersion), room.getRoomNumber(),
+                LocalDateTime.now().toString());
+        return afterConditionalUpdate(room.getId(), updated);
+    }
 
-        room.setResourceMetadata(oldRoom.getResourceMetadata());
-        ResourceMetadata resourceMetadata = oldRoom.getResourceMetadata();
+    /**
+     * afterConditionalUpdate Method: Reads the room back after a conditional update, or explains why no
+     * row was updated. The existence check only runs on that failure path.
+     */
+    private Room afterConditionalUpdate(int id, int updated) {
+        if (updated == 0) {
+            if (!roomRepository.existsById(id)) {
+                throw new ResourceNotFoundException("No room found with that ID!");
+            }
+            throw new VersionConflictException("Room " + id + " was modified by someone else, reload it and try again!");
+        }
+        changeFeedService.record(OutboxEvent.Resource.ROOM, id, OutboxEvent.Action.UPDATED);
+        return FetchPlans.room(roomRepository.findById(id).get(), roomStatusRepository);
+    }
+
+    private static long anyVersionIfNull(Long expectedVersion) {
+        return (expectedVersion == null) ? -1 : expectedVersion;
+    }
 
-        room.setResourceMetadata(resourceMetadata);
-        room.getResourceMetadata().setLastModifiedDateTime(LocalDateTime.now().toString());
-        // this should change every time an update is made
+    /**
+     * patch Method: Applies a JSON Merge Patch to the room. Only the room number, maximum occupancy, batch and work orders can be patched. The
+     * room is only written when a sent value differs from the stored one; then Hibernate updates just the
+     * changed columns (the entity has @DynamicUpdate) and lastModifiedDateTime is stamped. A patch that changes
+     * nothing issues no UPDATE and leaves lastModifiedDateTime and the version alone.
+     *
+     * @param id id of the room
+     * @param patch the merge patch document
+     * @param expectedVersion version the room must still have, or null to patch it unconditionally
+     * @return the patched room
+     */
+    @Transactional
+    @Sharded(Sharded.Key.ROOM)
+    public Room patch(int id, JsonNode patch, Long expectedVersion) {
+        if (id <= 0) {
+            throw new InvalidRequestException("ID cannot be less than or equal to zero!");
+        }
 
-        return roomRepository.save(room);
+        Room room = roomRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("No room found with that ID!"));
+        if (expectedVersion != null && room.getVersion() != expectedVersion) {
+            throw new VersionConflictException("Room " + id + " was modified by someone else, reload it and try again!");
+        }
 
+        IntList workOrders = IntList.copyOf(room.getWorkOrders());
+        if (MergePatch.apply(objectMapper, room, patch, PATCHABLE_FIELDS)) {
+            room.getResourceMetadata().setLastModifiedDateTime(LocalDateTime.now().toString());
+            changeFeedService.record(OutboxEvent.Resource.ROOM, id, OutboxEvent.Action.UPDATED);
+            if (!Objects.equals(workOrders, room.getWorkOrders())) {
+                roomWorkOrderRepository.deleteByRoomId(id);
+                indexWorkOrders(room);
+            }
+        }
+        return FetchPlans.room(room, roomStatusRepository);
     }
 
     /**
@@ -204,19 +443,117 @@ public class RoomService {
      * that it is not empty, negative or zero. if the input is empty,
      * negative or zero, an InvalidRequestException is thrown.
      *
-     * The room id is used to retrieve the specific room object. The
-     * active parameter of the retrieved room object is set to false
-     * and the room object is then saved or updated.
+     * The room is deactivated with a single UPDATE statement rather
+     * than a read-modify-write of the whole room, and the updated room
+     * object is read back afterwards.
      * @param id
      * @return The Updated room objected.
      */
     @Transactional
+    @Sharded(Sharded.Key.ROOM)
     public Room delete(int id){
         if (id <= 0) {
             throw new InvalidRequestException("ID cannot be less than or equal to zero!");
         }
-        Room deactivateRoom = roomRepository.findById(id).get();
-        return update(deactivateRoom);
+        if (roomRepository.deactivateById(id, LocalDateTime.now().toString()) == 0) {
+            throw new ResourceNotFoundException("No room found with that ID!");
+        }
+        changeFeedService.record(OutboxEvent.Resource.ROOM, id, OutboxEvent.Action.DEACTIVATED);
+        return FetchPlans.room(roomRepository.findById(id).get(), roomStatusRepository);
+    }
+
+    /**
+     * findByBatchId Method: Returns the rooms assigned to a training batch.
+     *
+     * @param batchId id of the batch
+     * @return the rooms of the batch, in id order
+     */
+    @Transactional(readOnly = true)
+    @FanOut
+    public List<Room> findByBatchId(int batchId) {
+        if (batchId <= 0) {
+            throw new InvalidRequestException("ID cannot be less than or equal to zero!");
+        }
+        return FetchPlans.rooms(roomRepository.findByBatchIdOrderByIdAsc(batchId), roomStatusRepository);
+    }
+
+    /**
+     * findRoomIdsByBatchIds Method: Maps each of the given batches to the ids of its rooms with one index-only
+     * query, for services that join their batches to rooms. Batches without rooms are left out of the map.
+     *
+     * @param batchIds ids of the batches, at most KeysetPage.MAX_LIMIT
+     * @return the room ids of each batch, keyed by batch id
+     */
+    @Transactional(readOnly = true)
+    @FanOut
+    public Map<Integer, List<Integer>> findRoomIdsByBatchIds(Collection<Integer> batchIds) {
+        checkLookupIds(batchIds);
+        Map<Integer, List<Integer>> roomIds = new LinkedHashMap<>();
+        for (RoomRepository.BatchRoom batchRoom : roomRepository.findRoomIdsByBatchIds(batchIds)) {
+            roomIds.computeIfAbsent(batchRoom.getBatchId(), batchId -> new ArrayList<>()).add(batchRoom.getRoomId());
+        }
+        return roomIds;
+    }
+
+    /**
+     * findByWorkOrder Method: Returns the rooms that list the given work order.
+     *
+     * @param workOrder id of the work order
+     * @return the rooms with the work order, in id order
+     */
+    @Transactional(readOnly = true)
+    @FanOut
+    public List<Room> findByWorkOrder(int workOrder) {
+        if (workOrder <= 0) {
+            throw new InvalidRequestException("ID cannot be less than or equal to zero!");
+        }
+        return FetchPlans.rooms(roomRepository.findByWorkOrder(workOrder), roomStatusRepository);
+    }
+
+    /**
+     * findRoomIdsByWorkOrders Method: Maps each of the given work orders to the ids of the rooms that list it,
+     * read from the RoomWorkOrder reverse index with one query. Unknown work orders are left out of the map.
+     *
+     * @param workOrders ids of the work orders, at most KeysetPage.MAX_LIMIT
+     * @return the room ids of each work order, keyed by work order id
+     */
+    @Transactional(readOnly = true)
+    @FanOut
+    public Map<Integer, List<Integer>> findRoomIdsByWorkOrders(Collection<Integer> workOrders) {
+        checkLookupIds(workOrders);
+        Map<Integer, List<Integer>> roomIds = new LinkedHashMap<>();
+        for (RoomWorkOrder indexed : roomWorkOrderRepository.findByWorkOrderIn(workOrders)) {
+            roomIds.computeIfAbsent(indexed.getWorkOrder(), workOrder -> new ArrayList<>()).add(indexed.getRoomId());
+        }
+        return roomIds;
+    }
+
+    private void checkLookupIds(Collection<Integer> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new InvalidRequestException("At least one ID is required!");
+        }
+
+        if (ids.size() > KeysetPage.MAX_LIMIT) {
+            throw new InvalidRequestException("Cannot look up more than " + KeysetPage.MAX_LIMIT + " IDs at once!");
+        }
+    }
+
+    /**
+     * Writes the RoomWorkOrder reverse index rows of a saved room. The rows are persisted directly rather than
+     * through the repository, which would first select each composite key to decide whether it is new. A work
+     * order listed more than once is indexed once, since its rows share the key.
+     */
+    private void indexWorkOrders(Room room) {
+        if (room.getWorkOrders() == null) {
+            return;
+        }
+        Set<Integer> indexed = new HashSet<>();
+        for (int i = 0; i < room.getWorkOrders().size(); i++) {
+            int workOrder = room.getWorkOrders().getInt(i);
+            if (indexed.add(workOrder)) {
+                entityManager.persist(new RoomWorkOrder(workOrder, room.getId()));
+            }
+        }
     }
 
     // +--------Methods using RoomStatusRepository------------------------------------+
@@ -229,6 +566,7 @@ public class RoomService {
      * @return the list of room status objects submitted by the given user id.
      */
     @Transactional(readOnly = true)
+    @FanOut
     public List<RoomStatus> findAllStatusBySubmitter(int id){
         return roomStatusRepository.findAllBySubmitterId(id);
     }
@@ -242,8 +580,139 @@ public class RoomService {
      * @return the list of room status objects with the specified submitted date
      */
     @Transactional(readOnly = true)
+    @FanOut
     public List<RoomStatus> findAllStatusByDate(String date){ return roomStatusRepository.findAllBySubmittedDateTime(date);}
 
+    /**
+     * findStatusHistory Method: Pages through the full status history of a room, newest first.
+     * Room.currentStatus only carries the latest statuses, so older ones are read here one page
+     * at a time by seeking on the (room_id, id) index.
+     *
+     * @param roomId id of the room
+     * @param before id of the oldest status on the previous page, or null for the newest page
+     * @param limit number of statuses on the page, between 1 and KeysetPage.MAX_LIMIT
+     * @return a page of statuses with the cursor for the next, older page
+     */
+    @Transactional(readOnly = true)
+    @Sharded(Sharded.Key.ROOM)
+    public KeysetPage<RoomStatus> findStatusHistory(int roomId, Integer before, int limit) {
+
+        if (roomId <= 0) {
+            throw new InvalidRequestException("ID cannot be less than or equal to zero!");
+        }
+
+        if (before != null && before <= 0) {
+            throw new InvalidRequestException("Cursor cannot be less than or equal to zero!");
+        }
+
+        if (limit <= 0 || limit > KeysetPage.MAX_LIMIT) {
+            throw new InvalidRequestException("Limit must be between 1 and " + KeysetPage.MAX_LIMIT + "!");
+        }
+
+        if (!roomRepository.existsById(roomId)) {
+            throw new ResourceNotFoundException("No room found with that ID!");
+        }
+
+        int cursor = (before == null) ? Integer.MAX_VALUE : before;
+        List<RoomStatus> rows = roomStatusRepository.findByRoomIdAndIdLessThanOrderByIdDesc(roomId, cursor, PageRequest.of(0, limit + 1));
+        return KeysetPage.of(rows, limit, RoomStatus::getId);
+    }
+
+    /**
+     * findAllStatusByDateRange Method: Returns every room status submitted in the half-open
+     * range [from, to), oldest first. The range is read from the submitted_at index, which
+     * makes daily and weekly reports an index range scan.
+     *
+     * @param from start of the range, inclusive
+     * @param to end of the range, exclusive
+     * @return the list of room status objects submitted within the range
+     */
+    @Transactional(readOnly = true)
+    @FanOut
+    public List<RoomStatus> findAllStatusByDateRange(Instant from, Instant to){
+        if (from == null || to == null) {
+            throw new InvalidRequestException("From and to dates cannot be null!");
+        }
+
+        if (!from.isBefore(to)) {
+            throw new InvalidRequestException("From date must be before to date!");
+        }
+
+        return roomStatusRepository.findBySubmittedAtGreaterThanEqualAndSubmittedAtLessThanOrderBySubmittedAtAsc(from, to);
+    }
+
+    /**
+     * backfillSubmittedAt Method: Fills in submittedAt for one chunk of room statuses written
+     * before the column existed, by parsing their submittedDateTime String. Statuses whose
+     * String cannot be parsed are left as they are. With sharding configured, the chunk is read from
+     * the shard the caller has bound (see SubmittedAtBackfill).
+     *
+     * @param after id of the last status of the previous chunk, 0 for the first chunk
+     * @param limit number of statuses in the chunk
+     * @return the id to pass as after for the next chunk, or null once every status was visited
+     */
+    @Transactional
+    public Integer backfillSubmittedAt(int after, int limit){
+        List<RoomStatus> chunk = roomStatusRepository.findBySubmittedAtIsNullAndIdGreaterThanOrderByIdAsc(after, PageRequest.of(0, limit));
+        for (RoomStatus status : chunk) {
+            status.setSubmittedAt(RoomStatus.parseSubmittedDateTime(status.getSubmittedDateTime()));
+        }
+        return (chunk.size() < limit) ? null : chunk.get(chunk.size() - 1).getId();
+    }
+
+    /**
+     * archiveStatuses Method: Moves every live room status submitted before the cutoff out of ROOM_STATUS.
+     * The statuses are copied into ROOM_STATUS_ARCHIVE and rolled up into one RoomStatusDailySummary per
+     * room, day and submitter before they are deleted, all in one transaction, so a status is always
+     * either live or archived and summarized. Statuses without a submittedAt are never archived.
+     *
+     * @param cutoff statuses submitted before this instant are archived
+     * @return the number of statuses archived
+     */
+    @Transactional
+    @FanOut
+    public int archiveStatuses(Instant cutoff){
+        if (cutoff == null) {
+            throw new InvalidRequestException("Cutoff cannot be null!");
+        }
+
+        int copied = roomStatusArchiveRepository.copyOlderThan(cutoff);
+        if (copied == 0) {
+            return 0;
+        }
+        roomStatusArchiveRepository.addToDailySummaries(cutoff);
+        roomStatusArchiveRepository.insertDailySummaries(cutoff);
+        return roomStatusArchiveRepository.deleteLiveOlderThan(cutoff);
+    }
+
+    /**
+     * findDailySummaries Method: Returns the daily status summaries of a room between two days,
+     * both inclusive, oldest first. Only archived statuses are summarized, so recent days are
+     * read from the live history instead.
+     *
+     * @param roomId id of the room
+     * @param from first day, inclusive
+     * @param to last day, inclusive
+     * @return the list of daily summaries of the room within the range
+     */
+    @Transactional(readOnly = true)
+    @Sharded(Sharded.Key.ROOM)
+    public List<RoomStatusDailySummary> findDailySummaries(int roomId, LocalDate from, LocalDate to){
+        if (roomId <= 0) {
+            throw new InvalidRequestException("ID cannot be less than or equal to zero!");
+        }
+
+        if (from == null || to == null) {
+            throw new InvalidRequestException("From and to dates cannot be null!");
+        }
+
+        if (from.isAfter(to)) {
+            throw new InvalidRequestException("From date cannot be after to date!");
+        }
+
+        return roomStatusDailySummaryRepository.findByRoomIdAndSummaryDateBetweenOrderBySummaryDateAsc(roomId, from, to);
+    }
+
     /**
      * findByStatusId Method: This takes in the status id parameter. The status id
      * is unique in the system, that is no two room statuses can have the same id.
@@ -254,6 +723,7 @@ public class RoomService {
      * @return the room status with the given status id.
      */
     @Transactional(readOnly = true)
+    @Sharded(Sharded.Key.ROOM_STATUS)
     public Optional<RoomStatus> findStatusById(int id){
         return roomStatusRepository.findById(id);
     }
@@ -265,12 +735,57 @@ public class RoomService {
      * @return a list of all the room status objects
      */
     @Transactional(readOnly = true)
+    @FanOut
     public List<RoomStatus> findAllStatus(){
         Iterable<RoomStatus> r = roomStatusRepository.findAll();
         List<RoomStatus> list = getListFromIterator(r);
         return list;
     }
 
+    /**
+     * exportStatuses Method: Writes the whole room status history, archived statuses first and then live ones,
+     * as one Snappy compressed Parquet file with a column per field (see RoomStatusParquet). The rows are
+     * streamed from the database and written a row group at a time, so memory stays flat however long the
+     * history is. With sharding configured, every shard is exported into the same file in turn.
+     *
+     * Each shard is read in one read-only REPEATABLE_READ transaction, so both of its tables come from the same
+     * snapshot and a status the archive job moves in between is exported exactly once. The "activeOnly" filter is
+     * never enabled for these transactions, so rows of inactive rooms are exported too.
+     *
+     * @param out where the Parquet file is written; it is flushed but not closed
+     * @throws IOException when the output cannot be written
+     */
+    public void exportStatuses(OutputStream out) throws IOException {
+        TransactionTemplate snapshot = new TransactionTemplate(transactionManager);
+        snapshot.setReadOnly(true);
+        snapshot.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        int shards = (shardDirectory == null) ? 1 : shardDirectory.getShardCount();
+
+        try (ParquetWriter<RoomStatusExportRow> writer = RoomStatusParquet.open(out)) {
+            for (int shard = 0; shard < shards; shard++) {
+                Shard.on(shard, () -> snapshot.execute(status -> {
+                    writeStatuses(writer);
+                    return null;
+                }));
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void writeStatuses(ParquetWriter<RoomStatusExportRow> writer) {
+        try (Stream<RoomStatusExportRow> archived = roomStatusArchiveRepository.streamExportRows()) {
+            RoomStatusParquet.writeAll(writer, archived);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        try (Stream<RoomStatusExportRow> live = roomStatusRepository.streamExportRows()) {
+            RoomStatusParquet.writeAll(writer, live);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     /**
      * saveStatus Method: This method takes in a new room status object and
      * saves it to the database.
@@ -278,6 +793,7 @@ public class RoomService {
      * @param roomStatus
      */
     @Transactional
+    @Sharded(Sharded.Key.ROOM_STATUS)
     public void saveStatus(RoomStatus roomStatus){
         roomStatusRepository.save(roomStatus);
     }
@@ -290,6 +806,7 @@ public class RoomService {
      * @return Updated/Modified room status object
      */
     @Transactional
+    @Sharded(Sharded.Key.ROOM_STATUS)
     public RoomStatus updateStatus(RoomStatus roomStatus){
         return roomStatusRepository.save(roomStatus);
     }
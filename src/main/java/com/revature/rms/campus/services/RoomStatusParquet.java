@@ -0,0 +1,206 @@
+package com.revature.rms.campus.services;
+
+import com.revature.rms.campus.DTO.RoomStatusExportRow;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.hadoop.ParquetFileWriter;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.api.WriteSupport;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.io.OutputFile;
+import org.apache.parquet.io.PositionOutputStream;
+import org.apache.parquet.io.api.RecordConsumer;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.Types;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.BOOLEAN;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.INT32;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.INT64;
+
+/**
+ * Writes room status export rows as an Apache Parquet file. Parquet stores each column separately and compresses
+ * it on its own, so analytics jobs read only the columns they query. Rows are buffered into row groups of
+ * ROW_GROUP_SIZE bytes, and each finished row group is compressed and written to the output straight away, so the
+ * export holds one row group in memory however long the history is. The file footer, with the column statistics
+ * readers use to skip row groups, is written when the writer is closed.
+ */
+final class RoomStatusParquet {
+
+    /**
+     * Buffered bytes at which a row group is finished and written out.
+     */
+    static final int ROW_GROUP_SIZE = 8 * 1024 * 1024;
+
+    static final MessageType SCHEMA = Types.buildMessage()
+            .required(INT32).named("status_id")
+            .optional(INT32).named("room_id")
+            .optional(INT32).named("building_id")
+            .optional(INT32).named("campus_id")
+            .optional(INT64).as(LogicalTypeAnnotation.timestampType(true, LogicalTypeAnnotation.TimeUnit.MILLIS)).named("submitted_at")
+            .required(BOOLEAN).named("white_board_cleaned")
+            .required(BOOLEAN).named("chairs_ordered")
+            .required(INT32).named("submitter_id")
+            .named("room_status");
+
+    private RoomStatusParquet() {
+    }
+
+    /**
+     * Opens a Snappy compressed Parquet writer over the output. The output does not need to be seekable, since
+     * Parquet only ever appends.
+     */
+    static ParquetWriter<RoomStatusExportRow> open(OutputStream out) throws IOException {
+        return new Builder(new StreamOutputFile(out))
+                .withConf(new Configuration(false))
+                .withWriteMode(ParquetFileWriter.Mode.OVERWRITE)
+                .withCompressionCodec(CompressionCodecName.SNAPPY)
+                .withRowGroupSize(ROW_GROUP_SIZE)
+                .build();
+    }
+
+    /**
+     * Writes every row of the stream. The stream is read to the end but not closed.
+     */
+    static void writeAll(ParquetWriter<RoomStatusExportRow> writer, Stream<RoomStatusExportRow> rows) throws IOException {
+        Iterator<RoomStatusExportRow> iterator = rows.iterator();
+        while (iterator.hasNext()) {
+            writer.write(iterator.next());
+        }
+    }
+
+    private static class Builder extends ParquetWriter.Builder<RoomStatusExportRow, Builder> {
+
+        Builder(OutputFile file) {
+            super(file);
+        }
+
+        @Override
+        protected Builder self() {
+            return this;
+        }
+
+        @Override
+        protected WriteSupport<RoomStatusExportRow> getWriteSupport(Configuration conf) {
+            return new RowWriteSupport();
+        }
+    }
+
+    /**
+     * Maps an export row onto the columns of SCHEMA. Optional columns are left out of the record when null.
+     */
+    private static class RowWriteSupport extends WriteSupport<RoomStatusExportRow> {
+
+        private RecordConsumer consumer;
+
+        @Override
+        public WriteContext init(Configuration configuration) {
+            return new WriteContext(SCHEMA, Collections.emptyMap());
+        }
+
+        @Override
+        public void prepareForWrite(RecordConsumer recordConsumer) {
+            this.consumer = recordConsumer;
+        }
+
+        @Override
+        public void write(RoomStatusExportRow row) {
+            consumer.startMessage();
+            writeInt(0, "status_id", row.getStatusId());
+            writeInt(1, "room_id", row.getRoomId());
+            writeInt(2, "building_id", row.getBuildingId());
+            writeInt(3, "campus_id", row.getCampusId());
+            if (row.getSubmittedAt() != null) {
+                consumer.startField("submitted_at", 4);
+                consumer.addLong(row.getSubmittedAt().toEpochMilli());
+                consumer.endField("submitted_at", 4);
+            }
+            writeBoolean(5, "white_board_cleaned", row.isWhiteBoardCleaned());
+            writeBoolean(6, "chairs_ordered", row.isChairsOrdered());
+            writeInt(7, "submitter_id", row.getSubmitterId());
+            consumer.endMessage();
+        }
+
+        private void writeInt(int index, String field, Integer value) {
+            if (value != null) {
+                consumer.startField(field, index);
+                consumer.addInteger(value);
+                consumer.endField(field, index);
+            }
+        }
+
+        private void writeBoolean(int index, String field, boolean value) {
+            consumer.startField(field, index);
+            consumer.addBoolean(value);
+            consumer.endField(field, index);
+        }
+    }
+
+    /**
+     * An append-only Parquet OutputFile over a plain stream, such as an HTTP response body. Closing the Parquet
+     * writer does not close the stream, which belongs to the caller.
+     */
+    private static class StreamOutputFile implements OutputFile {
+
+        private final OutputStream out;
+
+        StreamOutputFile(OutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public PositionOutputStream create(long blockSizeHint) {
+            return new PositionOutputStream() {
+
+                private long position;
+
+                @Override
+                public long getPos() {
+                    return position;
+                }
+
+                @Override
+                public void write(int b) throws IOException {
+                    out.write(b);
+                    position++;
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    out.write(b, off, len);
+                    position += len;
+                }
+
+                @Override
+                public void flush() throws IOException {
+                    out.flush();
+                }
+
+                @Override
+                public void close() throws IOException {
+                    out.flush();
+                }
+            };
+        }
+
+        @Override
+        public PositionOutputStream createOrOverwrite(long blockSizeHint) {
+            return create(blockSizeHint);
+        }
+
+        @Override
+        public boolean supportsBlockSize() {
+            return false;
+        }
+
+        @Override
+        public long defaultBlockSize() {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.revature.rms.campus.services;
+
+import java.util.function.Supplier;
+
+/**
+ * Holds, per thread, the shard that database work is sent to when sharding is configured (see ShardingConfig).
+ * ShardAspect binds it around the service methods marked @Sharded or @FanOut, before their transaction starts,
+ * since a transaction cannot move between shards. Work on a thread with no shard bound goes to shard 0.
+ */
+public final class Shard {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private Shard() {
+    }
+
+    /**
+     * current method: Tells which shard this thread is bound to.
+     *
+     * @return the shard, or null when none is bound
+     */
+    public static Integer current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * set method: Binds this thread to a shard. Callers restore the returned previous shard when they are done,
+     * in a finally block.
+     *
+     * @param shard the shard, or null to unbind the thread
+     * @return the previously bound shard, or null
+     */
+    public static Integer set(Integer shard) {
+        Integer previous = CURRENT.get();
+        if (shard == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(shard);
+        }
+        return previous;
+    }
+
+    /**
+     * on method: Runs the work on the given shard and restores the previous binding afterwards.
+     *
+     * @param shard the shard
+     * @param work the work to run
+     * @param <T> the type of the result
+     * @return the result of the work
+     */
+    public static <T> T on(int shard, Supplier<T> work) {
+        Integer previous = set(shard);
+        try {
+            return work.get();
+        } finally {
+            set(previous);
+        }
+    }
+}
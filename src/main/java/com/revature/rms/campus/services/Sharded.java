@@ -0,0 +1,24 @@
+package com.revature.rms.campus.services;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a service method that works on the subtree of a single campus, so that with sharding configured it runs
+ * on the shard holding that campus. The first argument names the resource: either its id, or the entity itself,
+ * in which case a new entity (id 0) is routed by its parent. A list of entities is split by shard and the method
+ * is called once per shard.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Sharded {
+
+    /**
+     * The kind of resource the first argument names.
+     */
+    Key value();
+
+    enum Key { CAMPUS, BUILDING, ROOM, ROOM_STATUS }
+}
@@ -0,0 +1,175 @@
+-- Prebuilt schema for the bulk seed mode (application-seed.yml), in H2 syntax. It mirrors the entity
+-- mappings, including their @Table indexes, and is checked against them at startup by
+-- spring.jpa.hibernate.ddl-auto=validate. Change it together with the entities.
+
+create sequence resource_seq start with 1000 increment by 50;
+create sequence address_seq start with 1000 increment by 50;
+create sequence amenity_seq start with 1000 increment by 50;
+create sequence room_status_seq start with 1000 increment by 50;
+create sequence user_seq start with 1000 increment by 50;
+create sequence outbox_seq start with 1 increment by 50;
+
+create table address (
+    id integer not null,
+    unit_street varchar(255) not null,
+    city varchar(255) not null,
+    state varchar(255) not null,
+    zip varchar(255) not null,
+    country varchar(255) not null,
+    -- derived by Address.canonicalize, SeedLoader fills it in after loading address.csv
+    content_hash varchar(64) not null,
+    primary key (id),
+    constraint uk_address_content_hash unique (content_hash)
+);
+
+create table "USER" (
+    id integer not null,
+    first_name varchar(255) not null,
+    last_name varchar(255) not null,
+    primary key (id)
+);
+
+create table campus (
+    id integer not null,
+    name varchar(255) not null,
+    abbr_name varchar(255) not null,
+    shipping_address_id integer not null,
+    training_manager_id integer not null,
+    staging_manager_id integer not null,
+    hr_lead integer not null,
+    corporate_employees varbinary(40000),
+    resource_creator integer,
+    resource_creation_date_time varchar(255),
+    last_modifier integer,
+    last_modified_date_time varchar(255),
+    resource_owner integer,
+    currently_active boolean,
+    version bigint not null,
+    primary key (id),
+    constraint uk_campus_name unique (name),
+    constraint fk_campus_shipping_address foreign key (shipping_address_id) references address (id)
+);
+create index idx_campus_owner_active on campus (resource_owner, currently_active);
+create index idx_campus_active on campus (currently_active, id);
+create index idx_campus_training_manager on campus (training_manager_id);
+create index idx_campus_staging_manager on campus (staging_manager_id);
+create index idx_campus_shipping_address on campus (shipping_address_id);
+
+create table building (
+    id integer not null,
+    name varchar(255) not null,
+    abbr_name varchar(255) not null,
+    physical_address_id integer not null,
+    training_lead integer not null,
+    campus_id integer,
+    resource_creator integer,
+    resource_creation_date_time varchar(255),
+    last_modifier integer,
+    last_modified_date_time varchar(255),
+    resource_owner integer,
+    currently_active boolean,
+    version bigint not null,
+    primary key (id),
+    constraint uk_building_name unique (name),
+    constraint fk_building_physical_address foreign key (physical_address_id) references address (id),
+    constraint fk_building_campus foreign key (campus_id) references campus (id)
+);
+create index idx_building_owner_active on building (resource_owner, currently_active);
+create index idx_building_active on building (currently_active, id);
+create index idx_building_training_lead on building (training_lead);
+create index idx_building_campus on building (campus_id);
+create index idx_building_physical_address on building (physical_address_id);
+
+create table amenity (
+    id integer not null,
+    type varchar(255),
+    status varchar(255),
+    building_id integer,
+    primary key (id),
+    constraint fk_amenity_building foreign key (building_id) references building (id)
+);
+create index idx_amenity_building on amenity (building_id);
+
+create table room (
+    id integer not null,
+    room_number varchar(255) not null,
+    max_occupancy integer not null,
+    batch_id integer not null,
+    work_orders varbinary(40000),
+    building_id integer,
+    resource_creator integer,
+    resource_creation_date_time varchar(255),
+    last_modifier integer,
+    last_modified_date_time varchar(255),
+    resource_owner integer,
+    currently_active boolean,
+    version bigint not null,
+    primary key (id),
+    constraint fk_room_building foreign key (building_id) references building (id)
+);
+create index idx_room_owner_active on room (resource_owner, currently_active);
+create index idx_room_active on room (currently_active, id);
+create index idx_room_batch on room (batch_id, id);
+create index idx_room_building_number on room (building_id, room_number);
+create index idx_room_number on room (room_number);
+create index idx_room_max_occupancy on room (max_occupancy);
+
+create table room_work_order (
+    room_id integer not null,
+    work_order integer not null,
+    primary key (room_id, work_order)
+);
+create index idx_room_work_order_room on room_work_order (room_id);
+create index idx_room_work_order_work_order on room_work_order (work_order, room_id);
+
+create table room_status (
+    id integer not null,
+    white_board_cleaned boolean not null,
+    chairs_ordered boolean not null,
+    submitted_date_time varchar(255) not null,
+    submitted_at timestamp,
+    submitter_id integer not null,
+    other_notes varchar(255) not null,
+    room_id integer,
+    primary key (id),
+    constraint fk_room_status_room foreign key (room_id) references room (id)
+);
+create index idx_room_status_room_history on room_status (room_id, id);
+create index idx_room_status_submitted_at on room_status (submitted_at);
+create index idx_room_status_submitter on room_status (submitter_id);
+create index idx_room_status_submitted_date_time on room_status (submitted_date_time);
+
+create table room_status_archive (
+    id integer not null,
+    white_board_cleaned boolean not null,
+    chairs_ordered boolean not null,
+    submitted_date_time varchar(255) not null,
+    submitted_at timestamp,
+    submitter_id integer not null,
+    other_notes varchar(255) not null,
+    room_id integer not null,
+    primary key (id)
+);
+create index idx_room_status_archive_room on room_status_archive (room_id, submitted_at);
+
+create table room_status_daily_summary (
+    room_id integer not null,
+    submitter_id integer not null,
+    summary_date date not null,
+    status_count integer not null,
+    white_board_cleaned_count integer not null,
+    chairs_ordered_count integer not null,
+    primary key (room_id, submitter_id, summary_date)
+);
+
+create table outbox_event (
+    id integer not null,
+    feed_position integer,
+    resource_type varchar(16) not null,
+    resource_id integer not null,
+    action varchar(16) not null,
+    occurred_at timestamp not null,
+    primary key (id),
+    constraint uk_outbox_event_position unique (feed_position)
+);
+create index idx_outbox_event_occurred_at on outbox_event (occurred_at);
@@ -1,20 +1,9 @@
-INSERT INTO ADDRESS (ID, UNIT_STREET, CITY, STATE, ZIP, COUNTRY) values (1, '4202 E Fowler Ave', 'Tampa','Florida','33620', 'United States');
+INSERT INTO ADDRESS (ID, UNIT_STREET, CITY, STATE, ZIP, COUNTRY, CONTENT_HASH) values (1, '4202 E Fowler Ave', 'Tampa','Florida','33620', 'United States', 'ace2eefd7468e10c89a720ebacb2d3f0de8c234735b7092f541c0dfbc539cf1e');
 
-INSERT INTO CAMPUS (ID, ABBR_NAME, HR_LEAD, NAME, STAGING_MANAGER_ID, TRAINING_MANAGER_ID, RESOURCE_CREATOR, RESOURCE_CREATION_DATE_TIME, LAST_MODIFIER, LAST_MODIFIED_DATE_TIME, RESOURCE_OWNER, CURRENTLY_ACTIVE, SHIPPING_ADDRESS_ID) values (1, 'USF', 1, 'University of South Florida', 2, 3, 1, '3.16.2020 10:00 pm', 1, '3.16.2020 10:00 PM', 1, 'true', 1);
+INSERT INTO CAMPUS (ID, ABBR_NAME, HR_LEAD, NAME, STAGING_MANAGER_ID, TRAINING_MANAGER_ID, RESOURCE_CREATOR, RESOURCE_CREATION_DATE_TIME, LAST_MODIFIER, LAST_MODIFIED_DATE_TIME, RESOURCE_OWNER, CURRENTLY_ACTIVE, SHIPPING_ADDRESS_ID, VERSION, CORPORATE_EMPLOYEES) values (1, 'USF', 1, 'University of South Florida', 2, 3, 1, '3.16.2020 10:00 pm', 1, '3.16.2020 10:00 PM', 1, 'true', 1, 0, X'0000000100000002000000030000000400000005000000060000000700000008000000090000000a');
 
-INSERT INTO CAMPUS_CORPORATE_EMPLOYEES (CAMPUS_ID, CORPORATE_EMPLOYEES) values (1, 1);
-INSERT INTO CAMPUS_CORPORATE_EMPLOYEES (CAMPUS_ID, CORPORATE_EMPLOYEES) values (1, 2);
-INSERT INTO CAMPUS_CORPORATE_EMPLOYEES (CAMPUS_ID, CORPORATE_EMPLOYEES) values (1, 3);
-INSERT INTO CAMPUS_CORPORATE_EMPLOYEES (CAMPUS_ID, CORPORATE_EMPLOYEES) values (1, 4);
-INSERT INTO CAMPUS_CORPORATE_EMPLOYEES (CAMPUS_ID, CORPORATE_EMPLOYEES) values (1, 5);
-INSERT INTO CAMPUS_CORPORATE_EMPLOYEES (CAMPUS_ID, CORPORATE_EMPLOYEES) values (1, 6);
-INSERT INTO CAMPUS_CORPORATE_EMPLOYEES (CAMPUS_ID, CORPORATE_EMPLOYEES) values (1, 7);
-INSERT INTO CAMPUS_CORPORATE_EMPLOYEES (CAMPUS_ID, CORPORATE_EMPLOYEES) values (1, 8);
-INSERT INTO CAMPUS_CORPORATE_EMPLOYEES (CAMPUS_ID, CORPORATE_EMPLOYEES) values (1, 9);
-INSERT INTO CAMPUS_CORPORATE_EMPLOYEES (CAMPUS_ID, CORPORATE_EMPLOYEES) values (1, 10);
-
-INSERT INTO BUILDING (ID, NAME, ABBR_NAME, PHYSICAL_ADDRESS_ID, TRAINING_LEAD, RESOURCE_CREATOR, RESOURCE_CREATION_DATE_TIME, LAST_MODIFIER, LAST_MODIFIED_DATE_TIME, RESOURCE_OWNER, CURRENTLY_ACTIVE, CAMPUS_ID) values (1, 'North West Education Complex', 'NEC', 1, 5 , 2,'3.16.2020 10:00 PM', 1, '3.16.2020 10:00 PM', 2, 'true', 1);
-INSERT INTO BUILDING (ID, NAME, ABBR_NAME, PHYSICAL_ADDRESS_ID, TRAINING_LEAD, RESOURCE_CREATOR, RESOURCE_CREATION_DATE_TIME, LAST_MODIFIER, LAST_MODIFIED_DATE_TIME, RESOURCE_OWNER, CURRENTLY_ACTIVE, CAMPUS_ID) values (2, 'MUMA College of Business', 'BSN', 1, 4 , 1,'3.16.2020 10:00 PM', 1, '3.16.2020 10:00 PM', 1, 'true', 1);
+INSERT INTO BUILDING (ID, NAME, ABBR_NAME, PHYSICAL_ADDRESS_ID, TRAINING_LEAD, RESOURCE_CREATOR, RESOURCE_CREATION_DATE_TIME, LAST_MODIFIER, LAST_MODIFIED_DATE_TIME, RESOURCE_OWNER, CURRENTLY_ACTIVE, CAMPUS_ID, VERSION) values (1, 'North West Education Complex', 'NEC', 1, 5 , 2,'3.16.2020 10:00 PM', 1, '3.16.2020 10:00 PM', 2, 'true', 1, 0);
+INSERT INTO BUILDING (ID, NAME, ABBR_NAME, PHYSICAL_ADDRESS_ID, TRAINING_LEAD, RESOURCE_CREATOR, RESOURCE_CREATION_DATE_TIME, LAST_MODIFIER, LAST_MODIFIED_DATE_TIME, RESOURCE_OWNER, CURRENTLY_ACTIVE, CAMPUS_ID, VERSION) values (2, 'MUMA College of Business', 'BSN', 1, 4 , 1,'3.16.2020 10:00 PM', 1, '3.16.2020 10:00 PM', 1, 'true', 1, 0);
 
 INSERT INTO AMENITY (ID, TYPE, STATUS, BUILDING_ID) values (1,'COFFEE', 'OK', 1);
 INSERT INTO AMENITY (ID, TYPE, STATUS, BUILDING_ID) values (2,'TEA', 'OK', 1);
@@ -35,46 +24,46 @@ INSERT INTO AMENITY (ID, TYPE, STATUS, BUILDING_ID) values (17,'PAPER_TOWELS', '
 INSERT INTO AMENITY (ID, TYPE, STATUS, BUILDING_ID) values (19,'WHITEBOARD_ERASERS', 'LOW', 2);
 INSERT INTO AMENITY (ID, TYPE, STATUS, BUILDING_ID) values (20,'WHITEBOARD_MARKERS', 'LOW', 2);
 
-INSERT INTO ROOM (ID, ROOM_NUMBER, MAX_OCCUPANCY, BATCH_ID, RESOURCE_CREATOR, RESOURCE_CREATION_DATE_TIME, LAST_MODIFIER, LAST_MODIFIED_DATE_TIME, RESOURCE_OWNER, CURRENTLY_ACTIVE, BUILDING_ID) values (1, '107', 24, 1, 2,'2.18.2020 10:00 PM', 1, '3.16.2020 10:00 PM', 3, 'true', 1);
-INSERT INTO ROOM (ID, ROOM_NUMBER, MAX_OCCUPANCY, BATCH_ID, RESOURCE_CREATOR, RESOURCE_CREATION_DATE_TIME, LAST_MODIFIER, LAST_MODIFIED_DATE_TIME, RESOURCE_OWNER, CURRENTLY_ACTIVE, BUILDING_ID) values (2, '300', 30, 2, 2,'3.16.2020 10:00 PM', 1, '3.16.2020 10:00 PM', 2, 'true', 1);
-INSERT INTO ROOM (ID, ROOM_NUMBER, MAX_OCCUPANCY, BATCH_ID, RESOURCE_CREATOR, RESOURCE_CREATION_DATE_TIME, LAST_MODIFIER, LAST_MODIFIED_DATE_TIME, RESOURCE_OWNER, CURRENTLY_ACTIVE, BUILDING_ID) values (3, '320', 28, 3, 2,'3.16.2020 10:00 PM', 1, '3.16.2020 10:00 PM', 2, 'true', 1);
-INSERT INTO ROOM (ID, ROOM_NUMBER, MAX_OCCUPANCY, BATCH_ID, RESOURCE_CREATOR, RESOURCE_CREATION_DATE_TIME, LAST_MODIFIER, LAST_MODIFIED_DATE_TIME, RESOURCE_OWNER, CURRENTLY_ACTIVE, BUILDING_ID) values (4, '201', 24, 4, 1,'3.16.2020 10:00 PM', 1, '3.16.2020 10:00 PM', 1, 'true', 2);
-INSERT INTO ROOM (ID, ROOM_NUMBER, MAX_OCCUPANCY, BATCH_ID, RESOURCE_CREATOR, RESOURCE_CREATION_DATE_TIME, LAST_MODIFIER, LAST_MODIFIED_DATE_TIME, RESOURCE_OWNER, CURRENTLY_ACTIVE, BUILDING_ID) values (5, '105', 50, 5, 1,'3.16.2020 10:00 PM', 1, '3.16.2020 10:00 PM', 1, 'true', 2);
-INSERT INTO ROOM (ID, ROOM_NUMBER, MAX_OCCUPANCY, BATCH_ID, RESOURCE_CREATOR, RESOURCE_CREATION_DATE_TIME, LAST_MODIFIER, LAST_MODIFIED_DATE_TIME, RESOURCE_OWNER, CURRENTLY_ACTIVE, BUILDING_ID) values (6, '103', 32, 6, 1,'4.12.2020 10:00 PM', 1, '6.01.2020 10:00 PM', 4, 'true', 2);
+INSERT INTO ROOM (ID, ROOM_NUMBER, MAX_OCCUPANCY, BATCH_ID, RESOURCE_CREATOR, RESOURCE_CREATION_DATE_TIME, LAST_MODIFIER, LAST_MODIFIED_DATE_TIME, RESOURCE_OWNER, CURRENTLY_ACTIVE, BUILDING_ID, VERSION, WORK_ORDERS) values (1, '107', 24, 1, 2,'2.18.2020 10:00 PM', 1, '3.16.2020 10:00 PM', 3, 'true', 1, 0, X'000000010000000200000003');
+INSERT INTO ROOM (ID, ROOM_NUMBER, MAX_OCCUPANCY, BATCH_ID, RESOURCE_CREATOR, RESOURCE_CREATION_DATE_TIME, LAST_MODIFIER, LAST_MODIFIED_DATE_TIME, RESOURCE_OWNER, CURRENTLY_ACTIVE, BUILDING_ID, VERSION, WORK_ORDERS) values (2, '300', 30, 2, 2,'3.16.2020 10:00 PM', 1, '3.16.2020 10:00 PM', 2, 'true', 1, 0, X'000000040000000500000006');
+INSERT INTO ROOM (ID, ROOM_NUMBER, MAX_OCCUPANCY, BATCH_ID, RESOURCE_CREATOR, RESOURCE_CREATION_DATE_TIME, LAST_MODIFIER, LAST_MODIFIED_DATE_TIME, RESOURCE_OWNER, CURRENTLY_ACTIVE, BUILDING_ID, VERSION, WORK_ORDERS) values (3, '320', 28, 3, 2,'3.16.2020 10:00 PM', 1, '3.16.2020 10:00 PM', 2, 'true', 1, 0, X'000000070000000800000009');
+INSERT INTO ROOM (ID, ROOM_NUMBER, MAX_OCCUPANCY, BATCH_ID, RESOURCE_CREATOR, RESOURCE_CREATION_DATE_TIME, LAST_MODIFIER, LAST_MODIFIED_DATE_TIME, RESOURCE_OWNER, CURRENTLY_ACTIVE, BUILDING_ID, VERSION, WORK_ORDERS) values (4, '201', 24, 4, 1,'3.16.2020 10:00 PM', 1, '3.16.2020 10:00 PM', 1, 'true', 2, 0, X'0000000a0000000b0000000c');
+INSERT INTO ROOM (ID, ROOM_NUMBER, MAX_OCCUPANCY, BATCH_ID, RESOURCE_CREATOR, RESOURCE_CREATION_DATE_TIME, LAST_MODIFIER, LAST_MODIFIED_DATE_TIME, RESOURCE_OWNER, CURRENTLY_ACTIVE, BUILDING_ID, VERSION, WORK_ORDERS) values (5, '105', 50, 5, 1,'3.16.2020 10:00 PM', 1, '3.16.2020 10:00 PM', 1, 'true', 2, 0, X'0000000d0000000e0000000f');
+INSERT INTO ROOM (ID, ROOM_NUMBER, MAX_OCCUPANCY, BATCH_ID, RESOURCE_CREATOR, RESOURCE_CREATION_DATE_TIME, LAST_MODIFIER, LAST_MODIFIED_DATE_TIME, RESOURCE_OWNER, CURRENTLY_ACTIVE, BUILDING_ID, VERSION, WORK_ORDERS) values (6, '103', 32, 6, 1,'4.12.2020 10:00 PM', 1, '6.01.2020 10:00 PM', 4, 'true', 2, 0, X'0000001000000011');
 
-INSERT INTO ROOM_WORK_ORDERS (ROOM_ID, WORK_ORDERS) values (1,1);
-INSERT INTO ROOM_WORK_ORDERS (ROOM_ID, WORK_ORDERS) values (1,2);
-INSERT INTO ROOM_WORK_ORDERS (ROOM_ID, WORK_ORDERS) values (1,3);
-INSERT INTO ROOM_WORK_ORDERS (ROOM_ID, WORK_ORDERS) values (2,4);
-INSERT INTO ROOM_WORK_ORDERS (ROOM_ID, WORK_ORDERS) values (2,5);
-INSERT INTO ROOM_WORK_ORDERS (ROOM_ID, WORK_ORDERS) values (2,6);
-INSERT INTO ROOM_WORK_ORDERS (ROOM_ID, WORK_ORDERS) values (3,7);
-INSERT INTO ROOM_WORK_ORDERS (ROOM_ID, WORK_ORDERS) values (3,8);
-INSERT INTO ROOM_WORK_ORDERS (ROOM_ID, WORK_ORDERS) values (3,9);
-INSERT INTO ROOM_WORK_ORDERS (ROOM_ID, WORK_ORDERS) values (4,10);
-INSERT INTO ROOM_WORK_ORDERS (ROOM_ID, WORK_ORDERS) values (4,11);
-INSERT INTO ROOM_WORK_ORDERS (ROOM_ID, WORK_ORDERS) values (4,12);
-INSERT INTO ROOM_WORK_ORDERS (ROOM_ID, WORK_ORDERS) values (5,13);
-INSERT INTO ROOM_WORK_ORDERS (ROOM_ID, WORK_ORDERS) values (5,14);
-INSERT INTO ROOM_WORK_ORDERS (ROOM_ID, WORK_ORDERS) values (5,15);
-INSERT INTO ROOM_WORK_ORDERS (ROOM_ID, WORK_ORDERS) values (6,16);
-INSERT INTO ROOM_WORK_ORDERS (ROOM_ID, WORK_ORDERS) values (6,17);
+INSERT INTO ROOM_WORK_ORDER (WORK_ORDER, ROOM_ID) values (1, 1);
+INSERT INTO ROOM_WORK_ORDER (WORK_ORDER, ROOM_ID) values (2, 1);
+INSERT INTO ROOM_WORK_ORDER (WORK_ORDER, ROOM_ID) values (3, 1);
+INSERT INTO ROOM_WORK_ORDER (WORK_ORDER, ROOM_ID) values (4, 2);
+INSERT INTO ROOM_WORK_ORDER (WORK_ORDER, ROOM_ID) values (5, 2);
+INSERT INTO ROOM_WORK_ORDER (WORK_ORDER, ROOM_ID) values (6, 2);
+INSERT INTO ROOM_WORK_ORDER (WORK_ORDER, ROOM_ID) values (7, 3);
+INSERT INTO ROOM_WORK_ORDER (WORK_ORDER, ROOM_ID) values (8, 3);
+INSERT INTO ROOM_WORK_ORDER (WORK_ORDER, ROOM_ID) values (9, 3);
+INSERT INTO ROOM_WORK_ORDER (WORK_ORDER, ROOM_ID) values (10, 4);
+INSERT INTO ROOM_WORK_ORDER (WORK_ORDER, ROOM_ID) values (11, 4);
+INSERT INTO ROOM_WORK_ORDER (WORK_ORDER, ROOM_ID) values (12, 4);
+INSERT INTO ROOM_WORK_ORDER (WORK_ORDER, ROOM_ID) values (13, 5);
+INSERT INTO ROOM_WORK_ORDER (WORK_ORDER, ROOM_ID) values (14, 5);
+INSERT INTO ROOM_WORK_ORDER (WORK_ORDER, ROOM_ID) values (15, 5);
+INSERT INTO ROOM_WORK_ORDER (WORK_ORDER, ROOM_ID) values (16, 6);
+INSERT INTO ROOM_WORK_ORDER (WORK_ORDER, ROOM_ID) values (17, 6);
 
-INSERT INTO ROOM_STATUS (ID, WHITE_BOARD_CLEANED, CHAIRS_ORDERED, SUBMITTED_DATE_TIME, SUBMITTER_ID, OTHER_NOTES, ROOM_ID) values (1, 'true', 'true', '06/10/2020',1, 'Other things need to be ordered', 1);
-INSERT INTO ROOM_STATUS (ID, WHITE_BOARD_CLEANED, CHAIRS_ORDERED, SUBMITTED_DATE_TIME, SUBMITTER_ID, OTHER_NOTES, ROOM_ID) values (2, 'true', 'false', '06/11/2020',1, '', 1);
-INSERT INTO ROOM_STATUS (ID, WHITE_BOARD_CLEANED, CHAIRS_ORDERED, SUBMITTED_DATE_TIME, SUBMITTER_ID, OTHER_NOTES, ROOM_ID) values (3, 'true', 'false', '06/12/2020',1, '', 1);
-INSERT INTO ROOM_STATUS (ID, WHITE_BOARD_CLEANED, CHAIRS_ORDERED, SUBMITTED_DATE_TIME, SUBMITTER_ID, OTHER_NOTES, ROOM_ID) values (4, 'true', 'true', '06/13/2020',1, 'Other things need to be ordered', 2);
-INSERT INTO ROOM_STATUS (ID, WHITE_BOARD_CLEANED, CHAIRS_ORDERED, SUBMITTED_DATE_TIME, SUBMITTER_ID, OTHER_NOTES, ROOM_ID) values (5, 'true', 'false', '06/14/2020',1, '', 2);
-INSERT INTO ROOM_STATUS (ID, WHITE_BOARD_CLEANED, CHAIRS_ORDERED, SUBMITTED_DATE_TIME, SUBMITTER_ID, OTHER_NOTES, ROOM_ID) values (6, 'true', 'false', '06/15/2020',1, '', 2);
-INSERT INTO ROOM_STATUS (ID, WHITE_BOARD_CLEANED, CHAIRS_ORDERED, SUBMITTED_DATE_TIME, SUBMITTER_ID, OTHER_NOTES, ROOM_ID) values (7, 'true', 'true', '06/16/2020',1, 'Other things need to be ordered', 3);
-INSERT INTO ROOM_STATUS (ID, WHITE_BOARD_CLEANED, CHAIRS_ORDERED, SUBMITTED_DATE_TIME, SUBMITTER_ID, OTHER_NOTES, ROOM_ID) values (8, 'true', 'false', '06/17/2020',1, '', 3);
-INSERT INTO ROOM_STATUS (ID, WHITE_BOARD_CLEANED, CHAIRS_ORDERED, SUBMITTED_DATE_TIME, SUBMITTER_ID, OTHER_NOTES, ROOM_ID) values (9, 'true', 'false', '06/18/2020',1, '', 3);
-INSERT INTO ROOM_STATUS (ID, WHITE_BOARD_CLEANED, CHAIRS_ORDERED, SUBMITTED_DATE_TIME, SUBMITTER_ID, OTHER_NOTES, ROOM_ID) values (10, 'true', 'true', '06/19/2020',1, 'Other things need to be ordered', 4);
-INSERT INTO ROOM_STATUS (ID, WHITE_BOARD_CLEANED, CHAIRS_ORDERED, SUBMITTED_DATE_TIME, SUBMITTER_ID, OTHER_NOTES, ROOM_ID) values (11, 'true', 'false', '06/20/2020',1, '', 4);
-INSERT INTO ROOM_STATUS (ID, WHITE_BOARD_CLEANED, CHAIRS_ORDERED, SUBMITTED_DATE_TIME, SUBMITTER_ID, OTHER_NOTES, ROOM_ID) values (12, 'true', 'false', '06/21/2020',1, '', 4);
-INSERT INTO ROOM_STATUS (ID, WHITE_BOARD_CLEANED, CHAIRS_ORDERED, SUBMITTED_DATE_TIME, SUBMITTER_ID, OTHER_NOTES, ROOM_ID) values (13, 'true', 'true', '06/22/2020',1, 'Other things need to be ordered', 5);
-INSERT INTO ROOM_STATUS (ID, WHITE_BOARD_CLEANED, CHAIRS_ORDERED, SUBMITTED_DATE_TIME, SUBMITTER_ID, OTHER_NOTES, ROOM_ID) values (14, 'true', 'false', '06/23/2020',1, '', 5);
-INSERT INTO ROOM_STATUS (ID, WHITE_BOARD_CLEANED, CHAIRS_ORDERED, SUBMITTED_DATE_TIME, SUBMITTER_ID, OTHER_NOTES, ROOM_ID) values (15, 'true', 'false', '06/24/2020',1, '', 5);
-INSERT INTO ROOM_STATUS (ID, WHITE_BOARD_CLEANED, CHAIRS_ORDERED, SUBMITTED_DATE_TIME, SUBMITTER_ID, OTHER_NOTES, ROOM_ID) values (16, 'true', 'true', '06/25/2020',1, 'Other things need to be ordered', 6);
-INSERT INTO ROOM_STATUS (ID, WHITE_BOARD_CLEANED, CHAIRS_ORDERED, SUBMITTED_DATE_TIME, SUBMITTER_ID, OTHER_NOTES, ROOM_ID) values (17, 'true', 'false', '06/26/2020',1, '', 6);
-INSERT INTO ROOM_STATUS (ID, WHITE_BOARD_CLEANED, CHAIRS_ORDERED, SUBMITTED_DATE_TIME, SUBMITTER_ID, OTHER_NOTES, ROOM_ID) values (18, 'true', 'false', '06/27/2020',1, '', 6);
\ No newline at end of file
+INSERT INTO ROOM_STATUS (ID, WHITE_BOARD_CLEANED, CHAIRS_ORDERED, SUBMITTED_DATE_TIME, SUBMITTED_AT, SUBMITTER_ID, OTHER_NOTES, ROOM_ID) values (1, 'true', 'true', '06/10/2020', '2020-06-10 00:00:00',1, 'Other things need to be ordered', 1);
+INSERT INTO ROOM_STATUS (ID, WHITE_BOARD_CLEANED, CHAIRS_ORDERED, SUBMITTED_DATE_TIME, SUBMITTED_AT, SUBMITTER_ID, OTHER_NOTES, ROOM_ID) values (2, 'true', 'false', '06/11/2020', '2020-06-11 00:00:00',1, '', 1);
+INSERT INTO ROOM_STATUS (ID, WHITE_BOARD_CLEANED, CHAIRS_ORDERED, SUBMITTED_DATE_TIME, SUBMITTED_AT, SUBMITTER_ID, OTHER_NOTES, ROOM_ID) values (3, 'true', 'false', '06/12/2020', '2020-06-12 00:00:00',1, '', 1);
+INSERT INTO ROOM_STATUS (ID, WHITE_BOARD_CLEANED, CHAIRS_ORDERED, SUBMITTED_DATE_TIME, SUBMITTED_AT, SUBMITTER_ID, OTHER_NOTES, ROOM_ID) values (4, 'true', 'true', '06/13/2020', '2020-06-13 00:00:00',1, 'Other things need to be ordered', 2);
+INSERT INTO ROOM_STATUS (ID, WHITE_BOARD_CLEANED, CHAIRS_ORDERED, SUBMITTED_DATE_TIME, SUBMITTED_AT, SUBMITTER_ID, OTHER_NOTES, ROOM_ID) values (5, 'true', 'false', '06/14/2020', '2020-06-14 00:00:00',1, '', 2);
+INSERT INTO ROOM_STATUS (ID, WHITE_BOARD_CLEANED, CHAIRS_ORDERED, SUBMITTED_DATE_TIME, SUBMITTED_AT, SUBMITTER_ID, OTHER_NOTES, ROOM_ID) values (6, 'true', 'false', '06/15/2020', '2020-06-15 00:00:00',1, '', 2);
+INSERT INTO ROOM_STATUS (ID, WHITE_BOARD_CLEANED, CHAIRS_ORDERED, SUBMITTED_DATE_TIME, SUBMITTED_AT, SUBMITTER_ID, OTHER_NOTES, ROOM_ID) values (7, 'true', 'true', '06/16/2020', '2020-06-16 00:00:00',1, 'Other things need to be ordered', 3);
+INSERT INTO ROOM_STATUS (ID, WHITE_BOARD_CLEANED, CHAIRS_ORDERED, SUBMITTED_DATE_TIME, SUBMITTED_AT, SUBMITTER_ID, OTHER_NOTES, ROOM_ID) values (8, 'true', 'false', '06/17/2020', '2020-06-17 00:00:00',1, '', 3);
+INSERT INTO ROOM_STATUS (ID, WHITE_BOARD_CLEANED, CHAIRS_ORDERED, SUBMITTED_DATE_TIME, SUBMITTED_AT, SUBMITTER_ID, OTHER_NOTES, ROOM_ID) values (9, 'true', 'false', '06/18/2020', '2020-06-18 00:00:00',1, '', 3);
+INSERT INTO ROOM_STATUS (ID, WHITE_BOARD_CLEANED, CHAIRS_ORDERED, SUBMITTED_DATE_TIME, SUBMITTED_AT, SUBMITTER_ID, OTHER_NOTES, ROOM_ID) values (10, 'true', 'true', '06/19/2020', '2020-06-19 00:00:00',1, 'Other things need to be ordered', 4);
+INSERT INTO ROOM_STATUS (ID, WHITE_BOARD_CLEANED, CHAIRS_ORDERED, SUBMITTED_DATE_TIME, SUBMITTED_AT, SUBMITTER_ID, OTHER_NOTES, ROOM_ID) values (11, 'true', 'false', '06/20/2020', '2020-06-20 00:00:00',1, '', 4);
+INSERT INTO ROOM_STATUS (ID, WHITE_BOARD_CLEANED, CHAIRS_ORDERED, SUBMITTED_DATE_TIME, SUBMITTED_AT, SUBMITTER_ID, OTHER_NOTES, ROOM_ID) values (12, 'true', 'false', '06/21/2020', '2020-06-21 00:00:00',1, '', 4);
+INSERT INTO ROOM_STATUS (ID, WHITE_BOARD_CLEANED, CHAIRS_ORDERED, SUBMITTED_DATE_TIME, SUBMITTED_AT, SUBMITTER_ID, OTHER_NOTES, ROOM_ID) values (13, 'true', 'true', '06/22/2020', '2020-06-22 00:00:00',1, 'Other things need to be ordered', 5);
+INSERT INTO ROOM_STATUS (ID, WHITE_BOARD_CLEANED, CHAIRS_ORDERED, SUBMITTED_DATE_TIME, SUBMITTED_AT, SUBMITTER_ID, OTHER_NOTES, ROOM_ID) values (14, 'true', 'false', '06/23/2020', '2020-06-23 00:00:00',1, '', 5);
+INSERT INTO ROOM_STATUS (ID, WHITE_BOARD_CLEANED, CHAIRS_ORDERED, SUBMITTED_DATE_TIME, SUBMITTED_AT, SUBMITTER_ID, OTHER_NOTES, ROOM_ID) values (15, 'true', 'false', '06/24/2020', '2020-06-24 00:00:00',1, '', 5);
+INSERT INTO ROOM_STATUS (ID, WHITE_BOARD_CLEANED, CHAIRS_ORDERED, SUBMITTED_DATE_TIME, SUBMITTED_AT, SUBMITTER_ID, OTHER_NOTES, ROOM_ID) values (16, 'true', 'true', '06/25/2020', '2020-06-25 00:00:00',1, 'Other things need to be ordered', 6);
+INSERT INTO ROOM_STATUS (ID, WHITE_BOARD_CLEANED, CHAIRS_ORDERED, SUBMITTED_DATE_TIME, SUBMITTED_AT, SUBMITTER_ID, OTHER_NOTES, ROOM_ID) values (17, 'true', 'false', '06/26/2020', '2020-06-26 00:00:00',1, '', 6);
+INSERT INTO ROOM_STATUS (ID, WHITE_BOARD_CLEANED, CHAIRS_ORDERED, SUBMITTED_DATE_TIME, SUBMITTED_AT, SUBMITTER_ID, OTHER_NOTES, ROOM_ID) values (18, 'true', 'false', '06/27/2020', '2020-06-27 00:00:00',1, '', 6);
\ No newline at end of file
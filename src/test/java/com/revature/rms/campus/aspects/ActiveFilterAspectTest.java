@@ -0,0 +1,77 @@
+package com.revature.rms.campus.aspects;
+
+import com.revature.rms.campus.entities.Room;
+import com.revature.rms.campus.repositories.RoomRepository;
+import com.revature.rms.campus.services.ActiveFilter;
+import com.revature.rms.campus.services.RoomService;
+import org.hibernate.Session;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.List;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * This class tests that read-only service methods leave out deactivated resources unless inactive ones were
+ * asked for. Each test runs in a transaction that is rolled back, so the deactivated room is restored.
+ */
+@SpringBootTest
+@RunWith(SpringRunner.class)
+@Transactional
+public class ActiveFilterAspectTest {
+
+    @Autowired
+    private RoomService roomService;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Before
+    public void setup() {
+        roomRepository.deactivateById(1, "6.15.2020 10:00 PM");
+    }
+
+    /**
+     * Tests that a deactivated room is not returned by default.
+     */
+    @Test
+    public void testInactiveRoomsHiddenByDefault() {
+        List<Room> rooms = roomService.findAll();
+
+        assertFalse(rooms.isEmpty());
+        assertTrue(rooms.stream().noneMatch(room -> room.getId() == 1));
+    }
+
+    /**
+     * Tests that a deactivated room is returned when inactive resources are asked for.
+     */
+    @Test
+    public void testIncludeInactive() {
+        List<Room> rooms = ActiveFilter.includingInactive(true, roomService::findAll);
+
+        assertTrue(rooms.stream().anyMatch(room -> room.getId() == 1));
+    }
+
+    /**
+     * Tests that a read-only method joining a read-write transaction turns the filter off again when it returns.
+     */
+    @Test
+    public void testFilterRestoredAfterJoinedTransaction() {
+        roomService.findAll();
+
+        assertNull(entityManager.unwrap(Session.class).getEnabledFilter(ActiveFilter.NAME));
+    }
+}
@@ -0,0 +1,212 @@
+package com.revature.rms.campus.aspects;
+
+import com.revature.rms.campus.DTO.KeysetPage;
+import com.revature.rms.campus.config.ShardDirectory;
+import com.revature.rms.campus.services.FanOut;
+import com.revature.rms.campus.services.Shard;
+import com.revature.rms.campus.services.Sharded;
+import com.revature.rms.core.exceptions.*;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceUnitUtil;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests that ShardAspect sends @Sharded calls to the shard holding the resource and runs @FanOut calls on every
+ * shard, merging the results. Campus ids in these tests live on the shard given by their parity, and so do the
+ * rows of the paged listing, which are their own ids.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class ShardAspectTest {
+
+    @Mock
+    CrudRepository<Object, Integer> campusRepository;
+
+    @Mock
+    EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    PersistenceUnitUtil persistenceUnitUtil;
+
+    Lookups lookups;
+
+    @Before
+    public void setup() {
+        Map<Sharded.Key, CrudRepository<?, Integer>> repositories = new EnumMap<>(Sharded.Key.class);
+        repositories.put(Sharded.Key.CAMPUS, campusRepository);
+
+        AspectJProxyFactory factory = new AspectJProxyFactory(new Lookups());
+        factory.setProxyTargetClass(true);
+        ShardAspect aspect = new ShardAspect(new ShardDirectory(2, repositories));
+        ReflectionTestUtils.setField(aspect, "entityManagerFactory", entityManagerFactory);
+        factory.addAspect(aspect);
+        lookups = factory.getProxy();
+    }
+
+    private void rowsAreTheirIds() {
+        when(entityManagerFactory.getPersistenceUnitUtil()).thenReturn(persistenceUnitUtil);
+        when(persistenceUnitUtil.getIdentifier(any())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    private void campusesByParity() {
+        when(campusRepository.existsById(anyInt()))
+                .thenAnswer(invocation -> invocation.<Integer>getArgument(0) % 2 == Shard.current());
+    }
+
+    public static class Lookups {
+
+        @FanOut
+        public List<Integer> shards() {
+            return Collections.singletonList(Shard.current());
+        }
+
+        @FanOut
+        public Map<String, List<Integer>> shardsByName() {
+            return Collections.singletonMap("shards", Collections.singletonList(Shard.current()));
+        }
+
+        @FanOut
+        public int count() {
+            return 10 + Shard.current();
+        }
+
+        @FanOut
+        public long total() {
+            return 100L * (Shard.current() + 1);
+        }
+
+        @FanOut
+        public KeysetPage<Integer> page(int after, int limit) {
+            List<Integer> rows = Arrays.asList(1, 2, 3, 4, 5, 6, 8).stream()
+                    .filter(id -> id > after && id % 2 == Shard.current())
+                    .limit(limit + 1)
+                    .collect(Collectors.toList());
+            return KeysetPage.of(rows, limit, id -> id);
+        }
+
+        @FanOut
+        public String onShardOne() {
+            if (Shard.current() != 1) {
+                throw new ResourceNotFoundException("Not on shard " + Shard.current());
+            }
+            return "found";
+        }
+
+        @FanOut
+        public String nowhere() {
+            throw new ResourceNotFoundException("Not on shard " + Shard.current());
+        }
+
+        @Sharded(Sharded.Key.CAMPUS)
+        public Integer campus(int id) {
+            return Shard.current();
+        }
+
+        @Sharded(Sharded.Key.CAMPUS)
+        public List<String> campuses(List<Integer> ids) {
+            return ids.stream().map(id -> id + "@" + Shard.current()).collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Tests that list results of every shard are concatenated and the thread is unbound afterwards.
+     */
+    @Test
+    public void testFanOutConcatenatesLists() {
+        assertEquals(Arrays.asList(0, 1), lookups.shards());
+        assertNull(Shard.current());
+    }
+
+    /**
+     * Tests that maps of lists are joined key by key.
+     */
+    @Test
+    public void testFanOutJoinsMaps() {
+        assertEquals(Collections.singletonMap("shards", Arrays.asList(0, 1)), lookups.shardsByName());
+    }
+
+    /**
+     * Tests that counts of every shard are summed, as ints and as longs.
+     */
+    @Test
+    public void testFanOutSumsCounts() {
+        assertEquals(21, lookups.count());
+        assertEquals(300L, lookups.total());
+    }
+
+    /**
+     * Tests that pages of every shard are merged in id order, keeping only the lowest ids, with the last id kept
+     * as the next cursor so the rows left over are fetched with the next page.
+     */
+    @Test
+    public void testFanOutMergesPages() {
+        rowsAreTheirIds();
+
+        KeysetPage<Integer> first = lookups.page(0, 3);
+        assertEquals(Arrays.asList(1, 2, 3), first.getContent());
+        assertEquals(Integer.valueOf(3), first.getNextCursor());
+
+        KeysetPage<Integer> second = lookups.page(first.getNextCursor(), 3);
+        assertEquals(Arrays.asList(4, 5, 6), second.getContent());
+        assertEquals(Integer.valueOf(6), second.getNextCursor());
+
+        KeysetPage<Integer> last = lookups.page(second.getNextCursor(), 3);
+        assertEquals(Collections.singletonList(8), last.getContent());
+        assertNull(last.getNextCursor());
+    }
+
+    /**
+     * Tests that a single result is taken from the shard that has it.
+     */
+    @Test
+    public void testFanOutFindsSingleResult() {
+        assertEquals("found", lookups.onShardOne());
+    }
+
+    /**
+     * Tests that a ResourceNotFoundException is thrown when no shard has the resource.
+     */
+    @Test(expected = ResourceNotFoundException.class)
+    public void testFanOutNotFoundOnAnyShard() {
+        lookups.nowhere();
+    }
+
+    /**
+     * Tests that a call is sent to the shard holding the campus, which is looked up only once.
+     */
+    @Test
+    public void testShardedLocatesCampusOnce() {
+        campusesByParity();
+
+        assertEquals(Integer.valueOf(1), lookups.campus(5));
+        assertEquals(Integer.valueOf(1), lookups.campus(5));
+        verify(campusRepository, times(2)).existsById(5);
+    }
+
+    /**
+     * Tests that a list spanning shards is split, with each part written on its own shard.
+     */
+    @Test
+    public void testShardedSplitsList() {
+        campusesByParity();
+
+        assertEquals(Arrays.asList("2@0", "4@0", "3@1"), lookups.campuses(Arrays.asList(2, 3, 4)));
+    }
+}
@@ -0,0 +1,130 @@
+package com.revature.rms.campus.config;
+
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests the read/write routing against two separate H2 instances standing in for the primary and the
+ * replica. Each instance holds a single row naming itself, so every query reports where it was served.
+ */
+public class ReplicaRoutingDataSourceTest {
+
+    DataSource primary;
+    DataSource replica;
+    AtomicBoolean replicaUsable;
+    JdbcTemplate jdbc;
+    DataSourceTransactionManager transactionManager;
+
+    @Before
+    public void setup() {
+        primary = h2("routing_primary");
+        replica = h2("routing_replica");
+        replicaUsable = new AtomicBoolean(true);
+
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, replica, replicaUsable::get);
+        routing.afterPropertiesSet();
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+
+        jdbc = new JdbcTemplate(dataSource);
+        transactionManager = new DataSourceTransactionManager(dataSource);
+    }
+
+    private DataSource h2(String name) {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.execute("create table if not exists node (name varchar(20))");
+        template.execute("delete from node");
+        template.update("insert into node values (?)", name);
+        return dataSource;
+    }
+
+    private String servedBy(boolean readOnly) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status -> jdbc.queryForObject("select name from node", String.class));
+    }
+
+    @Test
+    public void testReadOnlyTransactionUsesReplica() {
+        assertEquals("routing_replica", servedBy(true));
+    }
+
+    @Test
+    public void testReadWriteTransactionUsesPrimary() {
+        assertEquals("routing_primary", servedBy(false));
+    }
+
+    @Test
+    public void testReadOnlyTransactionFallsBackToPrimary() {
+        replicaUsable.set(false);
+        assertEquals("routing_primary", servedBy(true));
+    }
+
+    /**
+     * Runs a query in a transaction that has a Hibernate session bound to it, the way JpaTransactionManager
+     * binds one, and returns that session.
+     */
+    private Session sessionOf(boolean readOnly) {
+        Session session = mock(Session.class);
+        EntityManager entityManager = mock(EntityManager.class);
+        when(entityManager.unwrap(Session.class)).thenReturn(session);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(readOnly);
+        transaction.execute(status -> {
+            TransactionSynchronizationManager.bindResource(entityManager, new EntityManagerHolder(entityManager));
+            try {
+                return jdbc.queryForObject("select name from node", String.class);
+            } finally {
+                TransactionSynchronizationManager.unbindResource(entityManager);
+            }
+        });
+        return session;
+    }
+
+    @Test
+    public void testReplicaReadsDoNotFillSecondLevelCache() {
+        verify(sessionOf(true)).setCacheMode(CacheMode.GET);
+    }
+
+    @Test
+    public void testPrimaryReadsFillSecondLevelCache() {
+        replicaUsable.set(false);
+        verify(sessionOf(true), never()).setCacheMode(CacheMode.GET);
+    }
+
+    @Test
+    public void testLagMonitorRejectsLaggingReplica() {
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(replica, "select 30", Duration.ofSeconds(10));
+        monitor.check();
+        assertFalse(monitor.isReplicaUsable());
+    }
+
+    @Test
+    public void testLagMonitorAcceptsReachableReplica() {
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(replica, null, Duration.ofSeconds(10));
+        monitor.check();
+        assertTrue(monitor.isReplicaUsable());
+    }
+}
@@ -0,0 +1,76 @@
+package com.revature.rms.campus.config;
+
+import com.revature.rms.campus.services.Shard;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests the shard routing against two separate H2 instances standing in for the shards. Each instance holds a
+ * single row naming itself, so every query reports where it was served.
+ */
+public class ShardRoutingDataSourceTest {
+
+    DataSource shard0;
+    DataSource shard1;
+    JdbcTemplate jdbc;
+    DataSourceTransactionManager transactionManager;
+
+    @Before
+    public void setup() {
+        shard0 = h2("routing_shard_0");
+        shard1 = h2("routing_shard_1");
+
+        ShardRoutingDataSource routing = new ShardRoutingDataSource(Arrays.asList(shard0, shard1));
+        routing.afterPropertiesSet();
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+
+        jdbc = new JdbcTemplate(dataSource);
+        transactionManager = new DataSourceTransactionManager(dataSource);
+    }
+
+    private DataSource h2(String name) {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.execute("create table if not exists node (name varchar(20))");
+        template.execute("delete from node");
+        template.update("insert into node values (?)", name);
+        return dataSource;
+    }
+
+    private String servedBy() {
+        return new TransactionTemplate(transactionManager)
+                .execute(status -> jdbc.queryForObject("select name from node", String.class));
+    }
+
+    @Test
+    public void testUnboundThreadUsesShardZero() {
+        assertEquals("routing_shard_0", servedBy());
+    }
+
+    @Test
+    public void testBoundThreadUsesItsShard() {
+        assertEquals("routing_shard_1", Shard.on(1, this::servedBy));
+        assertEquals("routing_shard_0", Shard.on(0, this::servedBy));
+    }
+
+    @Test
+    public void testShardIdsComeFromItsOwnBlock() {
+        DataSource shard = new DriverManagerDataSource("jdbc:h2:mem:routing_schema_1;DB_CLOSE_DELAY=-1", "sa", "");
+        ShardingConfig.initialize(shard, 1);
+        // a second start finds the schema in place and keeps the sequences where they are
+        ShardingConfig.initialize(shard, 1);
+
+        Long id = new JdbcTemplate(shard).queryForObject("select next value for resource_seq", Long.class);
+        assertEquals(ShardingConfig.ID_BLOCK + 1000, (long) id);
+    }
+}
@@ -1,19 +1,31 @@
 package com.revature.rms.campus.controllers;
+import com.revature.rms.campus.DTO.BuildingDTO;
 import com.revature.rms.campus.entities.*;
 import com.revature.rms.core.exceptions.*;
+import com.revature.rms.core.metadata.ResourceMetadata;
 import com.revature.rms.campus.services.BuildingService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.springframework.http.MediaType;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 
 import java.util.*;
 
 import static org.junit.Assert.assertEquals;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 /**
  * These tests are for additional validation and to ensure the CampusService methods are working successfully when called
  * by the CampusController methods. See CampusServiceTests for more details on testing for CampusService methods.
@@ -29,12 +41,12 @@ public class BuildingControllerTest {
 
     @Test
     public void testFindAllBuildingWithValidBuilding() {
-        Building testBuilding = new Building(1, "Muma School of Business", "MSB", new Address(),
-                2, new ArrayList<Amenity>(1), new ArrayList<Room>(3));
+        BuildingDTO testBuilding = new BuildingDTO(1, "Muma School of Business", "MSB", new Address(),
+                2, new ResourceMetadata(), 1);
 
-        List<Building> testBuildingList = Arrays.asList(testBuilding);
+        List<BuildingDTO> testBuildingList = Arrays.asList(testBuilding);
 
-        when(buildingService.findAll()).thenReturn(testBuildingList);
+        when(buildingService.findAllAsDTO()).thenReturn(testBuildingList);
 
         assertEquals(buildingController.getAllBuildings(), testBuildingList);
     }
@@ -42,9 +54,9 @@ public class BuildingControllerTest {
     @Test
     public void testFindAllBuildingWithNoBuilding() {
 
-        List<Building> testBuildingList = Collections.emptyList();
+        List<BuildingDTO> testBuildingList = Collections.emptyList();
 
-        when(buildingService.findAll()).thenReturn(testBuildingList);
+        when(buildingService.findAllAsDTO()).thenReturn(testBuildingList);
 
         assertEquals(buildingController.getAllBuildings(), testBuildingList);
     }
@@ -168,8 +180,8 @@ public class BuildingControllerTest {
         Building testBuilding2 = new Building(1, "Muma School of Business", "MSB", new Address(),
                 2, new ArrayList<Amenity>(1), new ArrayList<Room>(3));
 
-        when(buildingService.update(Mockito.any())).thenReturn(testBuilding2);
-        assertEquals(buildingController.updateBuilding(testBuilding), testBuilding2);
+        when(buildingService.update(Mockito.any(), Mockito.isNull())).thenReturn(testBuilding2);
+        assertEquals(buildingController.updateBuilding(testBuilding, null), testBuilding2);
     }
 
     @Test
@@ -191,4 +203,37 @@ public class BuildingControllerTest {
         buildingController.deleteBuildingById(testId);
         verify(buildingService, times(0)).delete(testId);
     }
+
+    /**
+     * Tests that the building list is served as JSON to clients that accept
+     * anything, or send no Accept header at all.
+     */
+    @Test
+    public void testGetAllBuildingsDefaultsToJson() throws Exception {
+        when(buildingService.findAllAsDTO()).thenReturn(Collections.emptyList());
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new BuildingController(buildingService, new ObjectMapper())).build();
+
+        mockMvc.perform(get("/campuses/buildings").accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+        mockMvc.perform(get("/campuses/buildings"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+
+    /**
+     * Tests that the building list is streamed as NDJSON when asked for.
+     */
+    @Test
+    public void testGetAllBuildingsAsNdJson() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new BuildingController(buildingService, new ObjectMapper())).build();
+
+        MvcResult result = mockMvc.perform(get("/campuses/buildings").accept(NdJson.MEDIA_TYPE))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(NdJson.MEDIA_TYPE));
+        verify(buildingService).streamAll(any());
+    }
 }
@@ -195,8 +195,8 @@ public class CampusControllerTest {
      */
     @Test
     public void testUpdateCampus() {
-        when(campusService.update(testCampuses.get(2))).thenReturn(testCampuses.get(3));
-        assertEquals(testCampuses.get(3), campusController.updateCampus(testCampuses.get(2)));
+        when(campusService.update(testCampuses.get(2), null)).thenReturn(testCampuses.get(3));
+        assertEquals(testCampuses.get(3), campusController.updateCampus(testCampuses.get(2), null));
     }
 
     //************************************** DELETING *******************************************************
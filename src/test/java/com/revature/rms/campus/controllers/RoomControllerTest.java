@@ -1,22 +1,33 @@
 package com.revature.rms.campus.controllers;
 
+import com.revature.rms.campus.DTO.RoomDTO;
 import com.revature.rms.campus.entities.Room;
 import com.revature.rms.campus.entities.RoomStatus;
 import com.revature.rms.campus.entities.User;
 import com.revature.rms.campus.services.RoomService;
 import com.revature.rms.core.exceptions.*;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.springframework.http.MediaType;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.util.*;
 
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 /**
  * This is for verifying the methods in RoomController.java function
@@ -88,8 +99,9 @@ public class RoomControllerTest {
      */
     @Test
     public void testGetAllRooms() {
-        when(roomService.findAll()).thenReturn(testRooms);
-        assertEquals(testRooms, roomController.getAllRooms());
+        List<RoomDTO> testRoomDTOs = Collections.singletonList(new RoomDTO(1, "9000", 25, 9000, null, null, 1));
+        when(roomService.findAllAsDTO()).thenReturn(testRoomDTOs);
+        assertEquals(testRoomDTOs, roomController.getAllRooms());
     }
 
     /**
@@ -134,15 +146,15 @@ public class RoomControllerTest {
     @Test
     public void testUpdateRoom() {
         Room r4 = new Room(4, "418", 30,  new ArrayList<RoomStatus>(5),123, new ArrayList<Integer>(2));
-        when(roomService.update(testRooms.get(1))).thenReturn(r4);
-        assertEquals(r4, roomController.updateRoom(testRooms.get(1)));
+        when(roomService.update(testRooms.get(1), 3L)).thenReturn(r4);
+        assertEquals(r4, roomController.updateRoom(testRooms.get(1), "\"3\""));
     }
 
     @Test
     public void testUpdateRoomNumber() {
         Room r4 = new Room(4, "418", 30,  new ArrayList<RoomStatus>(5),123, new ArrayList<Integer>(2));
-        when(roomService.updateRoomNumber(testRooms.get(1))).thenReturn(r4);
-        assertEquals(r4, roomController.updateRoomNumber(testRooms.get(1)));
+        when(roomService.updateRoomNumber(testRooms.get(1), null)).thenReturn(r4);
+        assertEquals(r4, roomController.updateRoomNumber(testRooms.get(1), null));
     }
 
     /**
@@ -163,4 +175,60 @@ public class RoomControllerTest {
         roomController.deleteRoomById(0);
     }
 
+    /**
+     * Tests that the room list is served as JSON to clients that accept
+     * anything, or send no Accept header at all.
+     */
+    @Test
+    public void testGetAllRoomsDefaultsToJson() throws Exception {
+        when(roomService.findAllAsDTO()).thenReturn(Collections.emptyList());
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new RoomController(roomService, new ObjectMapper())).build();
+
+        mockMvc.perform(get("/campuses/rooms").accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+        mockMvc.perform(get("/campuses/rooms"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+
+    /**
+     * Tests that the room list is streamed as NDJSON when asked for.
+     */
+    @Test
+    public void testGetAllRoomsAsNdJson() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new RoomController(roomService, new ObjectMapper())).build();
+
+        MvcResult result = mockMvc.perform(get("/campuses/rooms").accept(NdJson.MEDIA_TYPE))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(NdJson.MEDIA_TYPE));
+        verify(roomService).streamAll(any());
+    }
+
+    /**
+     * Tests that the status range is served as JSON to clients that accept
+     * anything, and the Parquet export only to clients that ask for it.
+     */
+    @Test
+    public void testGetRoomStatusesDefaultsToJson() throws Exception {
+        when(roomService.findAllStatusByDateRange(any(), any())).thenReturn(Collections.emptyList());
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new RoomController(roomService, new ObjectMapper())).build();
+
+        mockMvc.perform(get("/campuses/rooms/statuses").accept(MediaType.ALL)
+                        .param("from", "2020-06-10T00:00:00Z").param("to", "2020-06-11T00:00:00Z"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+
+        MvcResult result = mockMvc.perform(get("/campuses/rooms/statuses").accept(RoomController.PARQUET_MEDIA_TYPE))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(RoomController.PARQUET_MEDIA_TYPE));
+        verify(roomService).exportStatuses(any());
+    }
+
 }
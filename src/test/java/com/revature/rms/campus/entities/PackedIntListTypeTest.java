@@ -0,0 +1,41 @@
+package com.revature.rms.campus.entities;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This class tests the packed storage of id lists in PackedIntListType.class and the IntList it reads them into.
+ */
+public class PackedIntListTypeTest {
+
+    /**
+     * Tests that ids survive packing into a column and back, four bytes per id.
+     */
+    @Test
+    public void testPackAndUnpack() {
+        byte[] packed = PackedIntListType.pack(Arrays.asList(1, 300, -7));
+
+        assertEquals(12, packed.length);
+        assertEquals(IntList.of(1, 300, -7), PackedIntListType.unpack(packed));
+        assertEquals(0, PackedIntListType.unpack(new byte[0]).size());
+    }
+
+    /**
+     * Tests that an IntList equals any list with the same ids, so dirty checking only sees real changes.
+     */
+    @Test
+    public void testIntListEqualsOtherLists() {
+        PackedIntListType type = new PackedIntListType();
+        IntList ids = IntList.of(4, 5);
+        IntList copy = (IntList) type.deepCopy(ids);
+
+        assertEquals(Arrays.asList(4, 5), ids);
+        assertEquals(Arrays.asList(4, 5).hashCode(), ids.hashCode());
+        assertTrue(type.equals(ids, copy));
+        copy.addInt(6);
+        assertFalse(type.equals(ids, copy));
+    }
+}
@@ -0,0 +1,246 @@
+package com.revature.rms.campus.jobs;
+
+import com.revature.rms.campus.CampusServiceApplication;
+import com.revature.rms.campus.entities.Address;
+import com.revature.rms.campus.services.AddressService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+import javax.persistence.metamodel.EntityType;
+import javax.sql.DataSource;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests the bulk seed mode. The application is started once with the seed profile against a temporary directory
+ * of CSV files, so db/schema.sql creates the database and Hibernate validates it against the entities on the way
+ * up. The refusals are checked against a bare H2 database built from the same schema.
+ */
+public class SeedLoaderTest {
+
+    @ClassRule
+    public static TemporaryFolder seedDir = new TemporaryFolder();
+
+    @Rule
+    public TemporaryFolder badSeedDir = new TemporaryFolder();
+
+    private static ConfigurableApplicationContext context;
+
+    private static JdbcTemplate jdbc;
+
+    @BeforeClass
+    public static void seed() throws IOException {
+        write(seedDir.getRoot(), "address.csv",
+                "id,unit_street,city,state,zip,country",
+                "2000,\"  123 Main   St \",Tampa,FL,33620,US",
+                "2001,456 Oak Ave,Reston,VA,20190,US");
+        write(seedDir.getRoot(), "campus.csv",
+                "id,name,abbr_name,shipping_address_id,training_manager_id,staging_manager_id,hr_lead,currently_active,version",
+                "5000,University of Seeding,UOS,2000,1,2,3,true,0");
+        write(seedDir.getRoot(), "building.csv",
+                "id,name,abbr_name,physical_address_id,training_lead,campus_id,currently_active,version",
+                "5001,Seed Hall,SH,2001,4,5000,true,0");
+        write(seedDir.getRoot(), "room.csv",
+                "id,room_number,max_occupancy,batch_id,building_id,currently_active,version",
+                "5002,101,20,1,5001,true,0",
+                "5003,102,25,1,5001,true,0");
+        write(seedDir.getRoot(), "room_status.csv",
+                "id,white_board_cleaned,chairs_ordered,submitted_date_time,submitter_id,other_notes,room_id",
+                "7000,true,false,\"Jan 28, 2020\",1,none,5002");
+
+        context = new SpringApplicationBuilder(CampusServiceApplication.class)
+                .profiles("seed")
+                .properties("rms.seed.dir=" + seedDir.getRoot().getAbsolutePath(),
+                        "spring.datasource.url=jdbc:h2:mem:seed_loader_test;DB_CLOSE_DELAY=-1",
+                        "spring.main.web-application-type=none",
+                        "eureka.client.enabled=false")
+                .run();
+        jdbc = context.getBean(JdbcTemplate.class);
+    }
+
+    @AfterClass
+    public static void close() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    private static void write(File dir, String name, String... lines) throws IOException {
+        Files.write(new File(dir, name).toPath(), Arrays.asList(lines), StandardCharsets.UTF_8);
+    }
+
+    private static int count(String table) {
+        return jdbc.queryForObject("select count(*) from " + table, Integer.class);
+    }
+
+    /**
+     * Tests that every file is loaded into its table, parents before children, and that tables without a file
+     * are left empty.
+     */
+    @Test
+    public void testSeedLoadsEveryFile() {
+        assertEquals(2, count("address"));
+        assertEquals(1, count("campus"));
+        assertEquals(1, count("building"));
+        assertEquals(2, count("room"));
+        assertEquals(1, count("room_status"));
+        assertEquals(0, count("amenity"));
+    }
+
+    /**
+     * Tests that every sequence was moved past the highest seeded id of its tables.
+     */
+    @Test
+    public void testSeedRestartsSequences() {
+        for (Map.Entry<String, List<String>> sequence : SeedLoader.SEQUENCES.entrySet()) {
+            long next = jdbc.queryForObject("select next value for " + sequence.getKey(), Long.class);
+            for (String table : sequence.getValue()) {
+                Long max = jdbc.queryForObject("select max(id) from " + table, Long.class);
+                assertTrue(sequence.getKey() + " hands out " + next + " but " + table + " holds " + max,
+                        max == null || next > max);
+            }
+        }
+    }
+
+    /**
+     * Tests that seeded addresses are normalized and hashed like any other, so AddressService finds them, and
+     * that a new address gets an id above the seeded ones.
+     */
+    @Test
+    public void testSeedAddressesAreCanonical() {
+        AddressService addressService = context.getBean(AddressService.class);
+
+        assertEquals("123 Main St", jdbc.queryForObject("select unit_street from address where id = 2000", String.class));
+        assertEquals(2000, addressService.canonical(new Address("123 main st", "TAMPA", "fl", "33620", "us")).getId());
+
+        Address added = addressService.canonical(new Address("789 Pine Rd", "Tampa", "FL", "33620", "US"));
+        assertTrue("new address got id " + added.getId(), added.getId() > 2001);
+    }
+
+    /**
+     * Tests that db/schema.sql creates every index and unique constraint the entities declare, with the same
+     * columns. Hibernate's validation only checks tables and columns, so this catches the rest of the drift.
+     */
+    @Test
+    public void testSchemaHasEntityIndexes() {
+        List<String> missing = new ArrayList<>();
+        for (EntityType<?> entity : context.getBean(EntityManagerFactory.class).getMetamodel().getEntities()) {
+            Table table = entity.getJavaType().getAnnotation(Table.class);
+            if (table == null) {
+                continue;
+            }
+            for (Index index : table.indexes()) {
+                List<String> columns = jdbc.queryForList("select column_name from information_schema.indexes "
+                        + "where index_name = ? order by ordinal_position", String.class, upper(index.name()));
+                if (!columns.equals(columnList(index.columnList().split(",")))) {
+                    missing.add(index.name() + " (" + index.columnList() + ") is " + columns);
+                }
+            }
+            for (UniqueConstraint unique : table.uniqueConstraints()) {
+                List<String> columnList = jdbc.queryForList("select column_list from information_schema.constraints "
+                        + "where constraint_name = ?", String.class, upper(unique.name()));
+                List<String> columns = columnList.isEmpty()
+                        ? columnList : columnList(columnList.get(0).split(","));
+                if (!columns.equals(columnList(unique.columnNames()))) {
+                    missing.add(unique.name() + " " + Arrays.toString(unique.columnNames()) + " is " + columns);
+                }
+            }
+        }
+        assertTrue("db/schema.sql differs from the entities:\n" + String.join("\n", missing), missing.isEmpty());
+    }
+
+    private static String upper(String name) {
+        return name.trim().toUpperCase(Locale.ROOT);
+    }
+
+    private static List<String> columnList(String... columns) {
+        List<String> names = new ArrayList<>();
+        for (String column : columns) {
+            names.add(upper(column));
+        }
+        return names;
+    }
+
+    private SeedLoader bareLoader(String database) {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1", "sa", "");
+        new ResourceDatabasePopulator(new ClassPathResource("db/schema.sql")).execute(dataSource);
+        return new SeedLoader(new JdbcTemplate(dataSource),
+                new TransactionTemplate(new DataSourceTransactionManager(dataSource)), new SimpleMeterRegistry(),
+                badSeedDir.getRoot().getAbsolutePath());
+    }
+
+    private void assertRefused(SeedLoader loader, String reason) {
+        try {
+            loader.run(null);
+            fail("Seed was not refused: " + reason);
+        } catch (IllegalStateException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains(reason));
+        }
+    }
+
+    /**
+     * Tests that an address.csv bringing its own content_hash is refused, since a hash made any other way than
+     * Address.canonicalize would never be found.
+     */
+    @Test
+    public void testSeedRefusesContentHash() throws IOException {
+        write(badSeedDir.getRoot(), "address.csv",
+                "id,unit_street,city,state,zip,country,content_hash",
+                "2000,123 Main St,Tampa,FL,33620,US,abc");
+
+        assertRefused(bareLoader("seed_loader_content_hash"), "content_hash");
+    }
+
+    /**
+     * Tests that two rows of address.csv that are the same address once normalized are refused.
+     */
+    @Test
+    public void testSeedRefusesDuplicateAddress() throws IOException {
+        write(badSeedDir.getRoot(), "address.csv",
+                "id,unit_street,city,state,zip,country",
+                "2000,123 Main St,Tampa,FL,33620,US",
+                "2001,123  MAIN ST,tampa,FL,33620,US");
+
+        assertRefused(bareLoader("seed_loader_duplicate_address"), "same address");
+    }
+
+    /**
+     * Tests that a header naming anything but a plain column is refused before it reaches the INSERT.
+     */
+    @Test
+    public void testSeedRefusesInvalidColumn() throws IOException {
+        write(badSeedDir.getRoot(), "room.csv",
+                "id,room_number) select 1; --",
+                "1,101");
+
+        assertRefused(bareLoader("seed_loader_invalid_column"), "invalid column");
+    }
+}
@@ -65,4 +65,14 @@ public class BuildingRepositoryTest {
 
     }
 
+    @Test
+    public void testFindByResourceOwner() {
+
+        List<Building> result = sut.findByResourceMetadataResourceOwnerAndResourceMetadataCurrentlyActive(2, true);
+
+        assertEquals(1, result.size());
+        assertEquals("North West Education Complex", result.get(0).getName());
+
+    }
+
 }
@@ -4,6 +4,8 @@ import com.revature.rms.campus.entities.Address;
 import com.revature.rms.campus.entities.Campus;
 import com.revature.rms.campus.entities.User;
 import com.revature.rms.core.metadata.*;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.Ignore;
 import org.junit.Test;
 import org.junit.jupiter.api.AfterEach;
@@ -12,6 +14,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.junit4.SpringRunner;
 
+import javax.persistence.EntityManagerFactory;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -26,6 +29,9 @@ public class CampusRepositoryTest {
     @Autowired
     private CampusRepository sut;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     @Test
     public void testFindByName() {
 
@@ -58,4 +64,17 @@ public class CampusRepositoryTest {
     }
 
 
-}
\ No newline at end of file
+    @Test
+    public void testFindByIdServedFromSecondLevelCache() {
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        sut.findById(1);
+        long hitsBefore = statistics.getSecondLevelCacheHitCount();
+
+        Campus result = sut.findById(1).get();
+
+        assertEquals("University of South Florida", result.getName());
+        assertThat(statistics.getSecondLevelCacheHitCount()).isGreaterThan(hitsBefore);
+    }
+
+}
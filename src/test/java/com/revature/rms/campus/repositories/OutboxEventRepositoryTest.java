@@ -0,0 +1,57 @@
+package com.revature.rms.campus.repositories;
+
+import com.revature.rms.campus.entities.OutboxEvent;
+import com.revature.rms.campus.services.ChangeFeedService;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Tests pruning the outbox against the H2 schema. Each test runs in a transaction that is rolled back.
+ */
+@SpringBootTest
+@RunWith(SpringRunner.class)
+@Transactional
+public class OutboxEventRepositoryTest {
+
+    @Autowired
+    private OutboxEventRepository sut;
+
+    @Autowired
+    private ChangeFeedService changeFeedService;
+
+    private OutboxEvent save(int resourceId, Instant occurredAt) {
+        return sut.save(new OutboxEvent(OutboxEvent.Resource.ROOM, resourceId, OutboxEvent.Action.UPDATED, occurredAt));
+    }
+
+    /**
+     * Tests that pruning every event keeps the newest sequenced one, so the next event is numbered after it
+     * instead of starting over at a position consumers have already passed.
+     */
+    @Test
+    public void testSequenceAfterFullPrune() {
+        Instant past = Instant.parse("2020-01-01T00:00:00Z");
+        save(1, past);
+        save(2, past);
+        changeFeedService.sequence();
+        int head = sut.findLastPosition();
+
+        changeFeedService.prune(Instant.now());
+
+        assertEquals(Integer.valueOf(head), sut.findFirstPosition());
+        assertEquals(Integer.valueOf(head), sut.findLastPosition());
+
+        OutboxEvent next = save(3, Instant.now());
+        assertNull(next.getPosition());
+        changeFeedService.sequence();
+        assertEquals(Integer.valueOf(head + 1), next.getPosition());
+    }
+}
@@ -0,0 +1,242 @@
+package com.revature.rms.campus.repositories;
+
+import com.revature.rms.campus.services.ActiveFilter;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceContext;
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Runs each repository lookup against the H2 schema, captures the SQL Hibernate generates for it with a
+ * StatementInspector, and runs EXPLAIN on every captured statement. The test fails if any of them reads a whole
+ * table, so a new query method needs an entry here, and an index, before it ships. Each test runs in a
+ * transaction that is rolled back, so the bulk updates leave the data as they found it.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.revature.rms.campus.repositories.QueryPlanTest$CapturedStatements")
+@RunWith(SpringRunner.class)
+@Transactional
+public class QueryPlanTest {
+
+    /**
+     * Lookups no repository method issues, so their SQL is written out here: the ones the database makes on its
+     * own to enforce foreign keys and unique constraints, and reads of the archive by room.
+     */
+    private static final Map<String, String> DATABASE_LOOKUPS = new LinkedHashMap<>();
+
+    static {
+        DATABASE_LOOKUPS.put("Campus.shippingAddress", "select * from campus where shipping_address_id = 1");
+        DATABASE_LOOKUPS.put("Building.physicalAddress", "select * from building where physical_address_id = 1");
+        DATABASE_LOOKUPS.put("Room number within a building", "select * from room where building_id = 1 and room_number = '101'");
+        DATABASE_LOOKUPS.put("RoomStatusArchive by room", "select * from room_status_archive where room_id = 1");
+    }
+
+    /**
+     * Records the statements Hibernate prepares on the thread that is capturing, so statements of the
+     * scheduled jobs running alongside the test are left out.
+     */
+    public static class CapturedStatements implements StatementInspector {
+
+        private static final ThreadLocal<List<String>> CAPTURED = new ThreadLocal<>();
+
+        static List<String> during(Runnable lookup) {
+            CAPTURED.set(new ArrayList<>());
+            try {
+                lookup.run();
+                return CAPTURED.get();
+            } finally {
+                CAPTURED.remove();
+            }
+        }
+
+        @Override
+        public String inspect(String sql) {
+            List<String> captured = CAPTURED.get();
+            if (captured != null) {
+                captured.add(sql);
+            }
+            return sql;
+        }
+    }
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private CampusRepository campusRepository;
+
+    @Autowired
+    private BuildingRepository buildingRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private RoomWorkOrderRepository roomWorkOrderRepository;
+
+    @Autowired
+    private RoomStatusRepository roomStatusRepository;
+
+    @Autowired
+    private RoomStatusDailySummaryRepository roomStatusDailySummaryRepository;
+
+    @Autowired
+    private AddressRepository addressRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private AmenityRepository amenityRepository;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private final Map<String, Runnable> lookups = new LinkedHashMap<>();
+
+    @Before
+    public void setup() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        // a cached entity or query result would be served without any SQL to capture
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+
+        String modified = "6.15.2020 10:00 PM";
+        Instant from = Instant.parse("2020-01-28T00:00:00Z");
+        Instant to = Instant.parse("2020-01-29T00:00:00Z");
+
+        lookups.put("CampusRepository.findByName", () -> campusRepository.findByName("University of South Florida"));
+        lookups.put("CampusRepository.findByTrainingManagerId", () -> campusRepository.findByTrainingManagerId(3));
+        lookups.put("CampusRepository.findByStagingManagerId", () -> campusRepository.findByStagingManagerId(2));
+        lookups.put("CampusRepository.findByResourceMetadataResourceOwnerAndResourceMetadataCurrentlyActive",
+                () -> campusRepository.findByResourceMetadataResourceOwnerAndResourceMetadataCurrentlyActive(1, true));
+        lookups.put("CampusRepository.findByIdGreaterThanOrderByIdAsc",
+                () -> campusRepository.findByIdGreaterThanOrderByIdAsc(1, PageRequest.of(0, 20)));
+        lookups.put("CampusRepository.findByIdGreaterThanOrderByIdAsc, active only",
+                activeOnly(() -> campusRepository.findByIdGreaterThanOrderByIdAsc(1, PageRequest.of(0, 20))));
+        lookups.put("CampusRepository.deactivateById", () -> campusRepository.deactivateById(1, modified));
+
+        lookups.put("BuildingRepository.findByName", () -> buildingRepository.findByName("MUMA College of Business"));
+        lookups.put("BuildingRepository.findByTrainingLead", () -> buildingRepository.findByTrainingLead(4));
+        lookups.put("BuildingRepository.findByResourceMetadataResourceOwnerAndResourceMetadataCurrentlyActive",
+                () -> buildingRepository.findByResourceMetadataResourceOwnerAndResourceMetadataCurrentlyActive(1, true));
+        lookups.put("BuildingRepository.findAll, active only", activeOnly(buildingRepository::findAll));
+        lookups.put("BuildingRepository.deactivateByCampusId", () -> buildingRepository.deactivateByCampusId(1, modified));
+
+        lookups.put("RoomRepository.findByRoomNumber", () -> roomRepository.findByRoomNumber("107"));
+        lookups.put("RoomRepository.findByMaxOccupancy", () -> roomRepository.findByMaxOccupancy(24));
+        lookups.put("RoomRepository.findByResourceMetadataResourceOwnerAndResourceMetadataCurrentlyActive",
+                () -> roomRepository.findByResourceMetadataResourceOwnerAndResourceMetadataCurrentlyActive(1, true));
+        lookups.put("RoomRepository.findAll, active only", activeOnly(roomRepository::findAll));
+        lookups.put("RoomRepository.findByBatchIdOrderByIdAsc", () -> roomRepository.findByBatchIdOrderByIdAsc(1));
+        lookups.put("RoomRepository.findRoomIdsByBatchIds", () -> roomRepository.findRoomIdsByBatchIds(Arrays.asList(1, 2)));
+        lookups.put("RoomRepository.findAsDTOByBuildingIds", () -> roomRepository.findAsDTOByBuildingIds(Arrays.asList(1, 2)));
+        lookups.put("RoomRepository.findByWorkOrder", () -> roomRepository.findByWorkOrder(1));
+        lookups.put("RoomRepository.deactivateByBuildingId", () -> roomRepository.deactivateByBuildingId(1, modified));
+
+        lookups.put("RoomWorkOrderRepository.findByWorkOrderIn", () -> roomWorkOrderRepository.findByWorkOrderIn(Arrays.asList(1, 2)));
+        lookups.put("RoomWorkOrderRepository.deleteByRoomId", () -> roomWorkOrderRepository.deleteByRoomId(1));
+
+        lookups.put("RoomStatusRepository.findAllBySubmitterId", () -> roomStatusRepository.findAllBySubmitterId(1));
+        lookups.put("RoomStatusRepository.findAllBySubmittedDateTime", () -> roomStatusRepository.findAllBySubmittedDateTime("Jan 28, 2020"));
+        lookups.put("RoomStatusRepository.findLatestByRoomIds", () -> roomStatusRepository.findLatestByRoomIds(Arrays.asList(1, 2), 5));
+        lookups.put("RoomStatusRepository.findByRoomIdAndIdLessThanOrderByIdDesc",
+                () -> roomStatusRepository.findByRoomIdAndIdLessThanOrderByIdDesc(1, 100, PageRequest.of(0, 20)));
+        lookups.put("RoomStatusRepository.findBySubmittedAtGreaterThanEqualAndSubmittedAtLessThanOrderBySubmittedAtAsc",
+                () -> roomStatusRepository.findBySubmittedAtGreaterThanEqualAndSubmittedAtLessThanOrderBySubmittedAtAsc(from, to));
+        lookups.put("RoomStatusDailySummaryRepository.findByRoomIdAndSummaryDateBetweenOrderBySummaryDateAsc",
+                () -> roomStatusDailySummaryRepository.findByRoomIdAndSummaryDateBetweenOrderBySummaryDateAsc(1,
+                        LocalDate.of(2020, 1, 1), LocalDate.of(2020, 1, 31)));
+
+        lookups.put("AddressRepository.findByContentHash",
+                () -> addressRepository.findByContentHash("ace2eefd7468e10c89a720ebacb2d3f0de8c234735b7092f541c0dfbc539cf1e"));
+
+        lookups.put("OutboxEventRepository.findUnsequenced", () -> outboxEventRepository.findUnsequenced(PageRequest.of(0, 100)));
+        lookups.put("OutboxEventRepository.findByPositionGreaterThanOrderByPositionAsc",
+                () -> outboxEventRepository.findByPositionGreaterThanOrderByPositionAsc(100, PageRequest.of(0, 100)));
+        lookups.put("OutboxEventRepository.deleteSequencedBefore",
+                () -> outboxEventRepository.deleteSequencedBefore(Instant.parse("2020-01-01T00:00:00Z")));
+
+        lookups.put("AmenityRepository.findByBuildingIdIn", () -> amenityRepository.findByBuildingIdIn(Arrays.asList(1, 2)));
+    }
+
+    private Runnable activeOnly(Runnable lookup) {
+        return () -> {
+            Session session = entityManager.unwrap(Session.class);
+            session.enableFilter(ActiveFilter.NAME);
+            try {
+                lookup.run();
+            } finally {
+                session.disableFilter(ActiveFilter.NAME);
+            }
+        };
+    }
+
+    /**
+     * Runs EXPLAIN on a captured statement. The plan is chosen when the statement is prepared, before any value is
+     * known, so every parameter is bound to null just to satisfy H2.
+     */
+    private String explain(String sql) {
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement("explain " + sql);
+            for (int i = 1; i <= statement.getParameterMetaData().getParameterCount(); i++) {
+                statement.setObject(i, null);
+            }
+            return statement;
+        }, resultSet -> resultSet.next() ? resultSet.getString(1) : "");
+    }
+
+    /**
+     * Tests that no repository lookup is planned as a table scan. All offending statements are reported together,
+     * each with the plan H2 chose for it.
+     */
+    @Test
+    public void testRepositoryQueriesUseIndexes() {
+        List<String> scans = new ArrayList<>();
+        for (Map.Entry<String, Runnable> lookup : lookups.entrySet()) {
+            List<String> statements = CapturedStatements.during(lookup.getValue());
+            assertFalse(lookup.getKey() + " issued no SQL", statements.isEmpty());
+            for (String sql : statements) {
+                String plan = explain(sql);
+                if (plan.contains(".tableScan")) {
+                    scans.add(lookup.getKey() + ":\n" + plan);
+                }
+            }
+        }
+        for (Map.Entry<String, String> lookup : DATABASE_LOOKUPS.entrySet()) {
+            String plan = explain(lookup.getValue());
+            if (plan.contains(".tableScan")) {
+                scans.add(lookup.getKey() + ":\n" + plan);
+            }
+        }
+        assertTrue("Queries reading a whole table:\n" + String.join("\n\n", scans), scans.isEmpty());
+    }
+}
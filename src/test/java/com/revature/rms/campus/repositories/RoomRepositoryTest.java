@@ -1,6 +1,9 @@
 package com.revature.rms.campus.repositories;
 
+import com.revature.rms.campus.DTO.RoomDTO;
 import com.revature.rms.campus.entities.Room;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
 import org.junit.Before;
 import org.junit.Ignore;
 import org.junit.Test;
@@ -9,12 +12,17 @@ import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import com.revature.rms.core.metadata.*;
 
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 @SpringBootTest
 @RunWith(SpringRunner.class)
@@ -25,6 +33,12 @@ public class RoomRepositoryTest {
     @Autowired
     private RoomRepository sut;
 
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     @Test
     public void testFindByRoomNumber() {
 
@@ -54,4 +68,43 @@ public class RoomRepositoryTest {
         this.sut.deleteAll();
 
     }
+
+    @Test
+    public void testFindAllAsDTO() {
+
+        List<RoomDTO> resultList = sut.findAllAsDTO();
+        RoomDTO result = resultList.get(0);
+
+        assertEquals(1, result.getId());
+        assertEquals(sut.findById(1).get().getRoomNumber(), result.getRoomNumber());
+    }
+
+    /**
+     * Tests that rooms read through findAll are read-only even inside a read-write transaction, so Hibernate
+     * keeps no dirty-checking snapshot of them.
+     */
+    @Test
+    public void testFindAllLoadsReadOnly() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Room room = sut.findAll().iterator().next();
+
+            assertTrue(entityManager.unwrap(Session.class).isReadOnly(room));
+        });
+    }
+
+    /**
+     * Tests that a read-only transaction opens a read-only session that is never flushed on its own.
+     */
+    @Test
+    public void testReadOnlyTransactionSession() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.executeWithoutResult(status -> {
+            Session session = entityManager.unwrap(Session.class);
+            Room room = sut.findById(1).get();
+
+            assertEquals(FlushMode.MANUAL, session.getHibernateFlushMode());
+            assertTrue(session.isReadOnly(room));
+        });
+    }
 }
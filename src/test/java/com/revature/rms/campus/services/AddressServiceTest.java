@@ -0,0 +1,95 @@
+package com.revature.rms.campus.services;
+
+import com.revature.rms.campus.entities.Address;
+import com.revature.rms.campus.repositories.AddressRepository;
+import com.revature.rms.core.exceptions.*;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * This class tests that AddressService.class resolves addresses to one canonical row per distinct address.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class AddressServiceTest {
+
+    /**
+     * Content hash of the seeded address in import.sql.
+     */
+    private static final String FOWLER_AVE = "ace2eefd7468e10c89a720ebacb2d3f0de8c234735b7092f541c0dfbc539cf1e";
+
+    @Mock
+    AddressRepository addressRepository;
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    AddressService sut;
+
+    /**
+     * Tests that an address differing from a stored one only in case and whitespace resolves to the stored row.
+     */
+    @Test
+    public void testCanonicalFindsStoredAddress() {
+        Address stored = new Address(1, "4202 E Fowler Ave", "Tampa", "Florida", "33620", "United States");
+        when(addressRepository.findByContentHash(FOWLER_AVE)).thenReturn(stored);
+
+        Address address = sut.canonical(new Address(" 4202  e fowler ave", "TAMPA", "Florida ", "33620", "united states"));
+
+        assertSame(stored, address);
+        verify(addressRepository, never()).save(any());
+    }
+
+    /**
+     * Tests that a new address is saved normalized, with its content hash.
+     */
+    @Test
+    public void testCanonicalSavesNewAddress() {
+        when(addressRepository.save(any(Address.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Address address = sut.canonical(new Address("4202 E  Fowler Ave ", "Tampa", "Florida", "33620", "United States"));
+
+        assertEquals("4202 E Fowler Ave", address.getUnitStreet());
+        assertEquals(FOWLER_AVE, address.getContentHash());
+        verify(transactionManager).commit(any());
+    }
+
+    /**
+     * Tests that when another request stores the same address first, the row it stored is returned.
+     */
+    @Test
+    public void testCanonicalConcurrentInsert() {
+        Address stored = new Address(1, "4202 E Fowler Ave", "Tampa", "Florida", "33620", "United States");
+        when(addressRepository.findByContentHash(FOWLER_AVE)).thenReturn(null, stored);
+        when(addressRepository.save(any(Address.class))).thenThrow(new DataIntegrityViolationException("uk_address_content_hash"));
+
+        assertSame(stored, sut.canonical(new Address("4202 E Fowler Ave", "Tampa", "Florida", "33620", "United States")));
+    }
+
+    /**
+     * Tests that an address already referenced by its id is returned without a lookup.
+     */
+    @Test
+    public void testCanonicalKeepsStoredId() {
+        Address address = new Address(1, "4202 E Fowler Ave", "Tampa", "Florida", "33620", "United States");
+
+        assertSame(address, sut.canonical(address));
+        verifyNoInteractions(addressRepository);
+    }
+
+    /**
+     * Tests that an InvalidRequestException is thrown when a field is blank once normalized.
+     */
+    @Test(expected = InvalidRequestException.class)
+    public void testCanonicalBlankField() {
+        sut.canonical(new Address("4202 E Fowler Ave", "  ", "Florida", "33620", "United States"));
+    }
+}
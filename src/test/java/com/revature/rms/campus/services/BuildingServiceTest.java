@@ -1,7 +1,10 @@
 package com.revature.rms.campus.services;
 import com.revature.rms.campus.entities.*;
+import com.revature.rms.campus.exceptions.VersionConflictException;
 import com.revature.rms.core.exceptions.*;
+import com.revature.rms.campus.repositories.AmenityRepository;
 import com.revature.rms.campus.repositories.BuildingRepository;
+import com.revature.rms.campus.repositories.RoomRepository;
 import org.junit.Ignore;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -20,6 +23,14 @@ import static org.mockito.Mockito.*;
 public class BuildingServiceTest {
     @Mock
     BuildingRepository repo;
+    @Mock
+    AmenityRepository amenityRepo;
+    @Mock
+    RoomRepository roomRepo;
+    @Mock
+    AddressService addressService;
+    @Mock
+    ChangeFeedService changeFeedService;
     @InjectMocks
     BuildingService sut;
 
@@ -42,6 +53,25 @@ public class BuildingServiceTest {
         assertEquals(actualResults, testBuilding2);
     }
 
+    /**
+     * testSaveWithAmenities() ensures the amenities of a new building are linked to it and saved together
+     * in one saveAll call rather than one save per amenity.
+     */
+    @Test
+    public void testSaveWithAmenities() {
+        List<Amenity> amenities = Arrays.asList(new Amenity(AmenityType.COFFEE, AmenityStatus.OK),
+                new Amenity(AmenityType.TEA, AmenityStatus.LOW));
+        Building testBuilding = new Building(1, "Muma School of Business", "MSB", new Address(),
+                2, amenities, new ArrayList<Room>(3));
+
+        when(repo.save(testBuilding)).thenReturn(testBuilding);
+
+        sut.save(testBuilding);
+
+        verify(amenityRepo).saveAll(amenities);
+        amenities.forEach(amenity -> assertEquals(testBuilding, amenity.getBuilding()));
+    }
+
     /**
      * testSaveWithNullBuilding() ensures BuildingService.save() will not work if a null building object is being saved.
      * If the building object is null, a ResourceNotFoundException will be thrown since the method does not meet the
@@ -157,26 +187,57 @@ public class BuildingServiceTest {
         // setup empty list
         List<Building> expectedResult = new ArrayList<>();
 
-        when(repo.findAll()).thenReturn(expectedResult);
+        when(repo.findByResourceMetadataResourceOwner(1)).thenReturn(expectedResult);
         List<Building> actualResult = sut.findAllBuildingsByOwnerId(1);
 
         assertEquals(expectedResult, actualResult);
     }
 
+    /**
+     * testFindActiveBuildingsByOwnerId tests that the active flag is pushed down to the repository
+     * instead of loading every building and filtering them in memory.
+     */
+    @Test
+    public void testFindActiveBuildingsByOwnerId() {
+        Building testBuilding = new Building(1, "Muma School of Business", "MSB", new Address(),
+                2, new ArrayList<Amenity>(1), new ArrayList<Room>(3));
+        List<Building> expectedResult = Collections.singletonList(testBuilding);
+
+        when(repo.findByResourceMetadataResourceOwnerAndResourceMetadataCurrentlyActive(1, true)).thenReturn(expectedResult);
+
+        assertEquals(expectedResult, sut.findAllBuildingsByOwnerId(1, true));
+        verify(repo, never()).findAll();
+    }
+
     /**
      * Tests to verify that a valid building can have its information
      * updated.
      */
-    @Ignore // refactored BuildingService.update(). Now this test needs to be refactored
     @Test
     public void testUpdateBuilding() {
-        Building testBuilding = new Building(1, "Muma School of Business", "MSB", new Address(),
+        Address address = new Address();
+        address.setId(1);
+        Building testBuilding2 = new Building(2, "Muma School of Business", "MSB", address,
                 2, new ArrayList<Amenity>(1), new ArrayList<Room>(3));
-        sut.save(testBuilding);
-        Building testBuilding2 = new Building(2, "Muma School of Business", "MSB", new Address(),
-                2, new ArrayList<Amenity>(1), new ArrayList<Room>(3));
-        when(repo.save(testBuilding2)).thenReturn(testBuilding2);
+        when(repo.updateDetails(eq(2), eq(-1L), eq("Muma School of Business"), eq("MSB"), eq(address), eq(2), anyString())).thenReturn(1);
+        when(repo.findById(2)).thenReturn(Optional.of(testBuilding2));
         assertEquals(sut.update(testBuilding2), testBuilding2);
+        verify(repo, never()).save(any());
+    }
+
+    /**
+     * Tests that a VersionConflictException is thrown when the building exists
+     * but no longer has the version given in If-Match.
+     */
+    @Test(expected = VersionConflictException.class)
+    public void testUpdateBuildingStaleVersion() {
+        Address address = new Address();
+        address.setId(1);
+        Building testBuilding = new Building(2, "Muma School of Business", "MSB", address,
+                2, new ArrayList<Amenity>(1), new ArrayList<Room>(3));
+        when(repo.updateDetails(anyInt(), anyLong(), anyString(), anyString(), any(), anyInt(), anyString())).thenReturn(0);
+        when(repo.existsById(2)).thenReturn(true);
+        sut.update(testBuilding, 1L);
     }
 
     /**
@@ -254,16 +315,28 @@ public class BuildingServiceTest {
     }
 
     /**
-     * testDeleteWithValidId() ensures buildingService.delete() functions by verifying buildingMongoRepository.deleteById() is ran
-     * successfully one time when provided with a valid id.
+     * testDeleteWithValidId() ensures buildingService.delete() deactivates the building and its rooms with one bulk
+     * update each when provided with a valid id.
      */
     @Test
     public void testDeleteWithValidId() {
         Building testBuilding = new Building(1, "Muma School of Business", "MSB", new Address(),
                 2, new ArrayList<Amenity>(1), new ArrayList<Room>(3));
 
+        when(repo.deactivateById(eq(testBuilding.getId()), anyString())).thenReturn(1);
         sut.delete(testBuilding.getId());
-        verify(repo, times(1)).deleteById(testBuilding.getId());
+        verify(roomRepo, times(1)).deactivateByBuildingId(eq(testBuilding.getId()), anyString());
+        verify(repo, never()).deleteById(anyInt());
+    }
+
+    /**
+     * testDeleteWithValidIdNotFound() throws a ResourceNotFoundException when no building has the provided id, and
+     * leaves the rooms alone.
+     */
+    @Test(expected = ResourceNotFoundException.class)
+    public void testDeleteWithValidIdNotFound() {
+        when(repo.deactivateById(eq(1), anyString())).thenReturn(0);
+        sut.delete(1);
     }
 
     /**
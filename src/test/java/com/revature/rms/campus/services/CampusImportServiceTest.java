@@ -0,0 +1,213 @@
+package com.revature.rms.campus.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.revature.rms.campus.DTO.ImportReport;
+import com.revature.rms.campus.config.ShardDirectory;
+import com.revature.rms.campus.entities.Address;
+import com.revature.rms.campus.entities.Building;
+import com.revature.rms.campus.entities.Campus;
+import com.revature.rms.campus.entities.Room;
+import com.revature.rms.core.exceptions.*;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * This class tests the bulk imports in CampusImportService.class, which stream campus trees from JSON and rooms
+ * from CSV and report the rows they could not write.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class CampusImportServiceTest {
+
+    @Mock
+    CampusService campusService;
+
+    @Mock
+    BuildingService buildingService;
+
+    @Mock
+    RoomService roomService;
+
+    @Spy
+    ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    CampusImportService sut;
+
+    private static InputStream upload(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Tests that a campus tree is written top down, with its valid rooms in one chunk and the invalid room
+     * reported by its JSON pointer.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testImportJsonCampusTree() {
+        String json = "[{\"name\": \"University of South Florida\", \"abbrName\": \"USF\", \"shippingAddress\": {\"city\": \"Tampa\"}," +
+                " \"buildings\": [{\"name\": \"Muma College of Business\", \"abbrName\": \"BSN\", \"physicalAddress\": {\"id\": 1}," +
+                " \"rooms\": [{\"roomNumber\": \"101\", \"maxOccupancy\": 25, \"batchId\": 1}," +
+                " {\"roomNumber\": \"\", \"maxOccupancy\": 25, \"batchId\": 1}," +
+                " {\"roomNumber\": \"103\", \"maxOccupancy\": 30, \"batchId\": 2, \"workOrders\": [4, 5]}]}]}]";
+        Campus campus = new Campus(1, "University of South Florida", "USF", new Address(), 1, 2, 3, Collections.emptyList());
+        Building building = new Building();
+        when(campusService.save(any(Campus.class))).thenReturn(campus);
+        when(buildingService.save(any(Building.class))).thenReturn(building);
+
+        ImportReport report = sut.importJson(upload(json));
+
+        ArgumentCaptor<List<Room>> chunk = ArgumentCaptor.forClass(List.class);
+        verify(roomService).saveAll(chunk.capture());
+        assertEquals(Arrays.asList("101", "103"), Arrays.asList(chunk.getValue().get(0).getRoomNumber(), chunk.getValue().get(1).getRoomNumber()));
+        assertSame(building, chunk.getValue().get(1).getBuilding());
+        assertEquals(Arrays.asList(4, 5), chunk.getValue().get(1).getWorkOrders());
+        assertEquals(1, report.getCampuses());
+        assertEquals(1, report.getBuildings());
+        assertEquals(2, report.getRooms());
+        assertEquals(1, report.getRejected());
+        assertEquals("/0/buildings/0/rooms/1", report.getErrors().get(0).getRow());
+    }
+
+    /**
+     * Tests that the buildings of a rejected campus are skipped rather than written.
+     */
+    @Test
+    public void testImportJsonRejectedCampusSkipsBuildings() {
+        String json = "[{\"name\": \"University of South Florida\", \"abbrName\": \"USF\"," +
+                " \"buildings\": [{\"name\": \"Muma College of Business\", \"rooms\": [{\"roomNumber\": \"101\"}]}]}]";
+
+        ImportReport report = sut.importJson(upload(json));
+
+        verifyNoInteractions(campusService, buildingService, roomService);
+        assertEquals(2, report.getRejected());
+        assertEquals("/0", report.getErrors().get(0).getRow());
+        assertEquals("/0/buildings/0", report.getErrors().get(1).getRow());
+    }
+
+    /**
+     * Tests that an upload that is not a JSON array is refused as a whole.
+     */
+    @Test(expected = InvalidRequestException.class)
+    public void testImportJsonNotAnArray() {
+        sut.importJson(upload("{\"name\": \"University of South Florida\"}"));
+    }
+
+    /**
+     * Tests that CSV rows are matched to their buildings by name, looking each building up once, and that rows
+     * naming an unknown building are reported by line number.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testImportCsv() {
+        String csv = "building,roomNumber,maxOccupancy,batchId,workOrders\n" +
+                "Muma College of Business,101,25,1,4;5\n" +
+                "Nowhere Hall,102,25,1,\n" +
+                "\"Muma College of Business\",\"10\"\"3\",30,2,\n";
+        Building building = new Building();
+        when(buildingService.findByName("Muma College of Business")).thenReturn(building);
+
+        ImportReport report = sut.importCsv(upload(csv));
+
+        ArgumentCaptor<List<Room>> chunk = ArgumentCaptor.forClass(List.class);
+        verify(roomService).saveAll(chunk.capture());
+        verify(buildingService, times(1)).findByName("Muma College of Business");
+        assertEquals(2, chunk.getValue().size());
+        assertEquals("10\"3", chunk.getValue().get(1).getRoomNumber());
+        assertEquals(Arrays.asList(4, 5), chunk.getValue().get(0).getWorkOrders());
+        assertEquals(2, report.getRooms());
+        assertEquals("line 3", report.getErrors().get(0).getRow());
+    }
+
+    /**
+     * Tests that when the database refuses a chunk, its rooms are written one at a time so that only the row at
+     * fault is rejected.
+     */
+    @Test
+    public void testImportCsvChunkFailureFallsBackToRows() {
+        String csv = "building,roomNumber,maxOccupancy,batchId\n" +
+                "Muma College of Business,101,25,1\n" +
+                "Muma College of Business,102,25,1\n";
+        when(buildingService.findByName("Muma College of Business")).thenReturn(new Building());
+        when(roomService.saveAll(anyList()))
+                .thenThrow(new DataIntegrityViolationException("duplicate"))
+                .thenReturn(Collections.emptyList())
+                .thenThrow(new DataIntegrityViolationException("duplicate"));
+
+        ImportReport report = sut.importCsv(upload(csv));
+
+        verify(roomService, times(3)).saveAll(anyList());
+        assertEquals(1, report.getRooms());
+        assertEquals(1, report.getRejected());
+        assertEquals("line 3", report.getErrors().get(0).getRow());
+    }
+
+    /**
+     * Tests that with sharding configured a chunk is written per shard, so that when one shard's part is refused
+     * only its rooms are written again one at a time, and the rooms already committed on the other shard are not
+     * written twice.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testImportCsvChunkSpanningShards() {
+        String csv = "building,roomNumber,maxOccupancy,batchId\n" +
+                "Hall A,101,25,1\n" +
+                "Hall B,201,25,1\n" +
+                "Hall A,102,25,1\n" +
+                "Hall B,202,25,1\n";
+        Building hallA = new Building();
+        hallA.setName("Hall A");
+        Building hallB = new Building();
+        hallB.setName("Hall B");
+        ShardDirectory shardDirectory = mock(ShardDirectory.class);
+        when(shardDirectory.shardOf(Sharded.Key.BUILDING, hallA)).thenReturn(0);
+        when(shardDirectory.shardOf(Sharded.Key.BUILDING, hallB)).thenReturn(1);
+        ReflectionTestUtils.setField(sut, "shardDirectory", shardDirectory);
+        when(buildingService.findByName("Hall A")).thenReturn(hallA);
+        when(buildingService.findByName("Hall B")).thenReturn(hallB);
+        when(roomService.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Room> chunk = invocation.getArgument(0);
+            if (chunk.size() > 1 && chunk.get(0).getBuilding() == hallB) {
+                throw new DataIntegrityViolationException("shard 1 refused the chunk");
+            }
+            return chunk;
+        });
+
+        ImportReport report = sut.importCsv(upload(csv));
+
+        ArgumentCaptor<List<Room>> chunks = ArgumentCaptor.forClass(List.class);
+        verify(roomService, times(4)).saveAll(chunks.capture());
+        List<List<String>> written = chunks.getAllValues().stream()
+                .map(chunk -> chunk.stream().map(Room::getRoomNumber).collect(Collectors.toList()))
+                .collect(Collectors.toList());
+        assertEquals(Arrays.asList(Arrays.asList("101", "102"), Arrays.asList("201", "202"),
+                Collections.singletonList("201"), Collections.singletonList("202")), written);
+        assertEquals(4, report.getRooms());
+        assertEquals(0, report.getRejected());
+    }
+
+    /**
+     * Tests that a CSV header naming an unknown column is refused.
+     */
+    @Test(expected = InvalidRequestException.class)
+    public void testImportCsvUnknownColumn() {
+        sut.importCsv(upload("building,roomNumber,maxOccupancy,batchId,color\n"));
+    }
+}
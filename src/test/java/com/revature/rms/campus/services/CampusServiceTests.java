@@ -3,8 +3,9 @@ package com.revature.rms.campus.services;
 import com.revature.rms.campus.entities.Address;
 import com.revature.rms.campus.entities.Building;
 import com.revature.rms.campus.entities.Campus;
-import com.revature.rms.campus.repositories.AddressRepository;
+import com.revature.rms.campus.repositories.BuildingRepository;
 import com.revature.rms.campus.repositories.CampusRepository;
+import com.revature.rms.campus.repositories.RoomRepository;
 import com.revature.rms.core.metadata.*;
 import com.revature.rms.core.exceptions.*;
 import org.junit.Ignore;
@@ -45,7 +46,13 @@ public class CampusServiceTests {
     @Mock
     CampusRepository repo;
     @Mock
-    AddressRepository addRepo;
+    AddressService addressService;
+    @Mock
+    ChangeFeedService changeFeedService;
+    @Mock
+    BuildingRepository buildingRepo;
+    @Mock
+    RoomRepository roomRepo;
 
     @InjectMocks
     CampusService sut;
@@ -314,9 +321,15 @@ public class CampusServiceTests {
         Campus expectedResult = new Campus(5, "mocked", "m", new Address(),
                 3, 4, 5, new ArrayList<Building>(2), new ArrayList<Integer>(4));
 
+        Campus current = new Campus(4, "mocked", "m", new Address(),
+                3, 4, 5, new ArrayList<Building>(1), new ArrayList<Integer>(3));
+        current.setVersion(2);
+
+        when(repo.findById(4)).thenReturn(Optional.of(current));
         when(repo.save(Mockito.any())).thenReturn((expectedResult));
         Campus actualResult = sut.update(testCampus);
         assertEquals(expectedResult, actualResult);
+        assertEquals(2, testCampus.getVersion());
     }
 
     /**
@@ -329,24 +342,33 @@ public class CampusServiceTests {
     }
 
     /**
-     * Below are the tests related to campusService.delete(). This method functions by taking a user provided id,
-     * calling campusMongoRepository.deleteById with the provided id, and removing the campus object with the same id
-     * from the database. Nothing is returned.
+     * Below are the tests related to campusService.delete(). This method functions by taking a user provided id and
+     * deactivating the campus with the same id, along with its buildings and rooms, through bulk updates.
      */
 
     /**
-     * This test ensures campusService.delete() functions by verifying campusMongoRepository.deleteById() is ran
-     * successfully one time when provided with a valid id.
+     * This test ensures campusService.delete() soft deletes the campus and cascades the deactivation to its buildings
+     * and rooms with one bulk update each, without loading the campus.
      */
-    @Ignore // Refactored method to do a soft delete. Test must be refactored too
     @Test
     public void testDeleteWithValidId() {
         Campus testCampus = new Campus(5, "University of South Florida", "USF", new Address(1,"Street","City","State","Zip","Country"),
                 2, 3, 4, new ArrayList<Building>(1), new ArrayList<Integer>(3));
 
-        when(repo.findById(Mockito.any())).thenReturn(Optional.of(testCampus));
-        sut.delete(testCampus.getId());
-        verify(repo, times(1)).deleteById(testCampus.getId());
+        when(repo.deactivateById(eq(testCampus.getId()), anyString())).thenReturn(1);
+        assertTrue(sut.delete(testCampus.getId()));
+        verify(buildingRepo, times(1)).deactivateByCampusId(eq(testCampus.getId()), anyString());
+        verify(roomRepo, times(1)).deactivateByCampusId(eq(testCampus.getId()), anyString());
+        verify(repo, never()).findById(Mockito.any());
+    }
+
+    /**
+     * This test ensures campusService.delete() throws a ResourceNotFoundException when no campus has the provided id.
+     */
+    @Test(expected = ResourceNotFoundException.class)
+    public void testDeleteWithValidIdNotFound() {
+        when(repo.deactivateById(eq(5), anyString())).thenReturn(0);
+        sut.delete(5);
     }
 
     /**
@@ -0,0 +1,110 @@
+package com.revature.rms.campus.services;
+
+import com.revature.rms.campus.DTO.KeysetPage;
+import com.revature.rms.campus.config.ShardDirectory;
+import com.revature.rms.campus.entities.OutboxEvent;
+import com.revature.rms.campus.repositories.OutboxEventRepository;
+import com.revature.rms.core.exceptions.*;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * This class tests the outbox sequencing and the change feed reads in ChangeFeedService.class.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class ChangeFeedServiceTest {
+
+    @Mock
+    OutboxEventRepository outboxEventRepository;
+
+    @InjectMocks
+    ChangeFeedService sut;
+
+    private static OutboxEvent event(int resourceId, Integer position) {
+        OutboxEvent event = new OutboxEvent(OutboxEvent.Resource.ROOM, resourceId, OutboxEvent.Action.UPDATED, Instant.now());
+        event.setPosition(position);
+        return event;
+    }
+
+    /**
+     * Tests that waiting events are numbered on from the last position handed out, oldest first.
+     */
+    @Test
+    public void testSequenceContinuesAfterLastPosition() {
+        OutboxEvent first = event(1, null);
+        OutboxEvent second = event(2, null);
+        when(outboxEventRepository.findUnsequenced(PageRequest.of(0, ChangeFeedService.SEQUENCE_CHUNK_SIZE)))
+                .thenReturn(Arrays.asList(first, second));
+        when(outboxEventRepository.findLastPosition()).thenReturn(7);
+
+        assertEquals(2, sut.sequence());
+        assertEquals(Integer.valueOf(8), first.getPosition());
+        assertEquals(Integer.valueOf(9), second.getPosition());
+    }
+
+    /**
+     * Tests that nothing is read or written when no event is waiting.
+     */
+    @Test
+    public void testSequenceNothingWaiting() {
+        when(outboxEventRepository.findUnsequenced(any())).thenReturn(Collections.emptyList());
+
+        assertEquals(0, sut.sequence());
+        verify(outboxEventRepository, never()).findLastPosition();
+    }
+
+    /**
+     * Tests that a page of changes ends at the limit, with the position of its last event as the next cursor.
+     */
+    @Test
+    public void testFindChangesPage() {
+        when(outboxEventRepository.findFirstPosition()).thenReturn(1);
+        when(outboxEventRepository.findByPositionGreaterThanOrderByPositionAsc(4, PageRequest.of(0, 3)))
+                .thenReturn(Arrays.asList(event(1, 5), event(2, 6), event(3, 7)));
+
+        KeysetPage<OutboxEvent> page = sut.findChanges(4, 2);
+
+        assertEquals(2, page.getContent().size());
+        assertEquals(Integer.valueOf(6), page.getNextCursor());
+    }
+
+    /**
+     * Tests that a cursor before the oldest kept change is refused rather than silently skipping changes.
+     */
+    @Test(expected = InvalidRequestException.class)
+    public void testFindChangesPrunedCursor() {
+        when(outboxEventRepository.findFirstPosition()).thenReturn(50);
+
+        sut.findChanges(10, 100);
+    }
+
+    /**
+     * Tests that an InvalidRequestException is thrown for a limit above KeysetPage.MAX_LIMIT.
+     */
+    @Test(expected = InvalidRequestException.class)
+    public void testFindChangesLimitTooLarge() {
+        sut.findChanges(0, KeysetPage.MAX_LIMIT + 1);
+    }
+
+    /**
+     * Tests that the feed is refused with sharding configured, where every shard numbers its own outbox.
+     */
+    @Test(expected = InvalidRequestException.class)
+    public void testFindChangesSharded() {
+        ReflectionTestUtils.setField(sut, "shardDirectory", mock(ShardDirectory.class));
+
+        sut.findChanges(0, 100);
+    }
+}
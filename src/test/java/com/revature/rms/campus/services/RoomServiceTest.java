@@ -1,23 +1,52 @@
 package com.revature.rms.campus.services;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.revature.rms.campus.DTO.KeysetPage;
+import com.revature.rms.campus.DTO.RoomDTO;
+import com.revature.rms.campus.DTO.RoomStatusExportRow;
+import com.revature.rms.campus.entities.IntList;
+import com.revature.rms.campus.entities.OutboxEvent;
 import com.revature.rms.campus.entities.Room;
 import com.revature.rms.campus.entities.RoomStatus;
+import com.revature.rms.campus.entities.RoomWorkOrder;
+import com.revature.rms.campus.config.ShardDirectory;
+import com.revature.rms.campus.exceptions.VersionConflictException;
 import com.revature.rms.campus.repositories.RoomRepository;
+import com.revature.rms.campus.repositories.RoomStatusArchiveRepository;
+import com.revature.rms.campus.repositories.RoomStatusDailySummaryRepository;
 import com.revature.rms.campus.repositories.RoomStatusRepository;
+import com.revature.rms.campus.repositories.RoomWorkOrderRepository;
 import com.revature.rms.core.metadata.*;
 import com.revature.rms.core.exceptions.*;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.io.DelegatingSeekableInputStream;
+import org.apache.parquet.io.InputFile;
+import org.apache.parquet.io.SeekableInputStream;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Ignore;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
-
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.persistence.EntityManager;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDate;
 import java.util.*;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -37,6 +66,27 @@ public class RoomServiceTest {
     @Mock
     RoomStatusRepository roomStatusRepository;
 
+    @Mock
+    RoomStatusArchiveRepository roomStatusArchiveRepository;
+
+    @Mock
+    RoomStatusDailySummaryRepository roomStatusDailySummaryRepository;
+
+    @Mock
+    RoomWorkOrderRepository roomWorkOrderRepository;
+
+    @Mock
+    ChangeFeedService changeFeedService;
+
+    @Mock
+    EntityManager entityManager;
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    @Spy
+    ObjectMapper objectMapper = new ObjectMapper();
+
     @InjectMocks
     @Autowired
     RoomService sut;
@@ -92,6 +142,37 @@ public class RoomServiceTest {
         assertEquals(testRooms.get(0), sut.save(testRooms.get(0)));
     }
 
+    /**
+     * Tests that saving a room rewrites its rows in the work order reverse index.
+     */
+    @Test
+    public void testSaveRoomIndexesWorkOrders() {
+        when(repo.save(testRooms.get(0))).thenReturn(testRooms.get(0));
+
+        sut.save(testRooms.get(0));
+
+        verify(roomWorkOrderRepository).deleteByRoomId(1);
+        verify(entityManager).persist(new RoomWorkOrder(1, 1));
+        verify(entityManager).persist(new RoomWorkOrder(3, 1));
+        verify(entityManager, times(3)).persist(any(RoomWorkOrder.class));
+    }
+
+    /**
+     * Tests that a work order listed twice on a room is indexed once, rather than persisting its key twice.
+     */
+    @Test
+    public void testSaveRoomDuplicateWorkOrder() {
+        Room room = testRooms.get(0);
+        room.setWorkOrders(Arrays.asList(4, 4, 5));
+        when(repo.save(room)).thenReturn(room);
+
+        sut.save(room);
+
+        verify(entityManager).persist(new RoomWorkOrder(4, 1));
+        verify(entityManager).persist(new RoomWorkOrder(5, 1));
+        verify(entityManager, times(2)).persist(any(RoomWorkOrder.class));
+    }
+
     /**
      * This tests that a ResourceNotFoundException will be thrown if a null Room
      * tries to be entered into the database.
@@ -110,6 +191,89 @@ public class RoomServiceTest {
         assertEquals(testRooms, sut.findAll());
     }
 
+    /**
+     * This tests that the Rooms read as DTOs keep the work orders read with
+     * their row and get the latest statuses of their room attached.
+     */
+    @Test
+    public void testGetAllRoomsAsDTO() {
+        RoomDTO dto = new RoomDTO(1, "9000", 25, 9000, IntList.of(7), resourceMetadata, 1);
+        RoomStatus status = testStatuses.get(0);
+        status.setRoom(testRooms.get(0));
+        when(repo.findAllAsDTO()).thenReturn(Collections.singletonList(dto));
+        when(roomStatusRepository.findLatestByRoomIds(anyCollection(), anyLong())).thenReturn(Collections.singletonList(status));
+
+        List<RoomDTO> result = sut.findAllAsDTO();
+
+        assertEquals(Collections.singletonList(7), result.get(0).getWorkOrders());
+        assertEquals(Collections.singletonList(status), result.get(0).getRoomStatus());
+    }
+
+    /**
+     * This tests that the latest statuses of a long list of Rooms are read a
+     * bounded chunk of room ids at a time instead of with one unbounded IN list.
+     */
+    @Test
+    public void testGetAllRoomsAsDTOChunksStatusLookups() {
+        List<RoomDTO> dtos = new ArrayList<>();
+        for (int id = 1; id <= FetchPlans.ID_CHUNK_SIZE + 1; id++) {
+            dtos.add(new RoomDTO(id, "9000", 25, 9000, IntList.of(7), resourceMetadata, 1));
+        }
+        when(repo.findAllAsDTO()).thenReturn(dtos);
+        when(roomStatusRepository.findLatestByRoomIds(anyCollection(), anyLong())).thenReturn(Collections.emptyList());
+
+        sut.findAllAsDTO();
+
+        verify(roomStatusRepository).findLatestByRoomIds(argThat(ids -> ids.size() == FetchPlans.ID_CHUNK_SIZE), anyLong());
+        verify(roomStatusRepository).findLatestByRoomIds(eq(Collections.singletonList(FetchPlans.ID_CHUNK_SIZE + 1)), anyLong());
+    }
+
+    /**
+     * This tests that streamed Rooms are handed on in chunks with their latest
+     * statuses loaded, and cleared from the persistence context afterwards.
+     */
+    @Test
+    public void testStreamAllRooms() {
+        when(repo.streamAllByOrderByIdAsc()).thenReturn(testRooms.stream());
+        when(roomStatusRepository.findLatestByRoomIds(anyCollection(), anyLong())).thenReturn(Collections.emptyList());
+        List<Room> streamed = new ArrayList<>();
+
+        sut.streamAll(streamed::addAll);
+
+        assertEquals(testRooms, streamed);
+        verify(entityManager).clear();
+    }
+
+    /**
+     * This tests that a page of Rooms is cut down to the requested limit and
+     * carries the id of its last Room as the cursor for the next page.
+     */
+    @Test
+    public void testFindPage() {
+        when(repo.findByIdGreaterThanOrderByIdAsc(eq(0), any(Pageable.class))).thenReturn(testRooms);
+        KeysetPage<Room> page = sut.findPage(0, 2);
+        assertEquals(testRooms.subList(0, 2), page.getContent());
+        assertEquals(Integer.valueOf(2), page.getNextCursor());
+    }
+
+    /**
+     * This tests that the last page of Rooms has no cursor for a next page.
+     */
+    @Test
+    public void testFindLastPage() {
+        when(repo.findByIdGreaterThanOrderByIdAsc(eq(0), any(Pageable.class))).thenReturn(testRooms);
+        assertNull(sut.findPage(0, 3).getNextCursor());
+    }
+
+    /**
+     * This tests that an InvalidRequestException is thrown if the page
+     * limit is out of range.
+     */
+    @Test(expected = InvalidRequestException.class)
+    public void testFindPageInvalidLimit() {
+        sut.findPage(0, 0);
+    }
+
     /**
      * This tests that a specific Room can be retrieved by
      * its Room Id
@@ -205,15 +369,237 @@ public class RoomServiceTest {
     }
 
     /**
-     * Tests that a Room can be updated by finding it's old id, and saving the
-     * new data over it.
+     * Tests that a Room is updated with one conditional update and then read back.
      */
-    @Ignore // sut.update() was refactored. Now this test needs to refactored.
     @Test
     public void testUpdateRoom() {
-        when(repo.save(testRooms.get(1))).thenReturn(testRooms.get(1));
-        when(repo.findById(testRooms.get(1).getId())).thenReturn(Optional.ofNullable(testRooms.get(1)));
-        assertEquals(testRooms.get(1), sut.update(testRooms.get(1)));
+        Room room = testRooms.get(1);
+        when(repo.updateDetails(eq(room.getId()), eq(4L), eq(room.getRoomNumber()), eq(room.getMaxOccupancy()), anyString())).thenReturn(1);
+        when(repo.findById(room.getId())).thenReturn(Optional.of(room));
+        when(roomStatusRepository.findLatestByRoomIds(anyCollection(), anyLong())).thenReturn(Collections.emptyList());
+        assertEquals(room, sut.update(room, 4L));
+        verify(repo, never()).save(any());
+    }
+
+    /**
+     * Tests that a VersionConflictException is thrown when the Room exists but
+     * no longer has the expected version.
+     */
+    @Test(expected = VersionConflictException.class)
+    public void testUpdateRoomStaleVersion() {
+        Room room = testRooms.get(1);
+        when(repo.updateDetails(anyInt(), anyLong(), anyString(), anyInt(), anyString())).thenReturn(0);
+        when(repo.existsById(room.getId())).thenReturn(true);
+        sut.update(room, 4L);
+    }
+
+    /**
+     * Tests that an update without an expected version matches any version.
+     */
+    @Test
+    public void testUpdateRoomNumberUnconditional() {
+        Room room = testRooms.get(1);
+        when(repo.updateRoomNumber(eq(room.getId()), eq(-1L), eq(room.getRoomNumber()), anyString())).thenReturn(1);
+        when(repo.findById(room.getId())).thenReturn(Optional.of(room));
+        when(roomStatusRepository.findLatestByRoomIds(anyCollection(), anyLong())).thenReturn(Collections.emptyList());
+        assertEquals(room, sut.updateRoomNumber(room));
+    }
+
+    /**
+     * Tests that a merge patch changes only the sent fields and stamps the modification time.
+     */
+    @Test
+    public void testPatchRoom() {
+        Room room = testRooms.get(1);
+        room.setResourceMetadata(new ResourceMetadata());
+        ObjectNode patch = objectMapper.createObjectNode().put("roomNumber", "607");
+        when(repo.findById(room.getId())).thenReturn(Optional.of(room));
+        when(roomStatusRepository.findLatestByRoomIds(anyCollection(), anyLong())).thenReturn(Collections.emptyList());
+
+        Room patched = sut.patch(room.getId(), patch, null);
+
+        assertEquals("607", patched.getRoomNumber());
+        assertEquals(25, patched.getMaxOccupancy());
+        assertNotNull(patched.getResourceMetadata().getLastModifiedDateTime());
+    }
+
+    /**
+     * Tests that a merge patch carrying the current values leaves the room untouched.
+     */
+    @Test
+    public void testPatchRoomNoOp() {
+        Room room = testRooms.get(1);
+        room.setResourceMetadata(new ResourceMetadata());
+        ObjectNode patch = objectMapper.createObjectNode().put("roomNumber", "606").put("maxOccupancy", 25);
+        when(repo.findById(room.getId())).thenReturn(Optional.of(room));
+        when(roomStatusRepository.findLatestByRoomIds(anyCollection(), anyLong())).thenReturn(Collections.emptyList());
+
+        sut.patch(room.getId(), patch, null);
+
+        assertNull(room.getResourceMetadata().getLastModifiedDateTime());
+    }
+
+    /**
+     * Tests that a merge patch spelling the current values differently, such as
+     * 25.0 or "25" for an occupancy of 25, is still recognized as a no-op.
+     */
+    @Test
+    public void testPatchRoomNoOpWithCoercedValues() {
+        Room room = testRooms.get(1);
+        room.setResourceMetadata(new ResourceMetadata());
+        ObjectNode patch = objectMapper.createObjectNode().put("maxOccupancy", 25.0).put("batchId", String.valueOf(room.getBatchId()));
+        when(repo.findById(room.getId())).thenReturn(Optional.of(room));
+        when(roomStatusRepository.findLatestByRoomIds(anyCollection(), anyLong())).thenReturn(Collections.emptyList());
+
+        sut.patch(room.getId(), patch, null);
+
+        assertNull(room.getResourceMetadata().getLastModifiedDateTime());
+        verify(changeFeedService, never()).record(any(), anyInt(), any());
+    }
+
+    /**
+     * Tests that a merge patch may not change fields outside the patchable set.
+     */
+    @Test(expected = InvalidRequestException.class)
+    public void testPatchRoomReadOnlyField() {
+        Room room = testRooms.get(1);
+        when(repo.findById(room.getId())).thenReturn(Optional.of(room));
+        sut.patch(room.getId(), objectMapper.createObjectNode().put("version", 9), null);
+    }
+
+    /**
+     * Tests that the status export writes archived and live statuses into one Parquet file.
+     */
+    @Test
+    public void testExportStatuses() throws IOException {
+        RoomStatusExportRow archived = new RoomStatusExportRow(1, 1, 1, 1, Instant.parse("2020-01-28T10:00:00Z"), false, false, 1);
+        RoomStatusExportRow live = new RoomStatusExportRow(1000, 1, 1, 1, Instant.parse("2020-06-10T10:00:00Z"), true, false, 2);
+        RoomStatusExportRow unplaced = new RoomStatusExportRow(1001, null, null, null, null, false, true, 2);
+        when(roomStatusArchiveRepository.streamExportRows()).thenReturn(Stream.of(archived));
+        when(roomStatusRepository.streamExportRows()).thenReturn(Stream.of(live, unplaced));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        sut.exportStatuses(out);
+
+        try (ParquetFileReader reader = ParquetFileReader.open(inMemory(out.toByteArray()))) {
+            assertEquals(3, reader.getRecordCount());
+            assertEquals(RoomStatusParquet.SCHEMA, reader.getFileMetaData().getSchema());
+        }
+    }
+
+    /**
+     * Tests that with sharding configured the status export reads every shard,
+     * each in a transaction of its own, into the same Parquet file.
+     */
+    @Test
+    public void testExportStatusesFromEveryShard() throws IOException {
+        ShardDirectory shardDirectory = mock(ShardDirectory.class);
+        when(shardDirectory.getShardCount()).thenReturn(2);
+        ReflectionTestUtils.setField(sut, "shardDirectory", shardDirectory);
+        List<Integer> shardsRead = new ArrayList<>();
+        when(roomStatusArchiveRepository.streamExportRows()).thenAnswer(invocation -> {
+            shardsRead.add(Shard.current());
+            return Stream.empty();
+        });
+        when(roomStatusRepository.streamExportRows()).thenReturn(
+                Stream.of(new RoomStatusExportRow(1000, 1, 1, 1, Instant.parse("2020-06-10T10:00:00Z"), true, false, 2)),
+                Stream.of(new RoomStatusExportRow(100001000, 100000001, 100000001, 100000001, Instant.parse("2020-06-10T11:00:00Z"), false, false, 3)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        sut.exportStatuses(out);
+
+        assertEquals(Arrays.asList(0, 1), shardsRead);
+        verify(transactionManager, times(2)).commit(any());
+        try (ParquetFileReader reader = ParquetFileReader.open(inMemory(out.toByteArray()))) {
+            assertEquals(2, reader.getRecordCount());
+        }
+    }
+
+    private static InputFile inMemory(byte[] bytes) {
+        return new InputFile() {
+            @Override
+            public long getLength() {
+                return bytes.length;
+            }
+
+            @Override
+            public SeekableInputStream newStream() {
+                SeekableBytes in = new SeekableBytes(bytes);
+                return new DelegatingSeekableInputStream(in) {
+                    @Override
+                    public long getPos() {
+                        return in.position();
+                    }
+
+                    @Override
+                    public void seek(long newPos) {
+                        in.seek(newPos);
+                    }
+                };
+            }
+        };
+    }
+
+    private static class SeekableBytes extends ByteArrayInputStream {
+
+        SeekableBytes(byte[] bytes) {
+            super(bytes);
+        }
+
+        long position() {
+            return pos;
+        }
+
+        void seek(long newPos) {
+            pos = (int) newPos;
+        }
+    }
+
+    /**
+     * Tests that the rooms of many batches are grouped by batch from a single query.
+     */
+    @Test
+    public void testFindRoomIdsByBatchIds() {
+        List<Integer> batchIds = Arrays.asList(1, 2);
+        RoomRepository.BatchRoom first = mock(RoomRepository.BatchRoom.class);
+        RoomRepository.BatchRoom second = mock(RoomRepository.BatchRoom.class);
+        when(first.getBatchId()).thenReturn(1);
+        when(first.getRoomId()).thenReturn(4);
+        when(second.getBatchId()).thenReturn(1);
+        when(second.getRoomId()).thenReturn(7);
+        when(repo.findRoomIdsByBatchIds(batchIds)).thenReturn(Arrays.asList(first, second));
+
+        Map<Integer, List<Integer>> roomIds = sut.findRoomIdsByBatchIds(batchIds);
+
+        assertEquals(Collections.singletonMap(1, Arrays.asList(4, 7)), roomIds);
+    }
+
+    /**
+     * Tests that the rooms listing many work orders are read from the reverse index and grouped by work order.
+     */
+    @Test
+    public void testFindRoomIdsByWorkOrders() {
+        List<Integer> workOrders = Arrays.asList(1, 2, 99);
+        when(roomWorkOrderRepository.findByWorkOrderIn(workOrders)).thenReturn(Arrays.asList(
+                new RoomWorkOrder(1, 1), new RoomWorkOrder(1, 2), new RoomWorkOrder(2, 1)));
+
+        Map<Integer, List<Integer>> roomIds = sut.findRoomIdsByWorkOrders(workOrders);
+
+        assertEquals(Arrays.asList(1, 2), roomIds.get(1));
+        assertEquals(Collections.singletonList(1), roomIds.get(2));
+        assertFalse(roomIds.containsKey(99));
+    }
+
+    /**
+     * Tests that a lookup of more ids than one page holds is refused before touching the database.
+     */
+    @Test(expected = InvalidRequestException.class)
+    public void testFindRoomIdsByWorkOrdersTooManyIds() {
+        List<Integer> workOrders = new ArrayList<>();
+        for (int i = 1; i <= KeysetPage.MAX_LIMIT + 1; i++) {
+            workOrders.add(i);
+        }
+        sut.findRoomIdsByWorkOrders(workOrders);
     }
 
     /**
@@ -237,6 +623,19 @@ public class RoomServiceTest {
         sut.delete(id);
     }
 
+    /**
+     * Tests that deactivating a room writes a change to the outbox.
+     */
+    @Test
+    public void testDeactivateRoomRecordsChange() {
+        when(repo.deactivateById(eq(1), anyString())).thenReturn(1);
+        when(repo.findById(1)).thenReturn(Optional.of(testRooms.get(0)));
+
+        sut.delete(1);
+
+        verify(changeFeedService).record(OutboxEvent.Resource.ROOM, 1, OutboxEvent.Action.DEACTIVATED);
+    }
+
     /**
      * Tests that all RoomStatuses can be retrieved by the submitterId.
      */
@@ -255,6 +654,99 @@ public class RoomServiceTest {
         assertEquals(Collections.singletonList(testStatuses.get(0)), sut.findAllStatusByDate(testStatuses.get(0).getSubmittedDateTime()));
     }
 
+    /**
+     * Tests that the status history of a room is paged newest first, starting
+     * from the newest status when no cursor is given.
+     */
+    @Test
+    public void testFindStatusHistory() {
+        when(repo.existsById(1)).thenReturn(true);
+        when(roomStatusRepository.findByRoomIdAndIdLessThanOrderByIdDesc(eq(1), eq(Integer.MAX_VALUE), any(Pageable.class))).thenReturn(testStatuses);
+        KeysetPage<RoomStatus> page = sut.findStatusHistory(1, null, 2);
+        assertEquals(testStatuses.subList(0, 2), page.getContent());
+        assertEquals(Integer.valueOf(2), page.getNextCursor());
+    }
+
+    /**
+     * Tests that a ResourceNotFoundException is thrown when paging the status
+     * history of a room that does not exist.
+     */
+    @Test(expected = ResourceNotFoundException.class)
+    public void testFindStatusHistoryRoomNotFound() {
+        when(repo.existsById(99)).thenReturn(false);
+        sut.findStatusHistory(99, null, 10);
+    }
+
+    /**
+     * Tests that RoomStatuses can be retrieved by a range of submission instants.
+     */
+    @Test
+    public void testGetAllStatusByDateRange() {
+        Instant from = Instant.parse("2020-01-28T00:00:00Z");
+        Instant to = Instant.parse("2020-01-31T00:00:00Z");
+        when(roomStatusRepository.findBySubmittedAtGreaterThanEqualAndSubmittedAtLessThanOrderBySubmittedAtAsc(from, to)).thenReturn(testStatuses);
+        assertEquals(testStatuses, sut.findAllStatusByDateRange(from, to));
+    }
+
+    /**
+     * Tests that an InvalidRequestException is thrown when the range ends
+     * before it starts.
+     */
+    @Test(expected = InvalidRequestException.class)
+    public void testGetAllStatusByDateRangeReversed() {
+        sut.findAllStatusByDateRange(Instant.parse("2020-01-31T00:00:00Z"), Instant.parse("2020-01-28T00:00:00Z"));
+    }
+
+    /**
+     * Tests that the legacy submittedDateTime formats are converted to UTC instants.
+     */
+    @Test
+    public void testParseSubmittedDateTime() {
+        assertEquals(Instant.parse("2020-06-10T00:00:00Z"), RoomStatus.parseSubmittedDateTime("06/10/2020"));
+        assertEquals(Instant.parse("2020-01-28T00:00:00Z"), RoomStatus.parseSubmittedDateTime("Jan 28, 2020"));
+        assertNull(RoomStatus.parseSubmittedDateTime("sometime last week"));
+    }
+
+    /**
+     * Tests that statuses older than the cutoff are copied, summarized and then
+     * removed from the live table, in that order.
+     */
+    @Test
+    public void testArchiveStatuses() {
+        Instant cutoff = Instant.parse("2020-03-01T00:00:00Z");
+        when(roomStatusArchiveRepository.copyOlderThan(cutoff)).thenReturn(3);
+        when(roomStatusArchiveRepository.deleteLiveOlderThan(cutoff)).thenReturn(3);
+
+        assertEquals(3, sut.archiveStatuses(cutoff));
+
+        InOrder inOrder = inOrder(roomStatusArchiveRepository);
+        inOrder.verify(roomStatusArchiveRepository).copyOlderThan(cutoff);
+        inOrder.verify(roomStatusArchiveRepository).addToDailySummaries(cutoff);
+        inOrder.verify(roomStatusArchiveRepository).insertDailySummaries(cutoff);
+        inOrder.verify(roomStatusArchiveRepository).deleteLiveOlderThan(cutoff);
+    }
+
+    /**
+     * Tests that nothing is summarized or deleted when no status is older than the cutoff.
+     */
+    @Test
+    public void testArchiveStatusesNothingToArchive() {
+        Instant cutoff = Instant.parse("2020-01-01T00:00:00Z");
+        when(roomStatusArchiveRepository.copyOlderThan(cutoff)).thenReturn(0);
+
+        assertEquals(0, sut.archiveStatuses(cutoff));
+        verify(roomStatusArchiveRepository, never()).deleteLiveOlderThan(any());
+    }
+
+    /**
+     * Tests that an InvalidRequestException is thrown when the daily summary
+     * range ends before it starts.
+     */
+    @Test(expected = InvalidRequestException.class)
+    public void testFindDailySummariesReversed() {
+        sut.findDailySummaries(1, LocalDate.of(2020, 1, 31), LocalDate.of(2020, 1, 28));
+    }
+
     /**
      * Tests that a RoomStatus can be retrieved by its id.
      */